@@ -208,6 +208,7 @@ const useProductStore = create<ProductStoreState>((set, get) => ({
           size: size,
           scent,
           sort,
+          includeTotal: true,
         },
       })
 
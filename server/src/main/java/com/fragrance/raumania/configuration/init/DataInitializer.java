@@ -1,18 +1,20 @@
 package com.fragrance.raumania.configuration.init;
 
 import com.fragrance.raumania.constant.role.RoleName;
-import com.fragrance.raumania.mapper.ProductMapper;
+import com.fragrance.raumania.dto.response.product.ProductReindexResponse;
 import com.fragrance.raumania.model.authorization.Role;
 import com.fragrance.raumania.model.product.*;
 import com.fragrance.raumania.model.user.User;
 import com.fragrance.raumania.repository.*;
 import com.fragrance.raumania.service.DataExportService;
+import com.fragrance.raumania.service.ProductReindexService;
 import com.fragrance.raumania.service.interfaces.BrandService;
 import com.fragrance.raumania.service.interfaces.ProductIndexService;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
@@ -31,7 +33,8 @@ public class DataInitializer {
     private final ProductVariantRepository productVariantRepository;
     private final ReviewRepository reviewRepository;
     private final ProductDocumentRepository productDocumentRepository;
-    private final ProductMapper productMapper;
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ProductReindexService productReindexService;
     private final ProductImageRepository productImageRepository;
     private final DataExportService dataExportService;
     private final ProductIndexService productIndexService;
@@ -438,25 +441,16 @@ public class DataInitializer {
 
     public void initProductDocuments() {
 
-        if (productDocumentRepository.count() > 0) {
+        if (elasticsearchOperations.indexOps(ProductDocument.class).exists() && productDocumentRepository.count() > 0) {
             System.out.println("✅ Product documents already initialized. Skipping initialization.");
 
             return;
         }
 
-        List<Product> products = productRepository.findAllProductsWithBrandAndVariants();
-        List<ProductDocument> productDocuments = new ArrayList<>();
-
-        for (Product product : products) {
-            ProductDocument productDocument = productMapper.toDocument(product);
-            productDocuments.add(productDocument);
-            System.out.println("✅ Product document ready for saving: " + product.getName());
-            System.out.println("✅ Product id document ready for saving: " + product.getId());
-        }
-
-        // Save all documents at once
-        productDocumentRepository.saveAll(productDocuments);
-        System.out.println("✅ Product document initialization complete.");
+        // Builds a versioned index and points the products alias at it
+        ProductReindexResponse response = productReindexService.reindex();
+        System.out.println("✅ Product document initialization complete: " + response.getIndexedProducts()
+                + " products indexed into " + response.getIndexName() + ".");
     }
 
     public void exportDataForChatbot() {
@@ -41,6 +41,7 @@ public class SecurityConfig {
             "/api/orders",
             "/api/orders/{orderId}",
             "/api/admin/dashboard/**",
+            "/api/admin/cache/**",
             "/api/user/{id}",
             "/api/user/all",
             "/api/user",
@@ -58,6 +59,7 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.GET, "/api/brand/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/product-variant/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/review/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/uploads/**").permitAll()
                         .requestMatchers(PUBLIC_ENDPOINT).permitAll()
 
                         .requestMatchers(HttpMethod.POST, "/api/product/**").hasRole("ADMIN")
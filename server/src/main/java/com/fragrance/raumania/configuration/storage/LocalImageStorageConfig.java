@@ -0,0 +1,25 @@
+package com.fragrance.raumania.configuration.storage;
+
+import com.fragrance.raumania.service.LocalImageStorageService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.nio.file.Paths;
+
+@Configuration
+@ConditionalOnProperty(name = "image-storage.provider", havingValue = "local")
+public class LocalImageStorageConfig implements WebMvcConfigurer {
+
+    @Value("${image-storage.local.directory}")
+    private String directory;
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        String location = Paths.get(directory).toAbsolutePath().toUri().toString();
+        registry.addResourceHandler(LocalImageStorageService.URL_PATH + "**")
+                .addResourceLocations(location.endsWith("/") ? location : location + "/");
+    }
+}
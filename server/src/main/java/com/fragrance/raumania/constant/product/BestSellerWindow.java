@@ -0,0 +1,35 @@
+package com.fragrance.raumania.constant.product;
+
+import com.fragrance.raumania.exception.InvalidDataException;
+
+import java.util.Arrays;
+
+public enum BestSellerWindow {
+    WEEK("7d", 7),
+    MONTH("30d", 30),
+    ALL_TIME("all", 0);
+
+    private final String value;
+    private final int days;
+
+    BestSellerWindow(String value, int days) {
+        this.value = value;
+        this.days = days;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    // Zero for the all-time ranking, which is kept as a single running total
+    public int getDays() {
+        return days;
+    }
+
+    public static BestSellerWindow fromValue(String value) {
+        return Arrays.stream(values())
+                .filter(window -> window.value.equalsIgnoreCase(value))
+                .findFirst()
+                .orElseThrow(() -> new InvalidDataException("Unsupported best seller window: " + value));
+    }
+}
@@ -3,10 +3,13 @@ package com.fragrance.raumania.controller;
 import com.fragrance.raumania.dto.request.brand.CreateBrandRequest;
 import com.fragrance.raumania.dto.request.brand.UpdateBrandRequest;
 import com.fragrance.raumania.dto.response.ApiResponse;
+import com.fragrance.raumania.service.EntityVersionService;
 import com.fragrance.raumania.service.interfaces.BrandService;
+import com.fragrance.raumania.utils.EtagUtils;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.util.UUID;
 
 @RestController
@@ -14,6 +17,7 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class BrandController {
     private final BrandService brandService;
+    private final EntityVersionService entityVersionService;
 
     @PostMapping
     public ResponseEntity<?> createBrand(@RequestBody CreateBrandRequest request) {
@@ -30,14 +34,20 @@ public class BrandController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> getBrandById(@PathVariable UUID id) {
+    public ResponseEntity<?> getBrandById(@PathVariable UUID id, WebRequest webRequest) {
+        if (EtagUtils.notModified(webRequest, entityVersionService.getBrandEtag(id))) {
+            return null;
+        }
         return ResponseEntity.ok(
                 new ApiResponse<>(200, "Brand retrieved successfully", brandService.getBrandById(id))
         );
     }
 
     @GetMapping("/name")
-    public ResponseEntity<?> getBrandDropdownList() {
+    public ResponseEntity<?> getBrandDropdownList(WebRequest webRequest) {
+        if (EtagUtils.notModified(webRequest, entityVersionService.getBrandsEtag())) {
+            return null;
+        }
         return ResponseEntity.ok(
                 new ApiResponse<>(200, "Brand name list retrieved successfully", brandService.getBrandDropdownList())
         );
@@ -55,7 +65,11 @@ public class BrandController {
             @RequestParam(defaultValue = "1") int pageNumber,
             @RequestParam(defaultValue = "10") int pageSize,
             @RequestParam(defaultValue = "name") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDirection) {
+            @RequestParam(defaultValue = "asc") String sortDirection,
+            WebRequest webRequest) {
+        if (EtagUtils.notModified(webRequest, entityVersionService.getBrandsEtag())) {
+            return null;
+        }
         return ResponseEntity.ok(
                 new ApiResponse<>(200, "Brands retrieved successfully", brandService.getAllBrands(pageNumber, pageSize, sortBy, sortDirection))
         );
@@ -67,7 +81,11 @@ public class BrandController {
             @RequestParam(defaultValue = "1") int pageNumber,
             @RequestParam(defaultValue = "10") int pageSize,
             @RequestParam(defaultValue = "name") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDirection) {
+            @RequestParam(defaultValue = "asc") String sortDirection,
+            WebRequest webRequest) {
+        if (EtagUtils.notModified(webRequest, entityVersionService.getCatalogEtag(sortBy))) {
+            return null;
+        }
 
         return ResponseEntity.ok(
                 new ApiResponse<>(200, "Products retrieved successfully", brandService.getProductByBrand(brandId, pageNumber, pageSize, sortBy, sortDirection)
@@ -81,7 +99,11 @@ public class BrandController {
             @RequestParam(defaultValue = "10") int pageSize,
             @RequestParam(defaultValue = "name") String sortBy,
             @RequestParam(defaultValue = "asc") String sortDirection,
-            @RequestParam String name) {
+            @RequestParam String name,
+            WebRequest webRequest) {
+        if (EtagUtils.notModified(webRequest, entityVersionService.getBrandsEtag())) {
+            return null;
+        }
         return ResponseEntity.ok(
                 new ApiResponse<>(200, "Search results retrieved successfully", brandService.searchBrands(pageNumber, pageSize, sortBy, sortDirection, name))
         );
@@ -0,0 +1,39 @@
+package com.fragrance.raumania.controller;
+
+import com.fragrance.raumania.dto.response.ApiResponse;
+import com.fragrance.raumania.service.ProductCacheService;
+import com.fragrance.raumania.service.ProductCountCacheService;
+import com.fragrance.raumania.service.ResponseCacheService;
+import com.fragrance.raumania.service.SearchResultCacheService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/cache")
+@RequiredArgsConstructor
+public class CacheController {
+
+    private final ProductCacheService productCacheService;
+    private final ProductCountCacheService productCountCacheService;
+    private final ResponseCacheService responseCacheService;
+    private final SearchResultCacheService searchResultCacheService;
+
+    @GetMapping("/statistics")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getCacheStatistics() {
+        return ResponseEntity.ok(
+                new ApiResponse<>(200,
+                        "Cache statistics retrieved successfully",
+                        List.of(
+                                productCacheService.getStatistic(),
+                                productCountCacheService.getStatistic(),
+                                responseCacheService.getStatistic(),
+                                searchResultCacheService.getStatistic())));
+    }
+}
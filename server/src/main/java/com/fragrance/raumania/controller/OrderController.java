@@ -4,11 +4,15 @@ import com.fragrance.raumania.dto.request.checkout.CheckoutRequest;
 import com.fragrance.raumania.dto.request.order.UpdateOrderStatusRequest;
 import com.fragrance.raumania.dto.response.ApiResponse;
 import com.fragrance.raumania.dto.response.PageResponse;
+import com.fragrance.raumania.service.EntityVersionService;
 import com.fragrance.raumania.service.interfaces.OrderService;
+import com.fragrance.raumania.utils.CursorUtils;
+import com.fragrance.raumania.utils.EtagUtils;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.UUID;
 
@@ -18,6 +22,7 @@ import java.util.UUID;
 public class OrderController {
 
     private final OrderService orderService;
+    private final EntityVersionService entityVersionService;
 
     @PostMapping("/checkout")
     public ResponseEntity<?> createOrder(@RequestBody CheckoutRequest checkoutRequest) {
@@ -38,7 +43,10 @@ public class OrderController {
     }
 
     @GetMapping("/{orderId}")
-    public ResponseEntity<?> getOrderById(@PathVariable UUID orderId) {
+    public ResponseEntity<?> getOrderById(@PathVariable UUID orderId, WebRequest webRequest) {
+        if (EtagUtils.notModifiedPrivate(webRequest, entityVersionService.getOrderEtag(orderId))) {
+            return null;
+        }
         return ResponseEntity.ok(
                 new ApiResponse<>(200,
                         "Order retrieved successfully",
@@ -82,9 +90,13 @@ public class OrderController {
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
-            @RequestParam(defaultValue = "desc") String sortDir
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(defaultValue = CursorUtils.MODE_OFFSET) String mode,
+            @RequestParam(required = false) String cursor
     ) {
-        PageResponse<?> response = orderService.getAllOrders(page, size, sortBy, sortDir);
+        // mode=cursor pages by keyset instead of page number; follow nextCursor through the cursor parameter
+        PageResponse<?> response = orderService.getAllOrders(page, size, sortBy, sortDir,
+                CursorUtils.resolveCursor(mode, cursor));
         return ResponseEntity.ok(
                 new ApiResponse<>(200, "Orders retrieved successfully", response)
         );
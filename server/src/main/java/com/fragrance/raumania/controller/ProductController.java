@@ -4,14 +4,25 @@ import com.fragrance.raumania.dto.filter.product.ProductFilter;
 import com.fragrance.raumania.dto.request.product.CreateProductRequest;
 import com.fragrance.raumania.dto.request.product.UpdateProductRequest;
 import com.fragrance.raumania.dto.response.ApiResponse;
+import com.fragrance.raumania.dto.response.product.ProductResponse;
 import com.fragrance.raumania.dto.response.product.RelatedProductResponse;
+import com.fragrance.raumania.service.BestSellerService;
+import com.fragrance.raumania.service.EntityVersionService;
+import com.fragrance.raumania.service.FallbackSearchService;
+import com.fragrance.raumania.service.ProductIndexOutboxService;
+import com.fragrance.raumania.service.ProductReindexService;
+import com.fragrance.raumania.service.RecentlyViewedService;
+import com.fragrance.raumania.service.interfaces.ProductImportService;
 import com.fragrance.raumania.service.interfaces.ProductIndexService;
 import com.fragrance.raumania.service.interfaces.ProductService;
+import com.fragrance.raumania.utils.CursorUtils;
+import com.fragrance.raumania.utils.EtagUtils;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -25,6 +36,13 @@ public class ProductController {
 
     private final ProductService productService;
     private final ProductIndexService productIndexService;
+    private final ProductImportService productImportService;
+    private final EntityVersionService entityVersionService;
+    private final BestSellerService bestSellerService;
+    private final RecentlyViewedService recentlyViewedService;
+    private final ProductReindexService productReindexService;
+    private final ProductIndexOutboxService productIndexOutboxService;
+    private final FallbackSearchService fallbackSearchService;
 
     @PostMapping()
     @PreAuthorize("hasRole('ADMIN')")
@@ -38,29 +56,134 @@ public class ProductController {
         );
     }
 
+    @PostMapping("/import")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> importProducts(@RequestPart("file") MultipartFile file) throws IOException {
+        return ResponseEntity.ok(
+                new ApiResponse<>(200,
+                        "Products imported",
+                        productImportService.importProducts(file))
+        );
+    }
+
+    @PostMapping("/reindex")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> reindexProducts() {
+        return ResponseEntity.ok(
+                new ApiResponse<>(200,
+                        "Products reindexed",
+                        productReindexService.reindex())
+        );
+    }
+
+    @GetMapping("/index-outbox")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getIndexOutboxStatistic() {
+        return ResponseEntity.ok(
+                new ApiResponse<>(200,
+                        "Index outbox statistics retrieved successfully",
+                        productIndexOutboxService.getStatistic())
+        );
+    }
+
+    @GetMapping("/index-buffer")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getIndexBufferStatistic() {
+        return ResponseEntity.ok(
+                new ApiResponse<>(200,
+                        "Index buffer statistics retrieved successfully",
+                        productIndexOutboxService.getBufferStatistic())
+        );
+    }
+
+    @PostMapping("/index-outbox/retry")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> retryParkedIndexEvents() {
+        return ResponseEntity.ok(
+                new ApiResponse<>(200,
+                        "Parked index events queued for retry",
+                        productIndexOutboxService.retryParked())
+        );
+    }
+
+    @GetMapping("/search-fallback")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getSearchFallbackStatistic() {
+        return ResponseEntity.ok(
+                new ApiResponse<>(200,
+                        "Search fallback statistics retrieved successfully",
+                        fallbackSearchService.getStatistic())
+        );
+    }
+
+    @GetMapping("/batch")
+    public ResponseEntity<?> getProductsByIds(@RequestParam List<UUID> ids, WebRequest webRequest) {
+        if (EtagUtils.notModified(webRequest, entityVersionService.getCatalogEtag())) {
+            return null;
+        }
+        return ResponseEntity.ok(
+                new ApiResponse<>(200,
+                        "Products retrieved successfully",
+                        productService.getProductsByIds(ids))
+        );
+    }
+
+    @GetMapping("/best-sellers")
+    public ResponseEntity<?> getBestSellers(@RequestParam(defaultValue = "7d") String window,
+                                            @RequestParam(required = false) UUID brandId,
+                                            @RequestParam(defaultValue = "1") int pageNumber,
+                                            @RequestParam(defaultValue = "10") int pageSize) {
+        return ResponseEntity.ok(
+                new ApiResponse<>(200,
+                        "Best sellers retrieved successfully",
+                        bestSellerService.getBestSellers(window, brandId, pageNumber, pageSize))
+        );
+    }
+
+    @GetMapping("/recently-viewed")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<?> getRecentlyViewed(@RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(
+                new ApiResponse<>(200,
+                        "Recently viewed products retrieved successfully",
+                        recentlyViewedService.getRecentlyViewed(limit))
+        );
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<?> getProductById(@PathVariable UUID id) {
+    public ResponseEntity<?> getProductById(@PathVariable UUID id, WebRequest webRequest) {
+        if (EtagUtils.notModified(webRequest, entityVersionService.getProductEtag(id))) {
+            return null;
+        }
+        ProductResponse product = productService.getProductById(id);
+        if (product.getDegradedSections() != null) {
+            EtagUtils.markDegraded(webRequest, product.getDegradedSections());
+        }
         return ResponseEntity.ok(
                 new ApiResponse<>(200,
                         "Product retrieved successfully",
-                        productService.getProductById(id))
+                        product)
         );
     }
 
     @GetMapping("/related")
     public ResponseEntity<?> getRandomProducts(
+            @RequestParam(name = "productId", required = false) UUID productId,
             @RequestParam(name = "limit", defaultValue = "4") int limit) {
         return ResponseEntity.ok(
                 new ApiResponse<>(
                         200,
                         "Random products retrieved successfully",
-                        productService.getRelatedProducts(limit)
+                        productService.getRelatedProducts(productId, limit)
                 )
         );
     }
 
     @GetMapping("/filters")
-    public ResponseEntity<?> getFilterOptions() {
+    public ResponseEntity<?> getFilterOptions(WebRequest webRequest) {
+        if (EtagUtils.notModified(webRequest, entityVersionService.getCatalogEtag())) {
+            return null;
+        }
         return ResponseEntity.ok(
                 new ApiResponse<>(200,
                         "Filter options retrieved successfully",
@@ -100,15 +223,25 @@ public class ProductController {
         );
     }
 
+    // Listings page by page number unless mode=cursor, which pages by keyset and returns a nextCursor to pass back
+    // as cursor; totals are only computed for page-number paging
     @GetMapping("/all")
     public ResponseEntity<?> getAllProducts(@RequestParam(defaultValue = "1") int pageNumber,
                                             @RequestParam(defaultValue = "10") int pageSize,
                                             @RequestParam(defaultValue = "id") String sortBy,
-                                            @RequestParam(defaultValue = "asc") String sortDirection) {
+                                            @RequestParam(defaultValue = "asc") String sortDirection,
+                                            @RequestParam(defaultValue = CursorUtils.MODE_OFFSET) String mode,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(defaultValue = "false") boolean includeTotal,
+                                            WebRequest webRequest) {
+        if (EtagUtils.notModified(webRequest, entityVersionService.getCatalogEtag(sortBy))) {
+            return null;
+        }
         return ResponseEntity.ok(
                 new ApiResponse<>(200,
                         "Products retrieved successfully",
-                        productService.getAllProducts(pageNumber, pageSize, sortBy, sortDirection))
+                        productService.getAllProducts(pageNumber, pageSize, sortBy, sortDirection,
+                                CursorUtils.resolveCursor(mode, cursor), includeTotal))
         );
     }
 
@@ -123,7 +256,14 @@ public class ProductController {
                                             @RequestParam(required = false) String brandName,
                                             @RequestParam(required = false) Boolean isActive,
                                             @RequestParam(required = false) String size,
-                                            @RequestParam(required = false) String scent) {
+                                            @RequestParam(required = false) String scent,
+                                            @RequestParam(defaultValue = CursorUtils.MODE_OFFSET) String mode,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(defaultValue = "false") boolean includeTotal,
+                                            WebRequest webRequest) {
+        if (EtagUtils.notModified(webRequest, entityVersionService.getCatalogEtag(sortBy))) {
+            return null;
+        }
         ProductFilter filter = ProductFilter.builder()
                 .name(name)
                 .minPrice(minPrice)
@@ -136,7 +276,8 @@ public class ProductController {
         return ResponseEntity.ok(
                 new ApiResponse<>(200,
                         "Search and filtered products retrieved successfully",
-                        productService.searchAndFilterProducts(pageNumber, pageSize, sortBy, sortDirection, filter))
+                        productService.searchAndFilterProducts(pageNumber, pageSize, sortBy, sortDirection, filter,
+                                CursorUtils.resolveCursor(mode, cursor), includeTotal))
         );
     }
 
@@ -151,6 +292,16 @@ public class ProductController {
         );
     }
 
+    @GetMapping("/suggest")
+    public ResponseEntity<?> suggestProducts(@RequestParam String prefix,
+                                             @RequestParam(defaultValue = "5") int size) {
+        return ResponseEntity.ok(
+                new ApiResponse<>(200,
+                        "Product suggestions retrieved successfully",
+                        productIndexService.suggest(prefix, size))
+        );
+    }
+
     @GetMapping("/search-es")
     public ResponseEntity<?> elasticsearchProducts(@RequestParam(defaultValue = "1") int pageNumber,
                                                     @RequestParam(defaultValue = "6") int pageSize,
@@ -162,11 +313,20 @@ public class ProductController {
                                                     @RequestParam(required = false) String brandName,
                                                     @RequestParam(required = false) Boolean isActive,
                                                     @RequestParam(required = false) String size,
-                                                    @RequestParam(required = false) String scent) {
+                                                    @RequestParam(required = false) String scent,
+                                                    @RequestParam(defaultValue = CursorUtils.MODE_OFFSET) String mode,
+                                                    @RequestParam(required = false) String cursor,
+                                                    WebRequest webRequest) {
+        String resolvedCursor = CursorUtils.resolveCursor(mode, cursor);
+        // A cursor points at a search snapshot that its last page closes, so it must not be shared through a cache
+        if (resolvedCursor != null) {
+            EtagUtils.markNoStore(webRequest);
+        }
         return ResponseEntity.ok(
                 new ApiResponse<>(200,
                         "Search and filtered products retrieved successfully",
-                        productIndexService.elasticsearchProducts(name, minPrice, maxPrice, brandName, isActive, size, scent, pageNumber, pageSize, sortBy, sortDirection))
+                        productIndexService.elasticsearchProducts(name, minPrice, maxPrice, brandName, isActive, size, scent, pageNumber, pageSize, sortBy, sortDirection,
+                                resolvedCursor))
         );
     }
 }
@@ -3,11 +3,14 @@ package com.fragrance.raumania.controller;
 import com.fragrance.raumania.dto.request.product.CreateProductVariantRequest;
 import com.fragrance.raumania.dto.request.product.UpdateProductVariantRequest;
 import com.fragrance.raumania.dto.response.ApiResponse;
+import com.fragrance.raumania.dto.response.product.ProductVariantResponse;
+import com.fragrance.raumania.service.ResponseCacheService;
 import com.fragrance.raumania.service.interfaces.ProductVariantService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.UUID;
 
@@ -29,11 +32,13 @@ public class ProductVariantController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> getProductVariantById(@PathVariable UUID id) {
+    public ResponseEntity<?> getProductVariantById(@PathVariable UUID id, WebRequest webRequest) {
+        ProductVariantResponse productVariant = productVariantService.getProductVariantById(id);
+        ResponseCacheService.addTags(webRequest, ResponseCacheService.productTag(productVariant.getProductId()));
         return ResponseEntity.ok(
                 new ApiResponse<>(200,
                         "Product variant retrieved successfully",
-                        productVariantService.getProductVariantById(id))
+                        productVariant)
         );
     }
 
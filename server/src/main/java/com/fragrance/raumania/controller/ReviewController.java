@@ -4,12 +4,16 @@ import com.fragrance.raumania.dto.filter.review.ReviewFilter;
 import com.fragrance.raumania.dto.request.review.CreateReviewRequest;
 import com.fragrance.raumania.dto.request.review.UpdateReviewRequest;
 import com.fragrance.raumania.dto.response.ApiResponse;
+import com.fragrance.raumania.service.EntityVersionService;
 import com.fragrance.raumania.service.interfaces.ReviewService;
+import com.fragrance.raumania.utils.CursorUtils;
+import com.fragrance.raumania.utils.EtagUtils;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.UUID;
 
@@ -19,6 +23,7 @@ import java.util.UUID;
 public class ReviewController {
 
     private final ReviewService reviewService;
+    private final EntityVersionService entityVersionService;
 
     @PostMapping("/my")
     public ResponseEntity<?> addMyReview(@RequestBody CreateReviewRequest request) {
@@ -68,7 +73,10 @@ public class ReviewController {
     }
 
     @GetMapping("/{reviewId}")
-    public ResponseEntity<?> getReviewById(@PathVariable UUID reviewId) {
+    public ResponseEntity<?> getReviewById(@PathVariable UUID reviewId, WebRequest webRequest) {
+        if (EtagUtils.notModified(webRequest, entityVersionService.getReviewEtag(reviewId))) {
+            return null;
+        }
         return ResponseEntity.ok(
                 new ApiResponse<>(200,
                         "Review retrieved successfully",
@@ -95,6 +103,7 @@ public class ReviewController {
 //        );
 //    }
 
+    // mode=cursor pages by keyset instead of page number; follow nextCursor through the cursor parameter
     @GetMapping("/all")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     public ResponseEntity<?> getAllReviews(@RequestParam(defaultValue = "1") int pageNumber,
@@ -102,7 +111,13 @@ public class ReviewController {
                                             @RequestParam(defaultValue = "id") String sortBy,
                                             @RequestParam(defaultValue = "asc") String sortDirection,
                                             @RequestParam(required = false) UUID productId,
-                                            @RequestParam(required = false) UUID productVariantId) {
+                                            @RequestParam(required = false) UUID productVariantId,
+                                            @RequestParam(defaultValue = CursorUtils.MODE_OFFSET) String mode,
+                                            @RequestParam(required = false) String cursor,
+                                            WebRequest webRequest) {
+        if (EtagUtils.notModified(webRequest, entityVersionService.getReviewsEtag(productId))) {
+            return null;
+        }
         ReviewFilter filter = ReviewFilter.builder()
                 .productId(productId)
                 .productVariantId(productVariantId)
@@ -111,7 +126,8 @@ public class ReviewController {
         return ResponseEntity.ok(
                 new ApiResponse<>(200,
                         "All Review retrieved successfully",
-                        reviewService.getAllReviewsByProductIdAndProductVariantId(pageNumber, pageSize, sortBy, sortDirection, filter))
+                        reviewService.getAllReviewsByProductIdAndProductVariantId(pageNumber, pageSize, sortBy, sortDirection, filter,
+                                CursorUtils.resolveCursor(mode, cursor)))
         );
     }
 
@@ -122,7 +138,13 @@ public class ReviewController {
                                             @RequestParam(defaultValue = "asc") String sortDirection,
                                             @RequestParam(required = false) Integer rating,
                                             @RequestParam(required = false) UUID productId,
-                                            @RequestParam(required = false) UUID productVariantId) {
+                                            @RequestParam(required = false) UUID productVariantId,
+                                            @RequestParam(defaultValue = CursorUtils.MODE_OFFSET) String mode,
+                                            @RequestParam(required = false) String cursor,
+                                            WebRequest webRequest) {
+        if (EtagUtils.notModified(webRequest, entityVersionService.getReviewsEtag(productId))) {
+            return null;
+        }
 
         ReviewFilter filter = ReviewFilter.builder()
                 .rating(rating)
@@ -133,7 +155,8 @@ public class ReviewController {
         return ResponseEntity.ok(
                 new ApiResponse<>(200,
                         "All Review retrieved successfully",
-                        reviewService.filterReviewsByProductIdAndProductVariantId(pageNumber, pageSize, sortBy, sortDirection , filter))
+                        reviewService.filterReviewsByProductIdAndProductVariantId(pageNumber, pageSize, sortBy, sortDirection, filter,
+                                CursorUtils.resolveCursor(mode, cursor)))
         );
     }
 }
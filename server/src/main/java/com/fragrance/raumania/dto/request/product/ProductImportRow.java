@@ -0,0 +1,31 @@
+package com.fragrance.raumania.dto.request.product;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// One variant per row; adjacent rows with the same product name become variants of one product
+@Getter
+@Setter
+@NoArgsConstructor
+public class ProductImportRow {
+    private String name;
+    private String brand;
+    private String description;
+    private String productMaterial;
+    private String inspiration;
+    private String usageInstructions;
+    private String thumbnailImage;
+    private Boolean isActive;
+
+    private String variantName;
+    private String size;
+    private String scent;
+    private Integer stock;
+    private Double price;
+
+    private List<String> images = new ArrayList<>();
+}
@@ -1,7 +1,7 @@
 package com.fragrance.raumania.dto.response;
 
-import java.util.List;
-
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fragrance.raumania.dto.response.product.ProductFacetResponse;
 import lombok.Builder;
 import lombok.Getter;
 
@@ -10,8 +10,20 @@ import lombok.Getter;
 public class PageResponse<T> {
     private int pageNumber;
     private int pageSize;
-    private long totalElements;
-    private int totalPages;
+    // Not computed in cursor mode, nor in slice mode unless requested
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long totalElements;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer totalPages;
+    // Set in slice mode, where totals are only computed on request
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean hasNext;
     private T content;
+    // Only set in cursor mode, absent on the last page
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+    // Only set by the Elasticsearch product search
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private ProductFacetResponse facets;
 }
 
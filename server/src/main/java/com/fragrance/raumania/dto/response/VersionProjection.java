@@ -0,0 +1,9 @@
+package com.fragrance.raumania.dto.response;
+
+import java.util.Date;
+
+// Cheap change marker for conditional GETs: newest updatedAt plus a row count, so deletions are noticed too
+public interface VersionProjection {
+    Date getLastModified();
+    Long getTotal();
+}
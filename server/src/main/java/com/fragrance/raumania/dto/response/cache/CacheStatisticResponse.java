@@ -0,0 +1,18 @@
+package com.fragrance.raumania.dto.response.cache;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class CacheStatisticResponse {
+    private String name;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private double hitRatio;
+    // Estimated time the backend was spared, for caches that track it
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long savedMillis;
+}
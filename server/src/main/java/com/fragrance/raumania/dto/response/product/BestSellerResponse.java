@@ -0,0 +1,23 @@
+package com.fragrance.raumania.dto.response.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BestSellerResponse {
+    private long rank;
+    private UUID id;
+    private String name;
+    private String thumbnailImage;
+    private Double minPrice;
+    private long unitsSold;
+}
@@ -0,0 +1,7 @@
+package com.fragrance.raumania.dto.response.product;
+
+import java.util.Date;
+
+public interface DatedProductSalesProjection extends ProductSalesProjection {
+    Date getSoldAt();
+}
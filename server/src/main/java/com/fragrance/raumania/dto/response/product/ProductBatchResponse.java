@@ -0,0 +1,15 @@
+package com.fragrance.raumania.dto.response.product;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.UUID;
+
+@Getter
+@Builder
+public class ProductBatchResponse {
+    // Same order as the requested ids, duplicates removed
+    private List<SearchProductResponse> products;
+    private List<UUID> missingIds;
+}
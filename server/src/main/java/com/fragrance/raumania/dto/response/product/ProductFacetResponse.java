@@ -0,0 +1,26 @@
+package com.fragrance.raumania.dto.response.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFacetResponse {
+    private List<Bucket> brands;
+    private List<Bucket> sizes;
+    private List<Bucket> scents;
+    private List<PriceBucket> prices;
+
+    public record Bucket(String value, long count) {}
+
+    // Products whose lowest variant price falls in [from, to)
+    public record PriceBucket(double from, double to, long count) {}
+}
@@ -0,0 +1,6 @@
+package com.fragrance.raumania.dto.response.product;
+
+public record ProductImportError(
+        long row,
+        String message
+) {}
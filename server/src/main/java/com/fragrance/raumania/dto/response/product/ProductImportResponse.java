@@ -0,0 +1,19 @@
+package com.fragrance.raumania.dto.response.product;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+public class ProductImportResponse {
+    private long totalRows;
+    private long importedProducts;
+    private long importedVariants;
+    private long failedRows;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    // Capped, failedRows holds the full count
+    private List<ProductImportError> errors;
+}
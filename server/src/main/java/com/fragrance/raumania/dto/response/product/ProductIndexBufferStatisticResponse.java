@@ -0,0 +1,24 @@
+package com.fragrance.raumania.dto.response.product;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class ProductIndexBufferStatisticResponse {
+    // Unparked outbox rows across every replica, as of this instance's last relay
+    private long queueDepth;
+    // Depth at which writing threads relay a batch themselves
+    private int capacity;
+    // Counted by this instance since it started
+    private long enqueued;
+    // Rows relayed in the same batch as another row for the same product
+    private long coalesced;
+    private long indexed;
+    private long deleted;
+    private long failed;
+    private long flushes;
+    private long backpressureFlushes;
+    private int lastFlushSize;
+    private long lastFlushMillis;
+}
@@ -0,0 +1,20 @@
+package com.fragrance.raumania.dto.response.product;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class ProductIndexOutboxStatisticResponse {
+    // Shared by every replica, read from the outbox table
+    private long pending;
+    private long parked;
+    private long oldestPendingAgeMillis;
+    // Counted by this instance since it started
+    private long relayed;
+    private long retried;
+    private long parkedByThisInstance;
+    private long batches;
+    private int lastBatchSize;
+    private long lastBatchMillis;
+}
@@ -0,0 +1,19 @@
+package com.fragrance.raumania.dto.response.product;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+public class ProductReindexResponse {
+    private String indexName;
+    // Indices the alias pointed to before the swap, deleted afterwards
+    private List<String> replacedIndices;
+    private long indexedProducts;
+    // Products deleted while their chunk was being copied, removed before the swap
+    private long prunedProducts;
+    private long elapsedMillis;
+    private double docsPerSecond;
+}
@@ -1,11 +1,14 @@
 package com.fragrance.raumania.dto.response.product;
 
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fragrance.raumania.dto.response.review.ReviewResponse;
 import com.fragrance.raumania.dto.response.review.ReviewStatisticProjection;
 import com.fragrance.raumania.dto.response.review.ReviewStatisticResponse;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.util.List;
@@ -14,6 +17,8 @@ import java.util.UUID;
 @Getter
 @Setter
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class ProductResponse {
     private UUID id;
     private String name;
@@ -31,4 +36,7 @@ public class ProductResponse {
     private List<ReviewResponse> fiveLatestReviews;
     private ReviewStatisticResponse reviewStatistic;
     private List<RelatedProductResponse> relatedProducts;
+    // Sections left empty because their query failed or was too slow; absent on a complete response
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<String> degradedSections;
 }
\ No newline at end of file
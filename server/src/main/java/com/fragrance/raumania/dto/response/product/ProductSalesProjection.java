@@ -0,0 +1,9 @@
+package com.fragrance.raumania.dto.response.product;
+
+import java.util.UUID;
+
+public interface ProductSalesProjection {
+    UUID getProductId();
+
+    Long getQuantity();
+}
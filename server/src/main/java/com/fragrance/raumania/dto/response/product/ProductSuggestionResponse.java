@@ -0,0 +1,13 @@
+package com.fragrance.raumania.dto.response.product;
+
+import java.util.List;
+import java.util.UUID;
+
+public record ProductSuggestionResponse(
+        UUID id,
+        String name,
+        // Character ranges of name that match what was typed, end exclusive
+        List<HighlightOffset> highlights
+) {
+    public record HighlightOffset(int start, int end) {}
+}
@@ -1,12 +1,16 @@
 package com.fragrance.raumania.dto.response.product;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 
 import java.util.UUID;
 
 @Getter
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class ProductVariantResponse {
 
     private UUID id;
@@ -0,0 +1,14 @@
+package com.fragrance.raumania.dto.response.product;
+
+import java.util.Date;
+
+public interface ProductVersionProjection {
+    Date getProductUpdatedAt();
+    Date getBrandUpdatedAt();
+    Date getVariantsUpdatedAt();
+    Long getVariantCount();
+    Date getImagesUpdatedAt();
+    Long getImageCount();
+    Date getReviewsUpdatedAt();
+    Long getReviewCount();
+}
@@ -0,0 +1,24 @@
+package com.fragrance.raumania.dto.response.product;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.Date;
+
+@Getter
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SearchFallbackStatisticResponse {
+    // As seen by this instance; the fallback index is per instance too
+    private boolean elasticsearchAvailable;
+    private boolean ready;
+    private int indexedProducts;
+    private int indexedWords;
+    private long lastBuildMillis;
+    private Date lastBuiltAt;
+    // Searches answered from the fallback index
+    private long searches;
+    private long outages;
+    private String lastError;
+}
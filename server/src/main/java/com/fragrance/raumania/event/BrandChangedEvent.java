@@ -0,0 +1,26 @@
+package com.fragrance.raumania.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+@Getter
+public class BrandChangedEvent {
+    private final UUID brandId;
+    // Name before and after the change; null before a create and after a delete
+    private final String previousName;
+    private final String name;
+    // Products of the brand, whose documents and cached responses carry its name
+    private final List<UUID> productIds;
+
+    public BrandChangedEvent(UUID brandId) {
+        this(brandId, null, null, List.of());
+    }
+
+    public boolean isRenamed() {
+        return previousName != null && !previousName.equals(name);
+    }
+}
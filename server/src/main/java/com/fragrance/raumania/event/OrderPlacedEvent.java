@@ -0,0 +1,20 @@
+package com.fragrance.raumania.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published when checkout creates an order. Carries the sold quantities so listeners never have to reload the order.
+ */
+@RequiredArgsConstructor
+@Getter
+public class OrderPlacedEvent {
+    private final UUID orderId;
+    private final List<Line> lines;
+
+    public record Line(UUID productId, UUID brandId, int quantity) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.fragrance.raumania.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Published when data shown on the product detail page changes without touching the search index
+ * (reviews, stock, images).
+ */
+@RequiredArgsConstructor
+@Getter
+public class ProductDetailChangedEvent {
+    private final UUID productId;
+}
@@ -0,0 +1,150 @@
+package com.fragrance.raumania.filter;
+
+import com.fragrance.raumania.model.user.User;
+import com.fragrance.raumania.service.ProductViewService;
+import com.fragrance.raumania.service.RecentlyViewedService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Counts product detail views and keeps signed-in users' recently viewed lists. Ordered ahead of
+ * {@link ResponseCacheFilter} so views served from the response cache, including 304s, are counted as well.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 20)
+public class ProductViewFilter extends OncePerRequestFilter {
+
+    private static final PathPattern PRODUCT_DETAIL = PathPatternParser.defaultInstance.parse("/api/product/{id}");
+
+    private final ProductViewService productViewService;
+    private final RecentlyViewedService recentlyViewedService;
+    private final List<IpAddressMatcher> trustedProxies;
+
+    public ProductViewFilter(ProductViewService productViewService,
+                             RecentlyViewedService recentlyViewedService,
+                             @Value("${product-view.trusted-proxies:127.0.0.1/32,::1/128,10.0.0.0/8,172.16.0.0/12,192.168.0.0/16}")
+                             String[] trustedProxies) {
+        this.productViewService = productViewService;
+        this.recentlyViewedService = recentlyViewedService;
+        this.trustedProxies = Arrays.stream(trustedProxies)
+                .map(String::trim)
+                .filter(proxy -> !proxy.isEmpty())
+                .map(IpAddressMatcher::new)
+                .toList();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !HttpMethod.GET.matches(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        filterChain.doFilter(request, response);
+
+        int status = response.getStatus();
+        if (status != HttpServletResponse.SC_OK && status != HttpServletResponse.SC_NOT_MODIFIED) {
+            return;
+        }
+        UUID productId = productId(request.getRequestURI());
+        if (productId == null) {
+            return;
+        }
+        productViewService.recordView(productId, viewerId(request));
+
+        User user = authenticatedUser();
+        if (user != null) {
+            recentlyViewedService.recordView(user.getId(), productId);
+        }
+    }
+
+    private UUID productId(String uri) {
+        PathPattern.PathMatchInfo info = PRODUCT_DETAIL.matchAndExtract(PathContainer.parsePath(uri));
+        if (info == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(info.getUriVariables().get("id"));
+        } catch (IllegalArgumentException e) {
+            // Literal routes such as /api/product/all share the pattern
+            return null;
+        }
+    }
+
+    // Signed-in users are counted once across devices; anonymous visitors are approximated by address and agent
+    private String viewerId(HttpServletRequest request) {
+        User user = authenticatedUser();
+        if (user != null) {
+            return "user:" + user.getUsername();
+        }
+
+        String address = clientAddress(request);
+        String userAgent = request.getHeader(HttpHeaders.USER_AGENT);
+        String source = address + "|" + (userAgent == null ? "" : userAgent);
+        return "anon:" + DigestUtils.md5DigestAsHex(source.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // X-Forwarded-For is only believed from a trusted proxy, and read right to left past further trusted proxies, so
+    // the first untrusted hop is the client and whatever a client put in the header itself is ignored
+    private String clientAddress(HttpServletRequest request) {
+        String address = request.getRemoteAddr();
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (forwardedFor == null || !isTrustedProxy(address)) {
+            return address;
+        }
+        String[] hops = forwardedFor.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (hop.isEmpty()) {
+                continue;
+            }
+            address = hop;
+            if (!isTrustedProxy(hop)) {
+                break;
+            }
+        }
+        return address;
+    }
+
+    private boolean isTrustedProxy(String address) {
+        try {
+            return trustedProxies.stream().anyMatch(proxy -> proxy.matches(address));
+        } catch (IllegalArgumentException e) {
+            // Not an IP address
+            return false;
+        }
+    }
+
+    private User authenticatedUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user) {
+            return user;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,214 @@
+package com.fragrance.raumania.filter;
+
+import com.fragrance.raumania.service.ResponseCacheService;
+import com.fragrance.raumania.utils.EtagUtils;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Serves anonymous catalog GETs straight from Redis. Runs after Spring Security, so security headers are still
+ * written, but before the DispatcherServlet, so a hit never reaches a controller, JPA or Jackson.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 10)
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+    private static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    // Response headers worth replaying; CORS headers depend on the Origin, which is part of the key
+    private static final List<String> REPLAYED_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.ETAG,
+            HttpHeaders.CACHE_CONTROL,
+            HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN,
+            HttpHeaders.ACCESS_CONTROL_ALLOW_CREDENTIALS,
+            HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS,
+            HttpHeaders.VARY
+    );
+
+    private final ResponseCacheService responseCacheService;
+    private final List<Route> routes;
+
+    public ResponseCacheFilter(ResponseCacheService responseCacheService,
+                               @Value("${response-cache.enabled:true}") boolean enabled,
+                               @Value("${response-cache.ttl-seconds.product-detail:300}") long productDetailTtl,
+                               @Value("${response-cache.ttl-seconds.catalog:60}") long catalogTtl,
+                               @Value("${response-cache.ttl-seconds.brand:600}") long brandTtl) {
+        this.responseCacheService = responseCacheService;
+        this.routes = enabled ? buildRoutes(productDetailTtl, catalogTtl, brandTtl) : List.of();
+    }
+
+    // First match wins, so literal paths come before the {id} patterns they would otherwise hit
+    private static List<Route> buildRoutes(long productDetailTtl, long catalogTtl, long brandTtl) {
+        Duration productDetail = Duration.ofSeconds(productDetailTtl);
+        Duration catalog = Duration.ofSeconds(catalogTtl);
+        Duration brand = Duration.ofSeconds(brandTtl);
+        Function<Map<String, String>, List<String>> catalogTags = variables -> List.of(ResponseCacheService.TAG_CATALOG);
+        Function<Map<String, String>, List<String>> brandTags = variables -> List.of(ResponseCacheService.TAG_BRAND);
+
+        return List.of(
+                route("/api/product/all", catalog, catalogTags),
+                route("/api/product/search", catalog, catalogTags),
+                route("/api/product/search-name", catalog, catalogTags),
+                route("/api/product/suggest", catalog, catalogTags),
+                route("/api/product/search-es", catalog, catalogTags),
+                route("/api/product/related", catalog, catalogTags),
+                route("/api/product/filters", catalog, catalogTags),
+                route("/api/product/batch", catalog, catalogTags),
+                route("/api/product/{id}", productDetail, variables ->
+                        List.of(ResponseCacheService.productTag(UUID.fromString(variables.get("id"))))),
+                route("/api/product-variant/product/{id}", productDetail, variables ->
+                        List.of(ResponseCacheService.productTag(UUID.fromString(variables.get("id"))))),
+                // The handler adds the owning product's tag, so stock changes purge the variant with its product
+                route("/api/product-variant/{id}", catalog, catalogTags),
+                route("/api/brand/{id}/products", catalog, variables -> List.of(
+                        ResponseCacheService.TAG_CATALOG,
+                        ResponseCacheService.brandTag(UUID.fromString(variables.get("id"))))),
+                route("/api/brand", brand, brandTags),
+                route("/api/brand/name", brand, brandTags),
+                route("/api/brand/search", brand, brandTags),
+                route("/api/brand/{id}", brand, brandTags)
+        );
+    }
+
+    private static Route route(String pattern, Duration ttl, Function<Map<String, String>, List<String>> tags) {
+        return new Route(PathPatternParser.defaultInstance.parse(pattern), ttl, tags);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !HttpMethod.GET.matches(request.getMethod()) || routes.isEmpty() || !isAnonymous(request);
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        Optional<MatchedRoute> matched = match(request.getRequestURI());
+        if (matched.isEmpty()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String key = cacheKey(request);
+        Optional<ResponseCacheService.CachedResponse> cached = responseCacheService.get(key);
+        if (cached.isPresent()) {
+            cached.get().headers().forEach(response::setHeader);
+            response.setHeader(CACHE_STATUS_HEADER, "HIT");
+
+            String etag = cached.get().headers().get(HttpHeaders.ETAG);
+            if (etag != null && etag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+            response.setContentLength(cached.get().body().length);
+            response.getOutputStream().write(cached.get().body());
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        wrapper.setHeader(CACHE_STATUS_HEADER, "MISS");
+        try {
+            filterChain.doFilter(request, wrapper);
+
+            if (wrapper.getStatus() == HttpServletResponse.SC_OK
+                    && wrapper.getHeader(EtagUtils.DEGRADED_SECTIONS_HEADER) == null
+                    && !isNoStore(wrapper.getHeader(HttpHeaders.CACHE_CONTROL))) {
+                Map<String, String> headers = new LinkedHashMap<>();
+                for (String name : REPLAYED_HEADERS) {
+                    String value = wrapper.getHeader(name);
+                    if (value != null) {
+                        headers.put(name, value);
+                    }
+                }
+                List<String> tags = new ArrayList<>(matched.get().tags());
+                if (request.getAttribute(ResponseCacheService.EXTRA_TAGS_ATTRIBUTE) instanceof List<?> extraTags) {
+                    extraTags.forEach(tag -> tags.add(tag.toString()));
+                }
+                responseCacheService.put(key,
+                        new ResponseCacheService.CachedResponse(headers, wrapper.getContentAsByteArray()),
+                        matched.get().route().ttl(),
+                        tags);
+            }
+        } finally {
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private Optional<MatchedRoute> match(String uri) {
+        PathContainer path = PathContainer.parsePath(uri);
+        for (Route route : routes) {
+            PathPattern.PathMatchInfo info = route.pattern().matchAndExtract(path);
+            if (info == null) {
+                continue;
+            }
+            try {
+                return Optional.of(new MatchedRoute(route, route.tags().apply(info.getUriVariables())));
+            } catch (IllegalArgumentException e) {
+                // Path variable is not an id, the request will 4xx anyway
+                return Optional.empty();
+            }
+        }
+        return Optional.empty();
+    }
+
+    // Query parameters are sorted so equivalent URLs share one entry
+    private String cacheKey(HttpServletRequest request) {
+        StringBuilder key = new StringBuilder(request.getRequestURI());
+        char separator = '?';
+        for (Map.Entry<String, String[]> parameter : new TreeMap<>(request.getParameterMap()).entrySet()) {
+            for (String value : parameter.getValue()) {
+                key.append(separator).append(parameter.getKey()).append('=').append(value);
+                separator = '&';
+            }
+        }
+
+        String origin = request.getHeader(HttpHeaders.ORIGIN);
+        return key.append('|').append(origin == null ? "" : origin).toString();
+    }
+
+    // Spring Security writes its own no-store only after this filter returns, so this is the handler's choice
+    private boolean isNoStore(String cacheControl) {
+        return cacheControl != null && cacheControl.contains("no-store");
+    }
+
+    // Same signal the JWT filter uses: no access token cookie means an anonymous visitor
+    private boolean isAnonymous(HttpServletRequest request) {
+        if (request.getHeader(HttpHeaders.AUTHORIZATION) != null) {
+            return false;
+        }
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if ("accessToken".equals(cookie.getName())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private record Route(PathPattern pattern, Duration ttl, Function<Map<String, String>, List<String>> tags) {}
+
+    private record MatchedRoute(Route route, List<String> tags) {}
+}
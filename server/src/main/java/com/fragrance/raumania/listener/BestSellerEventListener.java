@@ -0,0 +1,19 @@
+package com.fragrance.raumania.listener;
+
+import com.fragrance.raumania.event.OrderPlacedEvent;
+import com.fragrance.raumania.service.BestSellerService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+public class BestSellerEventListener {
+    private final BestSellerService bestSellerService;
+
+    // After commit only, so a checkout that rolls back never counts as a sale
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleOrderPlacedEvent(OrderPlacedEvent event) {
+        bestSellerService.recordSales(event.getLines());
+    }
+}
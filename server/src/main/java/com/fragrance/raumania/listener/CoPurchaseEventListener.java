@@ -0,0 +1,24 @@
+package com.fragrance.raumania.listener;
+
+import com.fragrance.raumania.event.OrderPlacedEvent;
+import com.fragrance.raumania.service.CoPurchaseService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+public class CoPurchaseEventListener {
+    private final CoPurchaseService coPurchaseService;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleOrderPlacedEvent(OrderPlacedEvent event) {
+        Set<UUID> productIds = new LinkedHashSet<>();
+        event.getLines().forEach(line -> productIds.add(line.productId()));
+        coPurchaseService.recordOrder(productIds);
+    }
+}
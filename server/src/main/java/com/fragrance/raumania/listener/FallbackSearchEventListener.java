@@ -0,0 +1,31 @@
+package com.fragrance.raumania.listener;
+
+import com.fragrance.raumania.event.BrandChangedEvent;
+import com.fragrance.raumania.event.ProductIndexEvent;
+import com.fragrance.raumania.service.FallbackSearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class FallbackSearchEventListener {
+    private final FallbackSearchService fallbackSearchService;
+
+    // After commit and in a fresh persistence context, so the products are read back as committed
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleProductIndexEvent(ProductIndexEvent event) {
+        fallbackSearchService.refresh(List.of(event.getProductId()));
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleBrandChangedEvent(BrandChangedEvent event) {
+        fallbackSearchService.refresh(event.getProductIds());
+    }
+}
@@ -0,0 +1,37 @@
+package com.fragrance.raumania.listener;
+
+import com.fragrance.raumania.event.BrandChangedEvent;
+import com.fragrance.raumania.event.ProductDetailChangedEvent;
+import com.fragrance.raumania.event.ProductIndexEvent;
+import com.fragrance.raumania.service.ProductCacheService;
+import com.fragrance.raumania.service.ProductCountCacheService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+public class ProductCacheEventListener {
+    private final ProductCacheService productCacheService;
+    private final ProductCountCacheService productCountCacheService;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleProductIndexEvent(ProductIndexEvent event) {
+        productCacheService.evictProductDetail(event.getProductId());
+        productCountCacheService.invalidate();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleBrandChangedEvent(BrandChangedEvent event) {
+        if (event.getProductIds().isEmpty()) {
+            return;
+        }
+        productCacheService.evictProductDetails(event.getProductIds());
+        productCountCacheService.invalidate();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleProductDetailChangedEvent(ProductDetailChangedEvent event) {
+        productCacheService.evictProductDetail(event.getProductId());
+    }
+}
@@ -1,25 +1,40 @@
 package com.fragrance.raumania.listener;
 
+import com.fragrance.raumania.event.BrandChangedEvent;
 import com.fragrance.raumania.event.ProductIndexEvent;
-import com.fragrance.raumania.service.interfaces.ProductIndexService;
+import com.fragrance.raumania.service.ProductIndexOutboxService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
 import org.springframework.transaction.event.TransactionalEventListener;
 
 @Component
 @RequiredArgsConstructor
 public class ProductIndexEventListener {
-    private final ProductIndexService productIndexService;
+    private final ProductIndexOutboxService productIndexOutboxService;
 
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
-    @TransactionalEventListener
+    // Before commit, so the outbox row is written in the same transaction as the product change
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
     public void handleProductIndexEvent(ProductIndexEvent event) {
-        switch (event.getOperation()) {
-            case CREATE, UPDATE -> productIndexService.indexProduct(event.getProductId());
-            case DELETE -> productIndexService.unIndexProduct(event.getProductId());
+        productIndexOutboxService.record(event);
+    }
+
+    // Off the writer's thread, so a full backlog never puts a bulk request on the request path
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void relieveBackpressure(ProductIndexEvent event) {
+        if (productIndexOutboxService.isBacklogged()) {
+            productIndexOutboxService.relieveBackpressure();
         }
     }
 
+    // After commit, since update_by_query cannot be rolled back, and off the request thread, since it can take as
+    // long as the brand is large. Falls back to outbox rows if it fails
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleBrandChangedEvent(BrandChangedEvent event) {
+        productIndexOutboxService.syncBrand(event);
+    }
+
 }
@@ -0,0 +1,35 @@
+package com.fragrance.raumania.listener;
+
+import com.fragrance.raumania.event.BrandChangedEvent;
+import com.fragrance.raumania.event.ProductIndexEvent;
+import com.fragrance.raumania.service.RelatedProductService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+public class RelatedProductEventListener {
+    private final RelatedProductService relatedProductService;
+
+    // Off the committing thread, so a product save never waits for the lists to be rescored. A deleted product is
+    // not found on reload and is dropped like an inactive one
+    @Async
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleProductIndexEvent(ProductIndexEvent event) {
+        relatedProductService.refreshProduct(event.getProductId());
+    }
+
+    // Brand is the heaviest similarity feature; one rebuild is cheaper than refreshing every product of the brand
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleBrandChangedEvent(BrandChangedEvent event) {
+        if (event.isRenamed() && !event.getProductIds().isEmpty()) {
+            relatedProductService.rebuild();
+        }
+    }
+}
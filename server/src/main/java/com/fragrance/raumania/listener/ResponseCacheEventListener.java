@@ -0,0 +1,41 @@
+package com.fragrance.raumania.listener;
+
+import com.fragrance.raumania.event.BrandChangedEvent;
+import com.fragrance.raumania.event.ProductDetailChangedEvent;
+import com.fragrance.raumania.event.ProductIndexEvent;
+import com.fragrance.raumania.service.ResponseCacheService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class ResponseCacheEventListener {
+    private final ResponseCacheService responseCacheService;
+
+    // Detail pages are read from MySQL, so they are purged at commit. Catalog pages are purged by the outbox relay
+    // once the index has the change; purged here, a search in between would cache the old hits again
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleProductIndexEvent(ProductIndexEvent event) {
+        responseCacheService.purge(ResponseCacheService.productTag(event.getProductId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleProductDetailChangedEvent(ProductDetailChangedEvent event) {
+        responseCacheService.purge(ResponseCacheService.productTag(event.getProductId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleBrandChangedEvent(BrandChangedEvent event) {
+        List<String> tags = new ArrayList<>(List.of(
+                ResponseCacheService.brandTag(event.getBrandId()),
+                ResponseCacheService.TAG_BRAND,
+                ResponseCacheService.TAG_CATALOG));
+        // Product pages show the brand name
+        event.getProductIds().forEach(productId -> tags.add(ResponseCacheService.productTag(productId)));
+        responseCacheService.purge(tags.toArray(new String[0]));
+    }
+}
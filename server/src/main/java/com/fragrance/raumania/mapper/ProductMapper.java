@@ -71,6 +71,7 @@ public class ProductMapper {
                 .usageInstructions(product.getUsageInstructions())
                 .thumbnailImage(product.getThumbnailImage())
                 .isActive(product.getIsActive())
+                .viewCount(product.getViewCount())
                 .brandName(product.getBrand() != null ? product.getBrand().getName() : null)
                 .variantNames(variants.stream().map(ProductVariant::getName).toList())
                 .variantSizes(variants.stream().map(ProductVariant::getSize).toList())
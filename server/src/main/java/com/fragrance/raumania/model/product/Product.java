@@ -3,6 +3,7 @@ package com.fragrance.raumania.model.product;
 import com.fragrance.raumania.model.common.AbstractAuditingEntity;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.JdbcTypeCode;
 
 import java.sql.Types;
@@ -43,6 +44,15 @@ public class Product extends AbstractAuditingEntity {
 
     private Boolean isActive;
 
+    // Flushed from Redis in batches by ProductViewService; read-only here so saving a product never overwrites a flush
+    @Column(insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private Long viewCount;
+
+    @Column(insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private Long uniqueViewCount;
+
     @Builder.Default
     @OneToMany(mappedBy = "product", cascade = CascadeType.REMOVE, orphanRemoval = true)
     private List<Review> reviews = new ArrayList<>();
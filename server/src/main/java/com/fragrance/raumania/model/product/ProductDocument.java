@@ -8,7 +8,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
-@Document(indexName = "products")
+// "products" is an alias over versioned indices, created by ProductReindexService rather than at startup
+@Document(indexName = "products", createIndex = false)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -20,7 +21,11 @@ public class ProductDocument {
     @Field(type = FieldType.Keyword)
     private UUID id;
 
-    @Field(type = FieldType.Text, analyzer = "english")
+    // name.suggest backs autocomplete with prefix-indexed shingles instead of a leading-wildcard scan
+    @MultiField(
+            mainField = @Field(type = FieldType.Text, analyzer = "english"),
+            otherFields = @InnerField(suffix = "suggest", type = FieldType.Search_As_You_Type)
+    )
     private String name;
 
     @Field(type = FieldType.Text, analyzer = "english")
@@ -47,7 +52,14 @@ public class ProductDocument {
     @Field(type = FieldType.Boolean)
     private Boolean isActive;
 
-    @Field(type = FieldType.Text)
+    @Field(type = FieldType.Long)
+    private Long viewCount;
+
+    // The keyword subfields hold the exact values for facet aggregations and filters
+    @MultiField(
+            mainField = @Field(type = FieldType.Text),
+            otherFields = @InnerField(suffix = "keyword", type = FieldType.Keyword)
+    )
     private String brandName;
 
     @Field(type = FieldType.Text, analyzer = "english")
@@ -56,6 +68,9 @@ public class ProductDocument {
     @Field(type = FieldType.Keyword)
     private List<String> variantSizes = new ArrayList<>();
 
-    @Field(type = FieldType.Text, analyzer = "english")
+    @MultiField(
+            mainField = @Field(type = FieldType.Text, analyzer = "english"),
+            otherFields = @InnerField(suffix = "keyword", type = FieldType.Keyword)
+    )
     private List<String> variantScents = new ArrayList<>();
 }
\ No newline at end of file
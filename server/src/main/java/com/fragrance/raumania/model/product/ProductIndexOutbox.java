@@ -0,0 +1,54 @@
+package com.fragrance.raumania.model.product;
+
+import com.fragrance.raumania.event.ProductIndexEvent;
+import com.fragrance.raumania.model.common.AbstractAuditingEntity;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+
+import java.sql.Types;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * A pending change to the search index, written in the same transaction as the product change it describes and
+ * removed once Elasticsearch has it.
+ */
+@Entity
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(
+        name = "product_index_outbox",
+        indexes = {
+                @Index(name = "idx_product_index_outbox_available", columnList = "parked, available_at, id")
+        }
+)
+public class ProductIndexOutbox extends AbstractAuditingEntity {
+
+    // Sequential rather than a UUID, so the relay drains rows in the order they were written
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    @JdbcTypeCode(Types.VARCHAR)
+    private UUID productId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ProductIndexEvent.Operation operation;
+
+    private int attempts;
+
+    @Column(name = "available_at", nullable = false)
+    private Date availableAt;
+
+    // Set once a row has failed too often; parked rows are skipped until retried by hand
+    private boolean parked;
+
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+}
@@ -1,6 +1,7 @@
 package com.fragrance.raumania.model.product;
 
 import com.fragrance.raumania.model.cart.CartItem;
+import com.fragrance.raumania.model.common.AbstractAuditingEntity;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.JdbcTypeCode;
@@ -16,7 +17,7 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class ProductVariant {
+public class ProductVariant extends AbstractAuditingEntity {
 
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -0,0 +1,33 @@
+package com.fragrance.raumania.model.product;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.Date;
+
+/**
+ * Marks a batch of view counts as written to the product table. Inserted in the same transaction as the counts, so
+ * a flush retried after the batch committed finds it and skips the batch. Written and pruned by ProductViewService
+ * with plain JDBC; mapped so the table is created with the schema.
+ */
+@Entity
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(
+        name = "product_view_flush",
+        indexes = {
+                @Index(name = "idx_product_view_flush_flushed_at", columnList = "flushed_at")
+        }
+)
+public class ProductViewFlush {
+
+    @Id
+    @Column(name = "batch_id", length = 36)
+    private String batchId;
+
+    @Column(name = "flushed_at", nullable = false)
+    private Date flushedAt;
+}
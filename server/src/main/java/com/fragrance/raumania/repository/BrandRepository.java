@@ -1,10 +1,12 @@
 package com.fragrance.raumania.repository;
 
+import com.fragrance.raumania.dto.response.VersionProjection;
 import com.fragrance.raumania.model.product.Brand;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -15,6 +17,12 @@ import java.util.UUID;
 public interface BrandRepository extends JpaRepository<Brand, UUID> {
     Optional<Brand> findByName(String name);
     Page<Brand> findByNameContainingIgnoreCase(String name, Pageable pageable);
+    @Query("SELECT MAX(b.updatedAt) AS lastModified, COUNT(b) AS total FROM Brand b")
+    VersionProjection findVersion();
+
+    @Query("SELECT MAX(b.updatedAt) AS lastModified, COUNT(b) AS total FROM Brand b WHERE b.id = :id")
+    VersionProjection findVersionById(@Param("id") UUID id);
+
     @Query("SELECT b FROM Brand b JOIN FETCH b.products")
     List<Brand> findAllWithProducts();
 }
\ No newline at end of file
@@ -1,9 +1,24 @@
 package com.fragrance.raumania.repository;
 
+import com.fragrance.raumania.dto.response.product.DatedProductSalesProjection;
+import com.fragrance.raumania.dto.response.product.ProductSalesProjection;
 import com.fragrance.raumania.model.order.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Date;
+import java.util.List;
 import java.util.UUID;
 
 public interface OrderItemRepository extends JpaRepository<OrderItem, UUID> {
+
+    // OrderItem.productId is a plain UUID column, not a key of product, so brands are looked up separately
+    @Query("SELECT oi.productId AS productId, SUM(oi.quantity) AS quantity " +
+            "FROM OrderItem oi GROUP BY oi.productId")
+    List<ProductSalesProjection> sumQuantityByProduct();
+
+    @Query("SELECT oi.productId AS productId, o.createdAt AS soldAt, oi.quantity AS quantity " +
+            "FROM OrderItem oi JOIN oi.order o WHERE o.createdAt >= :since")
+    List<DatedProductSalesProjection> findSalesSince(@Param("since") Date since);
 }
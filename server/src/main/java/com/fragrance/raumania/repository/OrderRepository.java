@@ -3,17 +3,27 @@ package com.fragrance.raumania.repository;
 import com.fragrance.raumania.constant.delivery.DeliveryStatus;
 import com.fragrance.raumania.constant.order.OrderStatus;
 import com.fragrance.raumania.constant.payment.PaymentStatus;
+import com.fragrance.raumania.dto.response.VersionProjection;
 import com.fragrance.raumania.model.order.Order;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Date;
 import java.util.List;
 import java.util.UUID;
 
-public interface OrderRepository extends JpaRepository<Order, UUID> {
+public interface OrderRepository extends JpaRepository<Order, UUID>, JpaSpecificationExecutor<Order> {
+    // Owner or admin only, so the version never answers for an order the caller may not read
+    @Query("SELECT MAX(o.updatedAt) AS lastModified, COUNT(o) AS total FROM Order o " +
+            "WHERE o.id = :id AND (:admin = true OR o.user.id = :userId)")
+    VersionProjection findVersionByIdForUser(@Param("id") UUID id,
+                                             @Param("userId") UUID userId,
+                                             @Param("admin") boolean admin);
+
     @Query("SELECT o.orderStatus, COUNT(o) FROM Order o GROUP BY o.orderStatus")
     List<Object[]> countByOrderStatus();
 
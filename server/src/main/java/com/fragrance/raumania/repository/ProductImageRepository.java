@@ -4,9 +4,10 @@ import com.fragrance.raumania.model.product.ProductImage;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface ProductImageRepository extends JpaRepository<ProductImage, UUID> {
-
+    List<ProductImage> findByProductId(UUID productId);
 }
@@ -0,0 +1,31 @@
+package com.fragrance.raumania.repository;
+
+import com.fragrance.raumania.model.product.ProductIndexOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ProductIndexOutboxRepository extends JpaRepository<ProductIndexOutbox, Long> {
+
+    // Rows locked by another relay are skipped rather than waited on, so replicas drain disjoint batches
+    @Query(value = "SELECT * FROM product_index_outbox " +
+            "WHERE parked = false AND available_at <= :now " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<ProductIndexOutbox> lockAvailable(@Param("now") Date now, @Param("limit") int limit);
+
+    long countByParked(boolean parked);
+
+    Optional<ProductIndexOutbox> findFirstByParkedFalseOrderByIdAsc();
+
+    @Modifying
+    @Query("UPDATE ProductIndexOutbox o SET o.parked = false, o.attempts = 0, o.availableAt = :now " +
+            "WHERE o.parked = true")
+    int unparkAll(@Param("now") Date now);
+}
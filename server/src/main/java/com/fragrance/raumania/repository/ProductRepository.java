@@ -1,40 +1,88 @@
 package com.fragrance.raumania.repository;
 
+import com.fragrance.raumania.dto.response.product.ProductBrandProjection;
+import com.fragrance.raumania.dto.response.product.ProductVersionProjection;
+import com.fragrance.raumania.dto.response.product.SearchProductResponse;
 import com.fragrance.raumania.model.product.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, UUID>, JpaSpecificationExecutor<Product> {
+public interface ProductRepository extends JpaRepository<Product, UUID>, JpaSpecificationExecutor<Product>, ProductRepositoryCustom {
     @Query("SELECT p FROM Product p WHERE p.name = :name")
     Optional<Product> findByName(@Param("name") String name);
 
-    @Query(value = "SELECT * FROM product ORDER BY RAND() LIMIT :limit", nativeQuery = true)
-    List<Product> findRandomProducts(@Param("limit") int limit);
-
-    @Query("SELECT p FROM Product p " +
-            "JOIN FETCH p.brand " +
-            "JOIN FETCH p.productVariants")
+    @Query("SELECT DISTINCT p FROM Product p " +
+            "LEFT JOIN FETCH p.brand " +
+            "LEFT JOIN FETCH p.productVariants")
     List<Product> findAllProductsWithBrandAndVariants();
 
-    @Query("SELECT p FROM Product p " +
-            "JOIN FETCH p.productImages " +
-            "JOIN FETCH p.productVariants " +
-            "WHERE p.id = :id")
-    Optional<Product> findByIdWithVariantsAndImages(@Param("id") UUID id);
+    // Images are loaded separately to avoid a variants x images cartesian product
+    @EntityGraph(attributePaths = {"brand", "productVariants"})
+    @Query("SELECT p FROM Product p WHERE p.id = :id")
+    Optional<Product> findDetailById(@Param("id") UUID id);
+
+    @EntityGraph(attributePaths = {"brand", "productVariants"})
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids")
+    List<Product> findDetailsByIds(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT p.id FROM Product p WHERE p.id IN :ids")
+    List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT p.id FROM Product p WHERE p.brand.id = :brandId")
+    List<UUID> findIdsByBrandId(@Param("brandId") UUID brandId);
+
+    // Bulk update: bypasses the persistence context, so it flushes pending changes first and clears it after
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.brand = null, p.updatedAt = CURRENT_TIMESTAMP WHERE p.brand.id = :brandId")
+    int clearBrand(@Param("brandId") UUID brandId);
+
+    // Keyset walk over the primary key, for jobs that visit every product in chunks
+    @Query("SELECT p.id FROM Product p ORDER BY p.id")
+    List<UUID> findFirstIds(Pageable pageable);
+
+    @Query("SELECT p.id FROM Product p WHERE p.id > :after ORDER BY p.id")
+    List<UUID> findIdsAfter(@Param("after") UUID after, Pageable pageable);
+
+    @Query(value = "SELECT new com.fragrance.raumania.dto.response.product.SearchProductResponse(" +
+            "p.id, p.name, p.thumbnailImage, p.minPrice) " +
+            "FROM Product p WHERE p.brand.id = :brandId",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.brand.id = :brandId")
+    Page<SearchProductResponse> findCardsByBrandId(@Param("brandId") UUID brandId, Pageable pageable);
+
+    @Query("SELECT p.updatedAt AS productUpdatedAt, b.updatedAt AS brandUpdatedAt, " +
+            "(SELECT MAX(v.updatedAt) FROM ProductVariant v WHERE v.product = p) AS variantsUpdatedAt, " +
+            "(SELECT COUNT(v) FROM ProductVariant v WHERE v.product = p) AS variantCount, " +
+            "(SELECT MAX(i.updatedAt) FROM ProductImage i WHERE i.product = p) AS imagesUpdatedAt, " +
+            "(SELECT COUNT(i) FROM ProductImage i WHERE i.product = p) AS imageCount, " +
+            "(SELECT MAX(r.updatedAt) FROM Review r WHERE r.product = p) AS reviewsUpdatedAt, " +
+            "(SELECT COUNT(r) FROM Review r WHERE r.product = p) AS reviewCount " +
+            "FROM Product p LEFT JOIN p.brand b WHERE p.id = :id")
+    Optional<ProductVersionProjection> findVersionById(@Param("id") UUID id);
+
+    @Query("SELECT new com.fragrance.raumania.dto.response.product.SearchProductResponse(" +
+            "p.id, p.name, p.thumbnailImage, p.minPrice) " +
+            "FROM Product p WHERE p.id IN :ids")
+    List<SearchProductResponse> findCardsByIds(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT p.name FROM Product p WHERE p.name IN :names")
+    List<String> findExistingNames(@Param("names") Collection<String> names);
 
-    Page<Product> findByBrandId(UUID brandId, Pageable pageable);
+    @Query("SELECT p.id AS productId, p.brand.id AS brandId FROM Product p")
+    List<ProductBrandProjection> findAllBrandIds();
 
     @Query("SELECT DISTINCT p.brand.name FROM Product p")
     List<String> findAllDistinctBrandNames();
@@ -0,0 +1,11 @@
+package com.fragrance.raumania.repository;
+
+import com.fragrance.raumania.dto.response.product.SearchProductResponse;
+import com.fragrance.raumania.model.product.Product;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface ProductRepositoryCustom {
+    Slice<SearchProductResponse> findCardSlice(Specification<Product> specification, Pageable pageable);
+}
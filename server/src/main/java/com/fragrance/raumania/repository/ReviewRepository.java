@@ -1,7 +1,9 @@
 package com.fragrance.raumania.repository;
 
+import com.fragrance.raumania.dto.response.VersionProjection;
 import com.fragrance.raumania.dto.response.review.ReviewStatisticProjection;
 import com.fragrance.raumania.model.product.Review;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
@@ -15,15 +17,17 @@ import java.util.UUID;
 public interface ReviewRepository extends JpaRepository<Review, UUID>, JpaSpecificationExecutor<Review> {
     List<Review> findByProductId(UUID productId);
     boolean existsByProductName(String productName);
-    @Query(value =
-            """
-            SELECT * FROM review r
-            WHERE r.product_id = :productId
-            ORDER BY r.created_at DESC
-            LIMIT 5
-            """
-            , nativeQuery = true)
-    List<Review> find5LatestReviewByProductId(@Param("productId") String productId);
+    @Query("SELECT MAX(r.updatedAt) AS lastModified, COUNT(r) AS total FROM Review r " +
+            "WHERE :productId IS NULL OR r.product.id = :productId")
+    VersionProjection findVersionByProductId(@Param("productId") UUID productId);
+
+    @Query("SELECT MAX(r.updatedAt) AS lastModified, COUNT(r) AS total FROM Review r WHERE r.id = :id")
+    VersionProjection findVersionById(@Param("id") UUID id);
+
+    // The user's role is an eager association, so it is fetched here rather than by a select of its own
+    @Query("SELECT r FROM Review r JOIN FETCH r.user u LEFT JOIN FETCH u.role "
+            + "WHERE r.product.id = :productId ORDER BY r.createdAt DESC")
+    List<Review> findLatestReviewsByProductId(@Param("productId") UUID productId, Pageable pageable);
 
     @Query(value = """
    SELECT 
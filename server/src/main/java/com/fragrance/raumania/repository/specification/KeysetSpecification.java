@@ -0,0 +1,41 @@
+package com.fragrance.raumania.repository.specification;
+
+import jakarta.persistence.criteria.*;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+public class KeysetSpecification {
+
+    /**
+     * Seek predicate equivalent to {@code (sortKey, id) > (lastValue, lastId)} (or {@code <} for descending
+     * sorts), expanded because the criteria API has no row value comparison. MySQL sorts NULLs first,
+     * so a null sort key is handled explicitly.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static <T> Specification<T> after(Sort.Order order, Comparable lastValue, Comparable lastId) {
+        return (Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb) -> {
+            boolean ascending = order.isAscending();
+            Path<Comparable> id = root.get("id");
+            Predicate idAfter = ascending ? cb.greaterThan(id, lastId) : cb.lessThan(id, lastId);
+
+            if ("id".equals(order.getProperty())) {
+                return idAfter;
+            }
+
+            Path<Comparable> key = root.get(order.getProperty());
+
+            if (lastValue == null) {
+                return ascending
+                        ? cb.or(cb.isNotNull(key), cb.and(cb.isNull(key), idAfter))
+                        : cb.and(cb.isNull(key), idAfter);
+            }
+
+            Predicate keyAfter = ascending ? cb.greaterThan(key, lastValue) : cb.lessThan(key, lastValue);
+            Predicate sameKey = cb.and(cb.equal(key, lastValue), idAfter);
+
+            return ascending
+                    ? cb.or(keyAfter, sameKey)
+                    : cb.or(keyAfter, sameKey, cb.isNull(key));
+        };
+    }
+}
@@ -43,16 +43,23 @@ public class ProductSpecification {
             }
 
             // Filter by product variant size & scent
+            // EXISTS instead of a join so a product matching several variants is returned once
             if (filter.getSize() != null || filter.getScent() != null) {
-                Join<Product, ProductVariant> variantJoin = root.join("productVariants", JoinType.LEFT);
+                Subquery<Integer> variantQuery = query.subquery(Integer.class);
+                Root<ProductVariant> variant = variantQuery.from(ProductVariant.class);
+                List<Predicate> variantPredicates = new ArrayList<>();
+                variantPredicates.add(cb.equal(variant.get("product"), root));
 
                 if (filter.getSize() != null) {
-                    predicates.add(cb.equal(cb.lower(variantJoin.get("size")), filter.getSize().toLowerCase()));
+                    variantPredicates.add(cb.equal(cb.lower(variant.get("size")), filter.getSize().toLowerCase()));
                 }
 
                 if (filter.getScent() != null) {
-                    predicates.add(cb.equal(cb.lower(variantJoin.get("scent")), filter.getScent().toLowerCase()));
+                    variantPredicates.add(cb.equal(cb.lower(variant.get("scent")), filter.getScent().toLowerCase()));
                 }
+
+                variantQuery.select(cb.literal(1)).where(variantPredicates.toArray(new Predicate[0]));
+                predicates.add(cb.exists(variantQuery));
             }
 
             return cb.and(predicates.toArray(new Predicate[0]));
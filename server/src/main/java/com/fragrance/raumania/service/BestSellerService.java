@@ -0,0 +1,239 @@
+package com.fragrance.raumania.service;
+
+import com.fragrance.raumania.constant.product.BestSellerWindow;
+import com.fragrance.raumania.dto.response.PageResponse;
+import com.fragrance.raumania.dto.response.product.BestSellerResponse;
+import com.fragrance.raumania.dto.response.product.DatedProductSalesProjection;
+import com.fragrance.raumania.dto.response.product.ProductBrandProjection;
+import com.fragrance.raumania.dto.response.product.ProductSalesProjection;
+import com.fragrance.raumania.dto.response.product.RelatedProductResponse;
+import com.fragrance.raumania.event.OrderPlacedEvent;
+import com.fragrance.raumania.exception.InvalidDataException;
+import com.fragrance.raumania.repository.OrderItemRepository;
+import com.fragrance.raumania.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+
+/**
+ * Best-seller rankings kept in Redis sorted sets, globally and per brand. Every sale is added to an all-time set and
+ * to a set for the day it happened; the 7 and 30 day rankings are unions of the daily sets, so old sales drop out
+ * of a window as their day expires. Reads never touch MySQL: product cards come from {@link RelatedProductService}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BestSellerService {
+
+    private static final String PREFIX = "best-sellers-";
+    private static final String DAY_PREFIX = PREFIX + "day-";
+    private static final String SEEDED_KEY = PREFIX + "seeded";
+    private static final String BRAND_SUFFIX = "-brand-";
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+    // Every card is a lookup, so one request cannot walk the whole ranking
+    private static final int MAX_PAGE_SIZE = 100;
+
+    // Kept a little longer than the widest window so it is always complete
+    private static final Duration DAY_RETENTION = Duration.ofDays(32);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final OrderItemRepository orderItemRepository;
+    private final ProductRepository productRepository;
+    private final RelatedProductService relatedProductService;
+
+    @Value("${best-sellers.window-ttl-seconds:300}")
+    private long windowTtlSeconds;
+
+    public void recordSales(List<OrderPlacedEvent.Line> lines) {
+        String day = today();
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (OrderPlacedEvent.Line line : lines) {
+                    byte[] member = bytes(line.productId().toString());
+                    for (String key : keysFor(day, line.brandId())) {
+                        connection.zSetCommands().zIncrBy(bytes(key), line.quantity(), member);
+                        if (key.startsWith(DAY_PREFIX)) {
+                            connection.keyCommands().expire(bytes(key), DAY_RETENTION.toSeconds());
+                        }
+                    }
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            // Rankings are a merchandising aid; a missed sale must never fail checkout
+            log.warn("Failed to record best seller sales", e);
+        }
+    }
+
+    public PageResponse<List<BestSellerResponse>> getBestSellers(String window, UUID brandId, int pageNumber, int pageSize) {
+        BestSellerWindow bestSellerWindow = BestSellerWindow.fromValue(window);
+        if (pageNumber < 1) {
+            pageNumber = 1;
+        }
+        if (pageSize < 1) {
+            throw new InvalidDataException("Page size must be positive");
+        }
+        pageSize = Math.min(pageSize, MAX_PAGE_SIZE);
+
+        String key = rankingKey(bestSellerWindow, brandId);
+        long start = (long) (pageNumber - 1) * pageSize;
+        Set<ZSetOperations.TypedTuple<String>> page =
+                stringRedisTemplate.opsForZSet().reverseRangeWithScores(key, start, start + pageSize - 1);
+        Long total = stringRedisTemplate.opsForZSet().zCard(key);
+
+        List<BestSellerResponse> content = new ArrayList<>();
+        long rank = start;
+        for (ZSetOperations.TypedTuple<String> entry : page == null ? Set.<ZSetOperations.TypedTuple<String>>of() : page) {
+            rank++;
+            // Products deleted or deactivated since they sold have no card and are skipped
+            Optional<RelatedProductResponse> card = relatedProductService.getCard(UUID.fromString(entry.getValue()));
+            if (card.isEmpty()) {
+                continue;
+            }
+            content.add(BestSellerResponse.builder()
+                    .rank(rank)
+                    .id(card.get().getId())
+                    .name(card.get().getName())
+                    .thumbnailImage(card.get().getThumbnailImage())
+                    .minPrice(card.get().getMinPrice())
+                    .unitsSold(entry.getScore() == null ? 0 : entry.getScore().longValue())
+                    .build());
+        }
+
+        long totalElements = total == null ? 0 : total;
+        return PageResponse.<List<BestSellerResponse>>builder()
+                .content(content)
+                .pageNumber(pageNumber)
+                .pageSize(pageSize)
+                .totalElements(totalElements)
+                .totalPages((int) Math.ceil((double) totalElements / pageSize))
+                .build();
+    }
+
+    /**
+     * Seeds the rankings from order history the first time the application starts against an empty Redis.
+     * This is the only place that reads orders.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        try {
+            if (!Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(SEEDED_KEY, "1"))) {
+                return;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to check best seller seed marker", e);
+            return;
+        }
+
+        try {
+            seedFromOrders();
+        } catch (RuntimeException e) {
+            // Cleared so the next start tries again
+            log.warn("Failed to seed best sellers from order history", e);
+            stringRedisTemplate.delete(SEEDED_KEY);
+        }
+    }
+
+    private void seedFromOrders() {
+        long start = System.currentTimeMillis();
+        Map<UUID, UUID> brandIds = new HashMap<>();
+        for (ProductBrandProjection product : productRepository.findAllBrandIds()) {
+            if (product.getBrandId() != null) {
+                brandIds.put(product.getProductId(), product.getBrandId());
+            }
+        }
+
+        List<ProductSalesProjection> totals = orderItemRepository.sumQuantityByProduct();
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (ProductSalesProjection sales : totals) {
+                byte[] member = bytes(sales.getProductId().toString());
+                for (String key : allTimeKeys(brandIds.get(sales.getProductId()))) {
+                    connection.zSetCommands().zIncrBy(bytes(key), sales.getQuantity(), member);
+                }
+            }
+            return null;
+        });
+
+        LocalDate since = LocalDate.now(ZoneOffset.UTC).minusDays(BestSellerWindow.MONTH.getDays() - 1);
+        List<DatedProductSalesProjection> recent =
+                orderItemRepository.findSalesSince(Date.from(since.atStartOfDay(ZoneOffset.UTC).toInstant()));
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (DatedProductSalesProjection sales : recent) {
+                String day = sales.getSoldAt().toInstant().atZone(ZoneOffset.UTC).toLocalDate().format(DAY_FORMAT);
+                byte[] member = bytes(sales.getProductId().toString());
+                for (String key : dayKeys(day, brandIds.get(sales.getProductId()))) {
+                    connection.zSetCommands().zIncrBy(bytes(key), sales.getQuantity(), member);
+                    connection.keyCommands().expire(bytes(key), DAY_RETENTION.toSeconds());
+                }
+            }
+            return null;
+        });
+
+        log.info("Best sellers seeded from {} products and {} recent order lines in {} ms",
+                totals.size(), recent.size(), System.currentTimeMillis() - start);
+    }
+
+    // Window rankings are materialized on first read and kept briefly, so new sales show up within the TTL
+    private String rankingKey(BestSellerWindow window, UUID brandId) {
+        if (window == BestSellerWindow.ALL_TIME) {
+            return allTimeKey(brandId);
+        }
+
+        String key = PREFIX + window.getValue() + (brandId != null ? BRAND_SUFFIX + brandId : "");
+        if (Boolean.TRUE.equals(stringRedisTemplate.hasKey(key))) {
+            return key;
+        }
+
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        List<String> dayKeys = new ArrayList<>(window.getDays());
+        for (int i = 0; i < window.getDays(); i++) {
+            dayKeys.add(dayKey(today.minusDays(i).format(DAY_FORMAT), brandId));
+        }
+        stringRedisTemplate.opsForZSet().unionAndStore(dayKeys.get(0), dayKeys.subList(1, dayKeys.size()), key);
+        stringRedisTemplate.expire(key, Duration.ofSeconds(windowTtlSeconds));
+        return key;
+    }
+
+    private List<String> keysFor(String day, UUID brandId) {
+        List<String> keys = new ArrayList<>(allTimeKeys(brandId));
+        keys.addAll(dayKeys(day, brandId));
+        return keys;
+    }
+
+    private List<String> allTimeKeys(UUID brandId) {
+        return brandId != null ? List.of(allTimeKey(null), allTimeKey(brandId)) : List.of(allTimeKey(null));
+    }
+
+    private List<String> dayKeys(String day, UUID brandId) {
+        return brandId != null ? List.of(dayKey(day, null), dayKey(day, brandId)) : List.of(dayKey(day, null));
+    }
+
+    private String allTimeKey(UUID brandId) {
+        return PREFIX + BestSellerWindow.ALL_TIME.getValue() + (brandId != null ? BRAND_SUFFIX + brandId : "");
+    }
+
+    private String dayKey(String day, UUID brandId) {
+        return DAY_PREFIX + day + (brandId != null ? BRAND_SUFFIX + brandId : "");
+    }
+
+    private String today() {
+        return LocalDate.now(ZoneOffset.UTC).format(DAY_FORMAT);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
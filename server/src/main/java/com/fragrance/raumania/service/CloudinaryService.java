@@ -2,7 +2,9 @@ package com.fragrance.raumania.service;
 
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
+import com.fragrance.raumania.service.interfaces.ImageStorageService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -11,10 +13,12 @@ import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
-public class CloudinaryService {
+@ConditionalOnProperty(name = "image-storage.provider", havingValue = "cloudinary", matchIfMissing = true)
+public class CloudinaryService implements ImageStorageService {
 
     private final Cloudinary cloudinary;
 
+    @Override
     public String uploadImage(MultipartFile file) throws IOException {
         Map<String, String> uploadResult = cloudinary.uploader().upload(file.getBytes(), ObjectUtils.asMap(
                 "folder", "raumania" // Specify the folder name in Cloudinary
@@ -22,6 +26,11 @@ public class CloudinaryService {
         return uploadResult.get("url");
     }
 
+    @Override
+    public void deleteImage(String url) throws IOException {
+        deleteAsset(getPublicIdFromUrl(url));
+    }
+
     public void deleteAsset(String publicId) throws IOException {
         // Deleting the asset using its public ID
         if (publicId == null || publicId.isEmpty()) return;
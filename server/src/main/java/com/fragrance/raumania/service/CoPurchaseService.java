@@ -0,0 +1,189 @@
+package com.fragrance.raumania.service;
+
+import com.fragrance.raumania.dto.response.product.RelatedProductResponse;
+import com.fragrance.raumania.utils.CoPurchaseMatrix;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * "Customers also bought": products that appear in the same orders, mined from order history into a
+ * {@link CoPurchaseMatrix}. The matrix is rebuilt nightly and updated after every checkout; the top-K neighbours
+ * of each product are precomputed so lookups are an array read.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CoPurchaseService {
+
+    // Streams every order line in order-id order so baskets can be assembled without holding them all
+    private static final String SELECT_ORDER_LINES =
+            "SELECT order_id, product_id FROM order_item WHERE order_id IS NOT NULL ORDER BY order_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RelatedProductService relatedProductService;
+
+    @Value("${co-purchase.top-k:8}")
+    private int topK;
+
+    @Value("${co-purchase.min-support:2}")
+    private int minSupport;
+
+    @Value("${co-purchase.max-basket-size:32}")
+    private int maxBasketSize;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Null until the first build at startup
+    private CoPurchaseMatrix matrix;
+    private int[][] neighbours = new int[0][];
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${co-purchase.rebuild-cron:0 30 3 * * *}")
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        CoPurchaseMatrix built = new CoPurchaseMatrix(maxBasketSize);
+        long[] lineCount = new long[1];
+        long[] orderCount = new long[1];
+
+        try {
+            List<UUID> basket = new ArrayList<>();
+            String[] currentOrder = new String[1];
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                        SELECT_ORDER_LINES, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                // Tells the MySQL driver to stream rows instead of buffering the whole result
+                statement.setFetchSize(Integer.MIN_VALUE);
+                return statement;
+            }, (RowCallbackHandler) resultSet -> {
+                String orderId = resultSet.getString(1);
+                if (!orderId.equals(currentOrder[0])) {
+                    if (!basket.isEmpty()) {
+                        built.addBasket(basket.toArray(new UUID[0]));
+                        orderCount[0]++;
+                    }
+                    basket.clear();
+                    currentOrder[0] = orderId;
+                }
+                UUID productId = toUuid(resultSet.getObject(2));
+                if (productId != null) {
+                    basket.add(productId);
+                }
+                lineCount[0]++;
+            });
+            if (!basket.isEmpty()) {
+                built.addBasket(basket.toArray(new UUID[0]));
+                orderCount[0]++;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to rebuild co-purchase matrix, keeping the previous one", e);
+            return;
+        }
+
+        int[][] builtNeighbours = new int[built.size()][];
+        for (int index = 0; index < built.size(); index++) {
+            builtNeighbours[index] = built.topNeighbours(index, topK, minSupport);
+        }
+
+        lock.writeLock().lock();
+        try {
+            matrix = built;
+            neighbours = builtNeighbours;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Co-purchase matrix built from {} order lines in {} orders: {} products, {} pairs, ~{} KB in {} ms",
+                lineCount[0], orderCount[0], built.size(), built.pairCount(),
+                built.estimateBytes() / 1024, System.currentTimeMillis() - start);
+    }
+
+    // Only the products in the order and their existing neighbours can change rank, so only those rows are redone
+    public void recordOrder(Collection<UUID> productIds) {
+        if (productIds.size() < 2) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (matrix == null) {
+                return;
+            }
+            int[] basket = matrix.addBasket(productIds.toArray(new UUID[0]));
+            if (neighbours.length < matrix.size()) {
+                neighbours = Arrays.copyOf(neighbours, matrix.size());
+            }
+
+            BitSet affected = new BitSet(matrix.size());
+            for (int index : basket) {
+                affected.set(index);
+                for (int neighbour : matrix.neighboursOf(index)) {
+                    affected.set(neighbour);
+                }
+            }
+            for (int index = affected.nextSetBit(0); index >= 0; index = affected.nextSetBit(index + 1)) {
+                neighbours[index] = matrix.topNeighbours(index, topK, minSupport);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} products most often bought together with {@code productId}. Empty until the product has
+     * pairs with enough support, in which case callers fall back to attribute similarity.
+     */
+    public List<RelatedProductResponse> getAlsoBought(UUID productId, int limit) {
+        List<UUID> ids = new ArrayList<>(limit);
+
+        lock.readLock().lock();
+        try {
+            if (matrix == null) {
+                return List.of();
+            }
+            int index = matrix.indexOf(productId);
+            if (index < 0 || index >= neighbours.length || neighbours[index] == null) {
+                return List.of();
+            }
+            for (int neighbour : neighbours[index]) {
+                ids.add(matrix.idAt(neighbour));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // Deleted or deactivated products have no card and are skipped
+        List<RelatedProductResponse> result = new ArrayList<>(limit);
+        for (UUID id : ids) {
+            if (result.size() >= limit) {
+                break;
+            }
+            relatedProductService.getCard(id).ifPresent(result::add);
+        }
+        return result;
+    }
+
+    // product_id has no fixed column type: binary(16) as mapped by Hibernate, or a string on older schemas
+    private static UUID toUuid(Object value) {
+        if (value instanceof byte[] bytes && bytes.length == 16) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            return new UUID(buffer.getLong(), buffer.getLong());
+        }
+        if (value instanceof String string) {
+            return UUID.fromString(string);
+        }
+        return null;
+    }
+}
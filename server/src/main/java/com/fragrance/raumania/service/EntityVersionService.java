@@ -0,0 +1,119 @@
+package com.fragrance.raumania.service;
+
+import com.fragrance.raumania.constant.role.RoleName;
+import com.fragrance.raumania.dto.response.VersionProjection;
+import com.fragrance.raumania.dto.response.product.ProductVersionProjection;
+import com.fragrance.raumania.dto.response.product.RelatedProductResponse;
+import com.fragrance.raumania.model.user.User;
+import com.fragrance.raumania.repository.BrandRepository;
+import com.fragrance.raumania.repository.OrderRepository;
+import com.fragrance.raumania.repository.ProductRepository;
+import com.fragrance.raumania.repository.ReviewRepository;
+import com.fragrance.raumania.service.interfaces.AuthenticationService;
+import com.fragrance.raumania.service.interfaces.ProductService;
+import com.fragrance.raumania.utils.SortUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+// ETags built from version columns with one small query each, never from the response body.
+// A null ETag means the resource is missing or not readable, and the caller falls through to the normal 404/403 path
+@Service
+@RequiredArgsConstructor
+public class EntityVersionService {
+
+    private final ProductRepository productRepository;
+    private final BrandRepository brandRepository;
+    private final ReviewRepository reviewRepository;
+    private final OrderRepository orderRepository;
+    private final ProductCountCacheService productCountCacheService;
+    private final AuthenticationService authenticationService;
+    private final ProductService productService;
+    private final ProductViewService productViewService;
+
+    // The related cards have no version column, but are computed in memory, so the cards themselves are hashed
+    public String getProductEtag(UUID productId) {
+        return productRepository.findVersionById(productId)
+                .map(version -> etag("product", productId,
+                        version.getProductUpdatedAt(), version.getBrandUpdatedAt(),
+                        version.getVariantsUpdatedAt(), version.getVariantCount(),
+                        version.getImagesUpdatedAt(), version.getImageCount(),
+                        version.getReviewsUpdatedAt(), version.getReviewCount(),
+                        relatedVersion(productId)))
+                .orElse(null);
+    }
+
+    // Listing cards only hold product columns, and every product write bumps the catalog generation
+    public String getCatalogEtag() {
+        return productCountCacheService.getCatalogVersion()
+                .map(version -> etag("catalog", version))
+                .orElse(null);
+    }
+
+    // View flushes reorder listings sorted by views without bumping the catalog generation
+    public String getCatalogEtag(String sortBy) {
+        if (!SortUtils.isViewSort(sortBy)) {
+            return getCatalogEtag();
+        }
+        return productCountCacheService.getCatalogVersion()
+                .flatMap(version -> productViewService.getFlushVersion()
+                        .map(views -> etag("catalog", version, views)))
+                .orElse(null);
+    }
+
+    public String getBrandsEtag() {
+        return etag("brands", brandRepository.findVersion());
+    }
+
+    public String getBrandEtag(UUID brandId) {
+        return etag("brand", brandId, brandRepository.findVersionById(brandId));
+    }
+
+    public String getReviewsEtag(UUID productId) {
+        return etag("reviews", productId, reviewRepository.findVersionByProductId(productId));
+    }
+
+    public String getReviewEtag(UUID reviewId) {
+        return etag("review", reviewId, reviewRepository.findVersionById(reviewId));
+    }
+
+    public String getOrderEtag(UUID orderId) {
+        User currentUser = authenticationService.getAuthenticatedUser();
+        boolean isAdmin = currentUser.getRole().getName() == RoleName.ADMIN;
+        return etag("order", orderId, orderRepository.findVersionByIdForUser(orderId, currentUser.getId(), isAdmin));
+    }
+
+    private String relatedVersion(UUID productId) {
+        return productService.getRelatedProducts(productId, ProductService.DETAIL_RELATED_PRODUCTS).stream()
+                .map(this::cardVersion)
+                .collect(Collectors.joining(","));
+    }
+
+    private String cardVersion(RelatedProductResponse card) {
+        return card.getId() + ":" + card.getName() + ":" + card.getThumbnailImage() + ":" + card.getMinPrice();
+    }
+
+    private String etag(String type, Object id, VersionProjection version) {
+        if (version == null || version.getTotal() == null || version.getTotal() == 0) {
+            return null;
+        }
+        return etag(type, id, version.getLastModified(), version.getTotal());
+    }
+
+    private String etag(String type, VersionProjection version) {
+        return etag(type, null, version);
+    }
+
+    private String etag(Object... parts) {
+        String source = Arrays.stream(parts)
+                .map(part -> part instanceof Date date ? String.valueOf(date.getTime()) : String.valueOf(part))
+                .collect(Collectors.joining("|"));
+        return DigestUtils.md5DigestAsHex(source.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,544 @@
+package com.fragrance.raumania.service;
+
+import com.fragrance.raumania.dto.filter.product.ProductFilter;
+import com.fragrance.raumania.dto.response.PageResponse;
+import com.fragrance.raumania.dto.response.product.ProductFacetResponse;
+import com.fragrance.raumania.dto.response.product.ProductSummary;
+import com.fragrance.raumania.dto.response.product.SearchFallbackStatisticResponse;
+import com.fragrance.raumania.exception.InvalidDataException;
+import com.fragrance.raumania.mapper.ProductMapper;
+import com.fragrance.raumania.model.product.ProductDocument;
+import com.fragrance.raumania.repository.ProductRepository;
+import com.fragrance.raumania.utils.CursorUtils;
+import com.fragrance.raumania.utils.SortUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.regex.MatchResult;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Answers product searches from memory while Elasticsearch is unavailable. Every product is held as a slim row
+ * with an inverted index from the words of its name and postings per brand, which is enough for the storefront
+ * search, its facets and autocomplete without touching MySQL. Words match as typed or as a prefix,
+ * with no stemming, fuzziness or relevance beyond counting matched words; results follow the requested sort.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FallbackSearchService {
+
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+    // Shorter words only match whole, or "a" would match half the catalog
+    private static final int MIN_PREFIX_LENGTH = 3;
+
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final CursorUtils cursorUtils;
+    private final SearchHealthService searchHealthService;
+
+    @Value("${search.fallback.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${search.facets.size:50}")
+    private int facetSize;
+
+    @Value("${search.facets.price-interval:50}")
+    private double priceInterval;
+
+    private volatile Index index = new Index();
+    private volatile boolean ready;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    // Set while a new index is being built, so changes reach it as well as the one serving searches
+    private volatile Index building;
+    private final Set<UUID> changedDuringBuild = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong searches = new AtomicLong();
+    private volatile long lastBuildMillis;
+    private volatile Date lastBuiltAt;
+
+    /**
+     * Loads the catalog into a new index and swaps it in. Runs at startup and then periodically, which also picks
+     * up products changed through other replicas, since change events only reach the replica that made them.
+     * Async so a long build does not hold up the other scheduled jobs.
+     */
+    @Async
+    @Scheduled(fixedDelayString = "${search.fallback.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        Index target = new Index();
+        try {
+            changedDuringBuild.clear();
+            building = target;
+
+            List<UUID> ids = productRepository.findFirstIds(PageRequest.of(0, chunkSize));
+            while (!ids.isEmpty()) {
+                apply(target, ids, load(ids));
+                if (ids.size() < chunkSize) {
+                    break;
+                }
+                ids = productRepository.findIdsAfter(ids.get(ids.size() - 1), PageRequest.of(0, chunkSize));
+            }
+
+            // A chunk read before a change but stored after it would win, so changed products are loaded again
+            while (!changedDuringBuild.isEmpty()) {
+                List<UUID> changed = new ArrayList<>(changedDuringBuild);
+                changedDuringBuild.removeAll(changed);
+                for (int from = 0; from < changed.size(); from += chunkSize) {
+                    List<UUID> chunk = changed.subList(from, Math.min(from + chunkSize, changed.size()));
+                    apply(target, chunk, load(chunk));
+                }
+            }
+
+            index = target;
+            ready = true;
+            lastBuildMillis = System.currentTimeMillis() - start;
+            lastBuiltAt = new Date();
+            log.info("Built fallback search index of {} products in {} ms", target.entries.size(), lastBuildMillis);
+        } catch (RuntimeException e) {
+            log.warn("Failed to build fallback search index", e);
+        } finally {
+            building = null;
+            rebuilding.set(false);
+        }
+    }
+
+    // Reloads the products from MySQL, dropping the ones that no longer exist
+    public void refresh(Collection<UUID> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        Index target = building;
+        if (target != null) {
+            changedDuringBuild.addAll(productIds);
+        }
+        try {
+            List<ProductDocument> documents = load(productIds);
+            Index current = index;
+            apply(current, productIds, documents);
+            if (target != null && target != current) {
+                apply(target, productIds, documents);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh {} products in the fallback search index", productIds.size(), e);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public PageResponse<List<ProductSummary>> search(ProductFilter filter,
+                                                     int pageNumber,
+                                                     int pageSize,
+                                                     String sortBy,
+                                                     String sortDirection) {
+        if (pageNumber < 1) {
+            pageNumber = 1;
+        }
+        if (pageSize < 1) {
+            throw new InvalidDataException("Page size must be positive");
+        }
+        searches.incrementAndGet();
+
+        Matches matches = match(index, filter, sortBy, sortDirection);
+        List<Entry> matched = matches.matched();
+        List<Entry> rows = matches.rows();
+
+        int from = (int) Math.min((long) (pageNumber - 1) * pageSize, rows.size());
+        int to = Math.min(from + pageSize, rows.size());
+        return PageResponse.<List<ProductSummary>>builder()
+                .content(rows.subList(from, to).stream().map(Entry::toSummary).toList())
+                .totalPages((rows.size() + pageSize - 1) / pageSize)
+                .totalElements((long) rows.size())
+                .pageNumber(pageNumber)
+                .pageSize(pageSize)
+                .facets(facets(matched, filter))
+                .build();
+    }
+
+    /**
+     * Cursor mode over the same rows, with the offset of the next row as the cursor. A cursor issued by
+     * Elasticsearch points into a snapshot the fallback cannot read, so it is reported as expired and the client
+     * starts over, as it would after the snapshot timed out.
+     */
+    public PageResponse<?> searchAfter(ProductFilter filter,
+                                       int pageSize,
+                                       String sortBy,
+                                       String sortDirection,
+                                       String cursor) {
+        if (pageSize < 1) {
+            throw new InvalidDataException("Page size must be positive");
+        }
+        String sort = sortSignature(sortBy, sortDirection);
+        int offset = 0;
+        if (!cursor.isBlank()) {
+            Map<String, Object> values = cursorUtils.decode(cursor);
+            if (!(values.get("offset") instanceof Number next) || !sort.equals(values.get("sort"))) {
+                throw new InvalidDataException("Cursor has expired");
+            }
+            offset = Math.max(next.intValue(), 0);
+        }
+        searches.incrementAndGet();
+
+        Matches matches = match(index, filter, sortBy, sortDirection);
+        List<Entry> matched = matches.matched();
+        List<Entry> rows = matches.rows();
+
+        int from = Math.min(offset, rows.size());
+        int to = Math.min(from + pageSize, rows.size());
+        String nextCursor = null;
+        if (to < rows.size()) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("sort", sort);
+            values.put("offset", to);
+            nextCursor = cursorUtils.encode(values);
+        }
+
+        return PageResponse.builder()
+                .content(rows.subList(from, to).stream().map(Entry::toSummary).toList())
+                .pageSize(pageSize)
+                .nextCursor(nextCursor)
+                // Facets describe the whole result, so only the first page computes them
+                .facets(cursor.isBlank() ? facets(matched, filter) : null)
+                .build();
+    }
+
+    // As-you-type: every typed word matches whole and the last one also as a prefix; most matched words first
+    public PageResponse<List<ProductSummary>> searchAsYouType(String text, int pageNumber, int pageSize) {
+        if (pageNumber < 1) {
+            pageNumber = 1;
+        }
+        if (pageSize < 1) {
+            throw new InvalidDataException("Page size must be positive");
+        }
+        searches.incrementAndGet();
+
+        Index current = index;
+        List<String> words = words(text);
+        Map<UUID, Integer> matchedWords = new HashMap<>();
+        for (int i = 0; i < words.size(); i++) {
+            String word = words.get(i);
+            boolean prefix = i == words.size() - 1;
+            for (UUID id : current.postings(word, prefix)) {
+                matchedWords.merge(id, 1, Integer::sum);
+            }
+        }
+
+        List<Entry> rows = matchedWords.keySet().stream()
+                .map(current.entries::get)
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparing((Entry entry) -> matchedWords.get(entry.id())).reversed()
+                        .thenComparing(Entry::sortName, Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+
+        int from = (int) Math.min((long) (pageNumber - 1) * pageSize, rows.size());
+        int to = Math.min(from + pageSize, rows.size());
+        return PageResponse.<List<ProductSummary>>builder()
+                .content(rows.subList(from, to).stream().map(Entry::toSummary).toList())
+                .totalPages((rows.size() + pageSize - 1) / pageSize)
+                .totalElements((long) rows.size())
+                .pageNumber(pageNumber)
+                .pageSize(pageSize)
+                .build();
+    }
+
+    public SearchFallbackStatisticResponse getStatistic() {
+        return SearchFallbackStatisticResponse.builder()
+                .elasticsearchAvailable(searchHealthService.isAvailable())
+                .ready(ready)
+                .indexedProducts(index.entries.size())
+                .indexedWords(index.words.size())
+                .lastBuildMillis(lastBuildMillis)
+                .lastBuiltAt(lastBuiltAt)
+                .searches(searches.get())
+                .outages(searchHealthService.getOutages())
+                .lastError(searchHealthService.getLastError())
+                .build();
+    }
+
+    private List<ProductDocument> load(Collection<UUID> ids) {
+        List<ProductDocument> documents = transactionTemplate.execute(status ->
+                productRepository.findDetailsByIds(ids).stream().map(productMapper::toDocument).toList());
+        return documents == null ? List.of() : documents;
+    }
+
+    private void apply(Index target, Collection<UUID> ids, List<ProductDocument> documents) {
+        Set<UUID> found = new HashSet<>();
+        for (ProductDocument document : documents) {
+            target.put(Entry.of(document));
+            found.add(document.getId());
+        }
+        for (UUID id : ids) {
+            if (!found.contains(id)) {
+                target.remove(id);
+            }
+        }
+    }
+
+    /**
+     * The query part of the Elasticsearch search, any word of the name and the active flag, then the facet
+     * selections in the requested order. Without a name every product is a candidate, so the catalog is taken
+     * pre-sorted from the index and only filtered, instead of sorted again on every request. The brand is a facet
+     * selection like the others and must not narrow the candidates, or the brand facet would lose the other brands.
+     */
+    private Matches match(Index current, ProductFilter filter, String sortBy, String sortDirection) {
+        Comparator<Entry> comparator = comparator(sortBy, sortDirection);
+        boolean presorted = false;
+        Collection<Entry> candidates;
+        List<String> words = words(filter.getName());
+        if (!words.isEmpty()) {
+            Set<UUID> ids = new HashSet<>();
+            for (String word : words) {
+                ids.addAll(current.postings(word, word.length() >= MIN_PREFIX_LENGTH));
+            }
+            candidates = ids.stream().map(current.entries::get).filter(Objects::nonNull).toList();
+        } else {
+            candidates = current.sorted(sortSignature(sortBy, sortDirection), comparator);
+            presorted = true;
+        }
+
+        Boolean isActive = filter.getIsActive();
+        List<Entry> matched = candidates.stream()
+                .filter(entry -> isActive == null || isActive.equals(entry.isActive()))
+                .toList();
+        Stream<Entry> rows = matched.stream().filter(entry -> passes(entry, filter, null));
+        return new Matches(matched, (presorted ? rows : rows.sorted(comparator)).toList());
+    }
+
+    // The facet selections, each of which can be left out to count that facet's values
+    private boolean passes(Entry entry, ProductFilter filter, String except) {
+        if (!"prices".equals(except)) {
+            if (filter.getMinPrice() != null
+                    && (entry.maxPrice() == null || entry.maxPrice() < filter.getMinPrice())) {
+                return false;
+            }
+            if (filter.getMaxPrice() != null
+                    && (entry.minPrice() == null || entry.minPrice() > filter.getMaxPrice())) {
+                return false;
+            }
+        }
+        if (!"brands".equals(except) && !isBlank(filter.getBrandName())
+                && !filter.getBrandName().equals(entry.brandName())) {
+            return false;
+        }
+        if (!"sizes".equals(except) && !isBlank(filter.getSize()) && !entry.sizes().contains(filter.getSize())) {
+            return false;
+        }
+        return "scents".equals(except) || isBlank(filter.getScent()) || entry.scents().contains(filter.getScent());
+    }
+
+    private ProductFacetResponse facets(List<Entry> matched, ProductFilter filter) {
+        Map<String, Long> brands = new HashMap<>();
+        Map<String, Long> sizes = new HashMap<>();
+        Map<String, Long> scents = new HashMap<>();
+        TreeMap<Double, Long> prices = new TreeMap<>();
+
+        for (Entry entry : matched) {
+            if (entry.brandName() != null && passes(entry, filter, "brands")) {
+                brands.merge(entry.brandName(), 1L, Long::sum);
+            }
+            if (passes(entry, filter, "sizes")) {
+                entry.sizes().forEach(size -> sizes.merge(size, 1L, Long::sum));
+            }
+            if (passes(entry, filter, "scents")) {
+                entry.scents().forEach(scent -> scents.merge(scent, 1L, Long::sum));
+            }
+            if (entry.minPrice() != null && passes(entry, filter, "prices")) {
+                prices.merge(Math.floor(entry.minPrice() / priceInterval) * priceInterval, 1L, Long::sum);
+            }
+        }
+
+        return ProductFacetResponse.builder()
+                .brands(termBuckets(brands))
+                .sizes(termBuckets(sizes))
+                .scents(termBuckets(scents))
+                .prices(prices.entrySet().stream()
+                        .map(bucket -> new ProductFacetResponse.PriceBucket(
+                                bucket.getKey(), bucket.getKey() + priceInterval, bucket.getValue()))
+                        .toList())
+                .build();
+    }
+
+    // Ordered like a terms aggregation: most documents first, then by value
+    private List<ProductFacetResponse.Bucket> termBuckets(Map<String, Long> counts) {
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(facetSize)
+                .map(bucket -> new ProductFacetResponse.Bucket(bucket.getKey(), bucket.getValue()))
+                .toList();
+    }
+
+    // Rows with equal sort values are ordered by id, as the id tiebreaker does in Elasticsearch
+    private Comparator<Entry> comparator(String sortBy, String sortDirection) {
+        boolean popular = SortUtils.POPULAR.equalsIgnoreCase(sortBy);
+        String field = popular ? SortUtils.VIEW_COUNT : sortBy;
+        boolean descending = popular || Sort.Direction.fromString(sortDirection).isDescending();
+
+        Comparator<Entry> comparator = switch (field) {
+            case "id" -> by(Entry::key, descending);
+            case "name" -> by(Entry::sortName, descending);
+            case "minPrice" -> by(Entry::minPrice, descending);
+            case "maxPrice" -> by(Entry::maxPrice, descending);
+            case SortUtils.VIEW_COUNT -> by(Entry::viewCount, descending);
+            default -> throw new InvalidDataException("Cannot sort by " + sortBy);
+        };
+        return field.equals("id") ? comparator : comparator.thenComparing(Entry::key);
+    }
+
+    // Missing values sort last in either direction, as they do in Elasticsearch
+    private static <T extends Comparable<? super T>> Comparator<Entry> by(Function<Entry, T> field, boolean descending) {
+        Comparator<T> order = descending ? Comparator.reverseOrder() : Comparator.naturalOrder();
+        return Comparator.comparing(field, Comparator.nullsLast(order));
+    }
+
+    private String sortSignature(String sortBy, String sortDirection) {
+        return SortUtils.POPULAR.equalsIgnoreCase(sortBy)
+                ? SortUtils.POPULAR
+                : sortBy + " " + Sort.Direction.fromString(sortDirection).name();
+    }
+
+    private static List<String> words(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        return WORD.matcher(text.toLowerCase(Locale.ROOT)).results()
+                .map(MatchResult::group)
+                .distinct()
+                .toList();
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    /**
+     * Writes are serialized and replace a product's postings as a whole; searches read the concurrent maps
+     * without locking and may see a product mid-update, which is fine for a fallback.
+     */
+    private static final class Index {
+        private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+        // Sorted, so the words starting with a prefix are one range
+        private final NavigableMap<String, Set<UUID>> words = new ConcurrentSkipListMap<>();
+        // The whole catalog per sort order, tagged with the write count it was sorted at and redone once stale
+        private final Map<String, SortedView> sorted = new ConcurrentHashMap<>();
+        private volatile long version;
+
+        synchronized void put(Entry entry) {
+            remove(entry.id());
+            version++;
+            entries.put(entry.id(), entry);
+            entry.words().forEach(word -> words.computeIfAbsent(word, key -> ConcurrentHashMap.newKeySet()).add(entry.id()));
+        }
+
+        synchronized void remove(UUID id) {
+            Entry previous = entries.remove(id);
+            if (previous == null) {
+                return;
+            }
+            version++;
+            previous.words().forEach(word -> unlink(words, word, id));
+        }
+
+        Set<UUID> postings(String word, boolean prefix) {
+            if (!prefix) {
+                return words.getOrDefault(word, Set.of());
+            }
+            Set<UUID> ids = new HashSet<>();
+            words.subMap(word, true, word + Character.MAX_VALUE, false).values().forEach(ids::addAll);
+            return ids;
+        }
+
+        // Read before sorting, so a write made while sorting leaves the view stale rather than wrongly current
+        List<Entry> sorted(String sort, Comparator<Entry> comparator) {
+            long current = version;
+            SortedView view = sorted.get(sort);
+            if (view == null || view.version() != current) {
+                view = new SortedView(current, entries.values().stream().sorted(comparator).toList());
+                sorted.put(sort, view);
+            }
+            return view.entries();
+        }
+
+        private static void unlink(Map<String, Set<UUID>> postings, String value, UUID id) {
+            Set<UUID> ids = postings.get(value);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(value);
+                }
+            }
+        }
+    }
+
+    private record SortedView(long version, List<Entry> entries) {
+    }
+
+    // Products the query matched, for the facets, and the rows passing the facet selections, in order
+    private record Matches(List<Entry> matched, List<Entry> rows) {
+    }
+
+    // Only what searching, sorting and facets need; the id string is kept since Elasticsearch sorts ids as text
+    private record Entry(UUID id,
+                         String key,
+                         String name,
+                         String sortName,
+                         String thumbnailImage,
+                         Double minPrice,
+                         Double maxPrice,
+                         Boolean isActive,
+                         Long viewCount,
+                         String brandName,
+                         Set<String> sizes,
+                         Set<String> scents,
+                         Set<String> words) {
+
+        static Entry of(ProductDocument document) {
+            return new Entry(
+                    document.getId(),
+                    document.getId().toString(),
+                    document.getName(),
+                    document.getName() == null ? null : document.getName().toLowerCase(Locale.ROOT),
+                    document.getThumbnailImage(),
+                    document.getMinPrice(),
+                    document.getMaxPrice(),
+                    document.getIsActive(),
+                    document.getViewCount(),
+                    document.getBrandName(),
+                    values(document.getVariantSizes()),
+                    values(document.getVariantScents()),
+                    Set.copyOf(FallbackSearchService.words(document.getName())));
+        }
+
+        private static Set<String> values(List<String> values) {
+            if (values == null) {
+                return Set.of();
+            }
+            return values.stream().filter(Objects::nonNull).collect(Collectors.toUnmodifiableSet());
+        }
+
+        ProductSummary toSummary() {
+            return new ProductSummary(id, name, minPrice, maxPrice, thumbnailImage);
+        }
+    }
+}
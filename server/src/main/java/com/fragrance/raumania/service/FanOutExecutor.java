@@ -0,0 +1,83 @@
+package com.fragrance.raumania.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs the independent queries behind one response concurrently, each in its own read-only transaction, and
+ * collects them against a shared deadline. A query that fails or misses the deadline yields nothing so the caller
+ * can answer with that section degraded instead of failing or waiting.
+ */
+@Service
+@Slf4j
+public class FanOutExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long timeoutMillis;
+
+    public FanOutExecutor(PlatformTransactionManager transactionManager,
+                          @Value("${fan-out.pool-size:16}") int poolSize,
+                          @Value("${fan-out.queue-capacity:128}") int queueCapacity,
+                          @Value("${fan-out.timeout-ms:800}") long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+
+        // Private for the same reason as the image upload pool. A full queue makes the request thread run the
+        // query itself, which slows that request down instead of dropping sections for everyone
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "fan-out-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    // Deadline shared by every query of one response, counted from when they are submitted
+    public long deadline() {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    }
+
+    public <T> Future<T> submitReadOnly(Supplier<T> query) {
+        return executor.submit(() -> readOnlyTransaction.execute(status -> query.get()));
+    }
+
+    public <T> T readOnly(Supplier<T> query) {
+        return readOnlyTransaction.execute(status -> query.get());
+    }
+
+    public <T> Optional<T> await(Future<T> future, long deadline, String section) {
+        try {
+            long remaining = Math.max(0, deadline - System.nanoTime());
+            return Optional.ofNullable(future.get(remaining, TimeUnit.NANOSECONDS));
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("Section {} missed its {} ms budget", section, timeoutMillis);
+        } catch (ExecutionException e) {
+            log.warn("Section {} failed", section, e.getCause());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+        }
+        return Optional.empty();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
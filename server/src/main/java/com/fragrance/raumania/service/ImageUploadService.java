@@ -0,0 +1,154 @@
+package com.fragrance.raumania.service;
+
+import com.fragrance.raumania.service.interfaces.ImageStorageService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Uploads images in parallel on a bounded pool so request threads never hold a DB connection while waiting on the image host
+@Service
+@Slf4j
+public class ImageUploadService {
+
+    private final ImageStorageService imageStorageService;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+
+    public ImageUploadService(ImageStorageService imageStorageService,
+                              @Value("${image-upload.pool-size:8}") int poolSize,
+                              @Value("${image-upload.queue-capacity:64}") int queueCapacity,
+                              @Value("${image-upload.timeout-seconds:20}") long timeoutSeconds) {
+        this.imageStorageService = imageStorageService;
+        this.timeoutMillis = TimeUnit.SECONDS.toMillis(timeoutSeconds);
+
+        // Kept private instead of registered as an Executor bean, which would replace Spring's @Async executor.
+        // When the queue is full the request thread runs the upload itself
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-upload-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    public record UploadedImages(String thumbnailImage, List<String> images) {
+        public List<String> urls() {
+            List<String> urls = new ArrayList<>(images);
+            if (thumbnailImage != null) {
+                urls.add(thumbnailImage);
+            }
+            return urls;
+        }
+    }
+
+    /**
+     * Empty or missing files are skipped. If any upload fails, every other one is still awaited up to the deadline
+     * and all that succeeded are deleted again; one still running at the deadline is deleted when it finishes, as
+     * abandoning the future does not stop the upload on the image host.
+     */
+    public UploadedImages uploadProductImages(MultipartFile thumbnailImageFile, MultipartFile[] imageFiles) throws IOException {
+        CompletableFuture<String> thumbnail = isPresent(thumbnailImageFile) ? submit(thumbnailImageFile) : null;
+
+        List<CompletableFuture<String>> images = new ArrayList<>();
+        if (imageFiles != null) {
+            for (MultipartFile imageFile : imageFiles) {
+                if (isPresent(imageFile)) {
+                    images.add(submit(imageFile));
+                }
+            }
+        }
+
+        List<CompletableFuture<String>> all = new ArrayList<>(images);
+        if (thumbnail != null) {
+            all.add(thumbnail);
+        }
+
+        // Every file gets the full timeout counted from submission, they all run concurrently
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        List<String> uploaded = new ArrayList<>(all.size());
+        List<CompletableFuture<String>> unfinished = new ArrayList<>();
+        IOException failure = null;
+        for (CompletableFuture<String> future : all) {
+            try {
+                uploaded.add(await(future, deadline));
+            } catch (IOException e) {
+                uploaded.add(null);
+                unfinished.add(future);
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+
+        if (failure != null) {
+            deleteQuietly(uploaded);
+            // Runs at once for an upload that finished after its wait timed out; never for one that failed
+            unfinished.forEach(future -> future.thenAccept(url -> deleteQuietly(List.of(url))));
+            throw failure;
+        }
+
+        List<String> imageUrls = uploaded.subList(0, images.size());
+        String thumbnailUrl = thumbnail == null ? null : uploaded.get(images.size());
+        return new UploadedImages(thumbnailUrl, List.copyOf(imageUrls));
+    }
+
+    // Compensation for uploads whose database write did not go through
+    public void deleteQuietly(List<String> urls) {
+        for (String url : urls) {
+            if (url == null) {
+                continue;
+            }
+            try {
+                imageStorageService.deleteImage(url);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Failed to delete orphaned image {}", url, e);
+            }
+        }
+    }
+
+    private CompletableFuture<String> submit(MultipartFile file) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return imageStorageService.uploadImage(file);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    private String await(CompletableFuture<String> future, long deadline) throws IOException {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new IOException("Image upload timed out after " + timeoutMillis + " ms", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Image upload failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Image upload interrupted", e);
+        }
+    }
+
+    private boolean isPresent(MultipartFile file) {
+        return file != null && !file.isEmpty();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,72 @@
+package com.fragrance.raumania.service;
+
+import com.fragrance.raumania.service.interfaces.ImageStorageService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+
+// Stand-in for Cloudinary on local and load-test setups, with an optional artificial upload latency
+@Service
+@ConditionalOnProperty(name = "image-storage.provider", havingValue = "local")
+public class LocalImageStorageService implements ImageStorageService {
+
+    public static final String URL_PATH = "/uploads/";
+
+    private final Path directory;
+    private final String baseUrl;
+    private final long latencyMillis;
+
+    public LocalImageStorageService(@Value("${image-storage.local.directory}") String directory,
+                                    @Value("${image-storage.local.base-url}") String baseUrl,
+                                    @Value("${image-storage.local.latency-ms:0}") long latencyMillis) throws IOException {
+        this.directory = Files.createDirectories(Paths.get(directory).toAbsolutePath());
+        this.baseUrl = baseUrl;
+        this.latencyMillis = latencyMillis;
+    }
+
+    @Override
+    public String uploadImage(MultipartFile file) throws IOException {
+        simulateLatency();
+
+        String extension = StringUtils.getFilenameExtension(file.getOriginalFilename());
+        String filename = UUID.randomUUID() + (extension == null ? "" : "." + extension);
+        try (InputStream inputStream = file.getInputStream()) {
+            Files.copy(inputStream, directory.resolve(filename), StandardCopyOption.REPLACE_EXISTING);
+        }
+        return baseUrl + URL_PATH + filename;
+    }
+
+    @Override
+    public void deleteImage(String url) throws IOException {
+        if (url == null || !url.contains(URL_PATH)) {
+            return;
+        }
+        String filename = url.substring(url.lastIndexOf(URL_PATH) + URL_PATH.length());
+        Path file = directory.resolve(filename).normalize();
+        if (file.startsWith(directory)) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private void simulateLatency() throws IOException {
+        if (latencyMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(latencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Upload interrupted", e);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.fragrance.raumania.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fragrance.raumania.dto.response.cache.CacheStatisticResponse;
+import com.fragrance.raumania.dto.response.product.ProductResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductCacheService {
+
+    private static final String PRODUCT_DETAIL_PREFIX = "product-detail-";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${cache.product-detail.ttl-minutes:10}")
+    private long productDetailTtlMinutes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ProductResponse getProductDetail(UUID productId, Supplier<ProductResponse> loader) {
+        Optional<ProductResponse> cached = readProductDetail(productId);
+        if (cached.isPresent()) {
+            hits.incrementAndGet();
+            return cached.get();
+        }
+
+        misses.incrementAndGet();
+        ProductResponse response = loader.get();
+        // A partial response is served once but never cached
+        if (response.getDegradedSections() == null) {
+            writeProductDetail(productId, response);
+        }
+        return response;
+    }
+
+    public void evictProductDetail(UUID productId) {
+        try {
+            if (Boolean.TRUE.equals(redisTemplate.delete(PRODUCT_DETAIL_PREFIX + productId))) {
+                evictions.incrementAndGet();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to evict product detail cache for {}", productId, e);
+        }
+    }
+
+    // One DEL for all of them, for changes that touch many products at once
+    public void evictProductDetails(Collection<UUID> productIds) {
+        try {
+            Long deleted = redisTemplate.delete(productIds.stream().map(id -> PRODUCT_DETAIL_PREFIX + id).toList());
+            if (deleted != null) {
+                evictions.addAndGet(deleted);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to evict product detail cache for {} products", productIds.size(), e);
+        }
+    }
+
+    public CacheStatisticResponse getStatistic() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long total = hitCount + missCount;
+
+        return CacheStatisticResponse.builder()
+                .name("product-detail")
+                .hits(hitCount)
+                .misses(missCount)
+                .evictions(evictions.get())
+                .hitRatio(total == 0 ? 0.0 : (double) hitCount / total)
+                .build();
+    }
+
+    private Optional<ProductResponse> readProductDetail(UUID productId) {
+        try {
+            Object json = redisTemplate.opsForValue().get(PRODUCT_DETAIL_PREFIX + productId);
+            if (json == null) {
+                return Optional.empty();
+            }
+            return Optional.of(objectMapper.readValue((String) json, ProductResponse.class));
+        } catch (JsonProcessingException | RuntimeException e) {
+            // A broken entry or an unreachable Redis must never fail the product page
+            log.warn("Failed to read product detail cache for {}", productId, e);
+            return Optional.empty();
+        }
+    }
+
+    private void writeProductDetail(UUID productId, ProductResponse response) {
+        try {
+            redisTemplate.opsForValue().set(
+                    PRODUCT_DETAIL_PREFIX + productId,
+                    objectMapper.writeValueAsString(response),
+                    Duration.ofMinutes(productDetailTtlMinutes)
+            );
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Failed to write product detail cache for {}", productId, e);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.fragrance.raumania.service;
+
+import com.fragrance.raumania.dto.filter.product.ProductFilter;
+import com.fragrance.raumania.dto.response.cache.CacheStatisticResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductCountCacheService {
+
+    private static final String PRODUCT_COUNT_PREFIX = "product-count-";
+    private static final String PRODUCT_COUNT_GENERATION = "product-count-generation";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    @Value("${cache.product-count.ttl-seconds:60}")
+    private long productCountTtlSeconds;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public long countProducts(ProductFilter filter, Supplier<Long> counter) {
+        String key = null;
+        try {
+            key = PRODUCT_COUNT_PREFIX + currentGeneration() + "-" + signature(filter);
+            Object cached = redisTemplate.opsForValue().get(key);
+            if (cached instanceof Number count) {
+                hits.incrementAndGet();
+                return count.longValue();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to read product count cache", e);
+        }
+
+        misses.incrementAndGet();
+        long count = counter.get();
+        if (key != null) {
+            try {
+                redisTemplate.opsForValue().set(key, count, Duration.ofSeconds(productCountTtlSeconds));
+            } catch (RuntimeException e) {
+                log.warn("Failed to write product count cache", e);
+            }
+        }
+        return count;
+    }
+
+    // Bumping the generation orphans every cached total at once; the old keys expire on their own
+    public void invalidate() {
+        try {
+            redisTemplate.opsForValue().increment(PRODUCT_COUNT_GENERATION);
+            evictions.incrementAndGet();
+        } catch (RuntimeException e) {
+            log.warn("Failed to invalidate product count cache", e);
+        }
+    }
+
+    public CacheStatisticResponse getStatistic() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long total = hitCount + missCount;
+
+        return CacheStatisticResponse.builder()
+                .name("product-count")
+                .hits(hitCount)
+                .misses(missCount)
+                .evictions(evictions.get())
+                .hitRatio(total == 0 ? 0.0 : (double) hitCount / total)
+                .build();
+    }
+
+    // Also serves as the catalog version for listing ETags, empty when Redis is unreachable
+    public Optional<String> getCatalogVersion() {
+        try {
+            return Optional.of(currentGeneration().toString());
+        } catch (RuntimeException e) {
+            log.warn("Failed to read catalog version", e);
+            return Optional.empty();
+        }
+    }
+
+    // Seeded with the clock rather than 0 so a Redis flush can never bring back a version seen before
+    private Object currentGeneration() {
+        Object generation = redisTemplate.opsForValue().get(PRODUCT_COUNT_GENERATION);
+        if (generation == null) {
+            redisTemplate.opsForValue().setIfAbsent(PRODUCT_COUNT_GENERATION, System.currentTimeMillis());
+            generation = redisTemplate.opsForValue().get(PRODUCT_COUNT_GENERATION);
+        }
+        return generation;
+    }
+
+    // The specification matches case-insensitively, so differently cased filters share a key
+    private String signature(ProductFilter filter) {
+        if (filter == null) {
+            return "all";
+        }
+        return "name=" + normalize(filter.getName())
+                + "|minPrice=" + normalize(filter.getMinPrice())
+                + "|maxPrice=" + normalize(filter.getMaxPrice())
+                + "|isActive=" + normalize(filter.getIsActive())
+                + "|brand=" + normalize(filter.getBrandName())
+                + "|size=" + normalize(filter.getSize())
+                + "|scent=" + normalize(filter.getScent());
+    }
+
+    private String normalize(Object value) {
+        if (value == null) {
+            return "~";
+        }
+        return value.toString().toLowerCase(Locale.ROOT);
+    }
+}
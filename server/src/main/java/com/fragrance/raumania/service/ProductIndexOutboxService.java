@@ -0,0 +1,304 @@
+package com.fragrance.raumania.service;
+
+import com.fragrance.raumania.dto.response.product.ProductIndexBufferStatisticResponse;
+import com.fragrance.raumania.dto.response.product.ProductIndexOutboxStatisticResponse;
+import com.fragrance.raumania.event.BrandChangedEvent;
+import com.fragrance.raumania.event.ProductIndexEvent;
+import com.fragrance.raumania.model.product.ProductIndexOutbox;
+import com.fragrance.raumania.repository.ProductIndexOutboxRepository;
+import com.fragrance.raumania.service.interfaces.ProductIndexService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the search index in step with MySQL through an outbox. Index events are stored as rows in the transaction
+ * that changed the product, so they commit or roll back with it and survive Elasticsearch being down. A relay on
+ * every replica claims the rows in batches with SKIP LOCKED, retries failures with exponential backoff, and
+ * parks rows that Elasticsearch keeps rejecting so they cannot block the rest. Time spent waiting out an outage
+ * does not count towards parking.
+ * <p>
+ * New rows wait out a short coalescing window, so a burst of changes to one product, or a brand rename touching all
+ * of its products, is relayed as one bulk item per product. Once the backlog passes max-pending, writers wake a
+ * second drain on the async executor next to the scheduled relay; the write itself never waits on Elasticsearch.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductIndexOutboxService {
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final ProductIndexOutboxRepository productIndexOutboxRepository;
+    private final ProductIndexService productIndexService;
+    private final SearchResultCacheService searchResultCacheService;
+    private final ResponseCacheService responseCacheService;
+    private final SearchHealthService searchHealthService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${product-index.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${product-index.outbox.max-attempts:15}")
+    private int maxAttempts;
+
+    @Value("${product-index.outbox.backoff-initial-ms:1000}")
+    private long backoffInitialMillis;
+
+    @Value("${product-index.outbox.backoff-max-ms:300000}")
+    private long backoffMaxMillis;
+
+    @Value("${product-index.outbox.coalesce-window-ms:500}")
+    private long coalesceWindowMillis;
+
+    @Value("${product-index.outbox.max-pending:5000}")
+    private int maxPending;
+
+    @Value("${product-index.outbox.claim-ms:60000}")
+    private long claimMillis;
+
+    private final AtomicLong relayed = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong parked = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong indexed = new AtomicLong();
+    private final AtomicLong deleted = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong backpressureBatches = new AtomicLong();
+    private final AtomicBoolean backpressureDraining = new AtomicBoolean();
+    // Refreshed after every relay, so writers can check the backlog without a query of their own
+    private volatile long queueDepth;
+    // Failed relays in a row with Elasticsearch unreachable; sets the backoff while attempts stay untouched
+    private final AtomicInteger consecutiveOutages = new AtomicInteger();
+    private volatile int lastBatchSize;
+    private volatile long lastBatchMillis;
+
+    // Joins the caller's transaction, so the row exists exactly when the product change does
+    public void record(ProductIndexEvent event) {
+        productIndexOutboxRepository.save(ProductIndexOutbox.builder()
+                .productId(event.getProductId())
+                .operation(event.getOperation())
+                .availableAt(new Date(System.currentTimeMillis() + coalesceWindowMillis))
+                .build());
+        enqueued.incrementAndGet();
+    }
+
+    // Not while Elasticsearch is down, when a second drain would only add to the retries
+    public boolean isBacklogged() {
+        return queueDepth >= maxPending && consecutiveOutages.get() == 0;
+    }
+
+    // Backpressure: drains the backlog next to the scheduled relay, which claims disjoint batches. Called off the
+    // writer's thread; while one drain runs on this instance, further calls return at once
+    public void relieveBackpressure() {
+        if (!backpressureDraining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            backpressureBatches.incrementAndGet();
+            relay();
+        } finally {
+            backpressureDraining.set(false);
+        }
+    }
+
+    /**
+     * Applies a brand rename to the index with one update_by_query. If that fails, the brand's products go through
+     * the outbox like any other change, so the index still converges. Runs after the brand change committed, so the
+     * outbox rows are saved in a transaction of their own.
+     */
+    public void syncBrand(BrandChangedEvent event) {
+        if (!event.isRenamed() || event.getProductIds().isEmpty()) {
+            return;
+        }
+        try {
+            long updated = productIndexService.updateBrandName(event.getPreviousName(), event.getName());
+            log.info("Updated brand name on {} product documents", updated);
+            List<String> tags = new ArrayList<>(event.getProductIds().size() + 1);
+            tags.add(ResponseCacheService.TAG_CATALOG);
+            event.getProductIds().forEach(productId -> tags.add(ResponseCacheService.productTag(productId)));
+            responseCacheService.purge(tags.toArray(new String[0]));
+            searchResultCacheService.invalidate();
+        } catch (RuntimeException e) {
+            log.warn("Failed to update brand name in the index, queueing {} products", event.getProductIds().size(), e);
+            Date now = new Date();
+            productIndexOutboxRepository.saveAll(event.getProductIds().stream()
+                    .map(productId -> ProductIndexOutbox.builder()
+                            .productId(productId)
+                            .operation(ProductIndexEvent.Operation.UPDATE)
+                            .availableAt(now)
+                            .build())
+                    .toList());
+        }
+    }
+
+    // Keeps draining while batches come back full, so a backlog is not limited to one batch per poll
+    @Scheduled(fixedDelayString = "${product-index.outbox.poll-interval-ms:500}")
+    public void relay() {
+        int relayedRows;
+        do {
+            relayedRows = relayBatch();
+        } while (relayedRows == batchSize && consecutiveOutages.get() == 0);
+        queueDepth = productIndexOutboxRepository.countByParked(false);
+    }
+
+    @Transactional
+    public int retryParked() {
+        return productIndexOutboxRepository.unparkAll(new Date());
+    }
+
+    public ProductIndexOutboxStatisticResponse getStatistic() {
+        long oldestPendingAge = productIndexOutboxRepository.findFirstByParkedFalseOrderByIdAsc()
+                .map(row -> System.currentTimeMillis() - row.getCreatedAt().getTime())
+                .orElse(0L);
+
+        return ProductIndexOutboxStatisticResponse.builder()
+                .pending(productIndexOutboxRepository.countByParked(false))
+                .parked(productIndexOutboxRepository.countByParked(true))
+                .oldestPendingAgeMillis(oldestPendingAge)
+                .relayed(relayed.get())
+                .retried(retried.get())
+                .parkedByThisInstance(parked.get())
+                .batches(batches.get())
+                .lastBatchSize(lastBatchSize)
+                .lastBatchMillis(lastBatchMillis)
+                .build();
+    }
+
+    public ProductIndexBufferStatisticResponse getBufferStatistic() {
+        return ProductIndexBufferStatisticResponse.builder()
+                .queueDepth(queueDepth)
+                .capacity(maxPending)
+                .enqueued(enqueued.get())
+                .coalesced(coalesced.get())
+                .indexed(indexed.get())
+                .deleted(deleted.get())
+                .failed(failed.get())
+                .flushes(batches.get())
+                .backpressureFlushes(backpressureBatches.get())
+                .lastFlushSize(lastBatchSize)
+                .lastFlushMillis(lastBatchMillis)
+                .build();
+    }
+
+    private int relayBatch() {
+        long start = System.currentTimeMillis();
+        // Claimed by pushing available_at past the claim lease in a short transaction of its own, so no row lock is
+        // held during the bulk request, and the rows of a relay that dies mid-batch come back once the lease ends
+        List<ProductIndexOutbox> rows = transactionTemplate.execute(status -> {
+            List<ProductIndexOutbox> locked = productIndexOutboxRepository.lockAvailable(new Date(), batchSize);
+            Date claimedUntil = new Date(System.currentTimeMillis() + claimMillis);
+            locked.forEach(row -> row.setAvailableAt(claimedUntil));
+            return locked;
+        });
+        if (rows == null || rows.isEmpty()) {
+            return 0;
+        }
+
+        // Every product is synced to its current row in MySQL, indexed if it exists and removed if not, so
+        // batches finishing out of order on different replicas agree. The latest operation only feeds the counters
+        Map<UUID, ProductIndexEvent.Operation> productIds = new LinkedHashMap<>();
+        rows.forEach(row -> productIds.put(row.getProductId(), row.getOperation()));
+        coalesced.addAndGet(rows.size() - productIds.size());
+
+        Set<UUID> rejected;
+        try {
+            rejected = productIndexService.indexProducts(productIds.keySet(), List.of());
+        } catch (RuntimeException e) {
+            // An unreachable cluster says nothing about the rows, so it must not push them towards parking
+            if (searchHealthService.isOutage(e)) {
+                int outages = consecutiveOutages.incrementAndGet();
+                log.warn("Elasticsearch is unavailable, delaying {} index events", rows.size(), e);
+                rows.forEach(row -> waitOutOutage(row, e.toString(), outages));
+            } else {
+                log.warn("Failed to relay {} index events, backing off", rows.size(), e);
+                rows.forEach(row -> retryLater(row, e.toString()));
+            }
+            transactionTemplate.executeWithoutResult(status -> productIndexOutboxRepository.saveAll(rows));
+            return finishBatch(rows.size(), start);
+        }
+        consecutiveOutages.set(0);
+
+        Set<UUID> synced = new LinkedHashSet<>();
+        List<ProductIndexOutbox> done = new ArrayList<>(rows.size());
+        List<ProductIndexOutbox> retries = new ArrayList<>();
+        for (ProductIndexOutbox row : rows) {
+            if (rejected.contains(row.getProductId())) {
+                retryLater(row, "Rejected by Elasticsearch");
+                retries.add(row);
+            } else {
+                done.add(row);
+                synced.add(row.getProductId());
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            productIndexOutboxRepository.deleteAllInBatch(done);
+            productIndexOutboxRepository.saveAll(retries);
+        });
+        relayed.addAndGet(done.size());
+        failed.addAndGet(rejected.size());
+        synced.forEach(productId -> (productIds.get(productId) == ProductIndexEvent.Operation.DELETE
+                ? deleted : indexed).incrementAndGet());
+
+        // The bulk request waited for a refresh, so pages cached from here on see the change
+        if (!synced.isEmpty()) {
+            List<String> tags = new ArrayList<>(synced.size() + 1);
+            tags.add(ResponseCacheService.TAG_CATALOG);
+            synced.forEach(productId -> tags.add(ResponseCacheService.productTag(productId)));
+            responseCacheService.purge(tags.toArray(new String[0]));
+            searchResultCacheService.invalidate();
+        }
+        return finishBatch(rows.size(), start);
+    }
+
+    private int finishBatch(int size, long start) {
+        batches.incrementAndGet();
+        lastBatchSize = size;
+        lastBatchMillis = System.currentTimeMillis() - start;
+        return size;
+    }
+
+    private void retryLater(ProductIndexOutbox row, String error) {
+        int attempts = row.getAttempts() + 1;
+        row.setAttempts(attempts);
+        row.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+
+        if (attempts >= maxAttempts) {
+            row.setParked(true);
+            parked.incrementAndGet();
+            log.error("Parked index event {} for product {} after {} attempts: {}",
+                    row.getId(), row.getProductId(), attempts, row.getLastError());
+            return;
+        }
+
+        row.setAvailableAt(new Date(System.currentTimeMillis() + backoffMillis(attempts)));
+        retried.incrementAndGet();
+    }
+
+    private void waitOutOutage(ProductIndexOutbox row, String error, int outages) {
+        row.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        row.setAvailableAt(new Date(System.currentTimeMillis() + backoffMillis(outages)));
+        retried.incrementAndGet();
+    }
+
+    // Doubles per attempt up to the cap, with jitter so replicas retrying the same outage spread out
+    private long backoffMillis(int attempts) {
+        long backoff = backoffInitialMillis << Math.min(attempts - 1, 30);
+        if (backoff <= 0 || backoff > backoffMaxMillis) {
+            backoff = backoffMaxMillis;
+        }
+        return backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+    }
+}
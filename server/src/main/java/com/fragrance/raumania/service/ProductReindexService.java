@@ -0,0 +1,320 @@
+package com.fragrance.raumania.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import com.fragrance.raumania.dto.response.product.ProductReindexResponse;
+import com.fragrance.raumania.exception.DataInUseException;
+import com.fragrance.raumania.mapper.ProductMapper;
+import com.fragrance.raumania.model.product.ProductDocument;
+import com.fragrance.raumania.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.client.elc.NativeQueryBuilder;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexInformation;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.index.AliasAction;
+import org.springframework.data.elasticsearch.core.index.AliasActionParameters;
+import org.springframework.data.elasticsearch.core.index.AliasActions;
+import org.springframework.data.elasticsearch.core.index.Settings;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Rebuilds the product index without taking search down. Products are streamed from MySQL in id order into a new
+ * {@code products_vN} index while searches keep reading the old one through the {@code products} alias, then the
+ * alias is moved in one atomic request. The new index carries the {@code products_building} write alias while it is
+ * built, so index writes from every replica reach it too, not just those of the replica running the job.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductReindexService {
+
+    private static final String VERSION_SEPARATOR = "_v";
+    private static final String BUILDING_SUFFIX = "_building";
+    private static final int PRUNE_BATCH_SIZE = 1000;
+    private static final int CONFLICT = 409;
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ElasticsearchClient elasticsearchClient;
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${search.reindex.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${search.reindex.replicas:1}")
+    private int replicas;
+
+    @Value("${search.reindex.refresh-interval:1s}")
+    private String refreshInterval;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public ProductReindexResponse reindex() {
+        if (!running.compareAndSet(false, true)) {
+            throw new DataInUseException("A product reindex is already running");
+        }
+
+        long startedAt = System.nanoTime();
+        String alias = elasticsearchOperations.getIndexCoordinatesFor(ProductDocument.class).getIndexName();
+        String buildingAlias = alias + BUILDING_SUFFIX;
+        IndexCoordinates target = null;
+        boolean swapped = false;
+        try {
+            // Another replica may be building, or one that crashed left its index behind; either way an admin decides
+            List<String> building = currentIndices(buildingAlias);
+            if (!building.isEmpty()) {
+                throw new DataInUseException("A product reindex is already building " + building
+                        + "; delete that index if its job is gone");
+            }
+
+            target = IndexCoordinates.of(alias + VERSION_SEPARATOR + nextVersion(alias));
+            createIndex(target, buildingAlias);
+
+            long indexedProducts = copyAll(target);
+            long prunedProducts = pruneDeleted(target);
+
+            finishIndex(target);
+            List<String> replaced = swapAlias(alias, buildingAlias, target);
+            swapped = true;
+            deleteIndices(replaced, alias);
+
+            long elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000;
+            double docsPerSecond = elapsedMillis == 0 ? indexedProducts : indexedProducts * 1000.0 / elapsedMillis;
+            log.info("Reindexed {} products into {} in {} ms ({} docs/s), {} deleted during the build",
+                    indexedProducts, target.getIndexName(), elapsedMillis, Math.round(docsPerSecond), prunedProducts);
+
+            return ProductReindexResponse.builder()
+                    .indexName(target.getIndexName())
+                    .replacedIndices(replaced)
+                    .indexedProducts(indexedProducts)
+                    .prunedProducts(prunedProducts)
+                    .elapsedMillis(elapsedMillis)
+                    .docsPerSecond(docsPerSecond)
+                    .build();
+        } finally {
+            if (target != null && !swapped) {
+                deleteIndices(List.of(target.getIndexName()), alias);
+            }
+            running.set(false);
+        }
+    }
+
+    // The write alias of the index being built, or null when no reindex is running anywhere
+    public String buildingIndex() {
+        String buildingAlias = elasticsearchOperations.getIndexCoordinatesFor(ProductDocument.class).getIndexName()
+                + BUILDING_SUFFIX;
+        try {
+            return elasticsearchOperations.indexOps(IndexCoordinates.of(buildingAlias)).exists() ? buildingAlias : null;
+        } catch (RuntimeException e) {
+            log.debug("Failed to look up {}", buildingAlias, e);
+            return null;
+        }
+    }
+
+    private long copyAll(IndexCoordinates target) {
+        long copied = 0;
+        List<UUID> ids = productRepository.findFirstIds(PageRequest.of(0, chunkSize));
+        while (!ids.isEmpty()) {
+            copy(ids, target);
+            copied += ids.size();
+            if (ids.size() < chunkSize) {
+                break;
+            }
+            ids = productRepository.findIdsAfter(ids.get(ids.size() - 1), PageRequest.of(0, chunkSize));
+        }
+        return copied;
+    }
+
+    /**
+     * Copies the current state of the products with create operations, one bulk request per chunk. A live write
+     * that reached the new index first was read from MySQL later than the chunk, so the chunk never overwrites it.
+     */
+    private void copy(List<UUID> ids, IndexCoordinates target) {
+        List<ProductDocument> documents = transactionTemplate.execute(status ->
+                productRepository.findDetailsByIds(ids).stream().map(productMapper::toDocument).toList());
+        if (documents == null || documents.isEmpty()) {
+            return;
+        }
+
+        String index = target.getIndexName();
+        List<BulkOperation> operations = new ArrayList<>(documents.size());
+        for (ProductDocument document : documents) {
+            Document source = elasticsearchOperations.getElasticsearchConverter().mapObject(document);
+            operations.add(BulkOperation.of(o -> o.create(c -> c
+                    .index(index)
+                    .id(document.getId().toString())
+                    .document(source))));
+        }
+
+        BulkResponse response;
+        try {
+            response = elasticsearchClient.bulk(b -> b.operations(operations));
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Copying " + operations.size() + " products failed", e);
+        }
+        if (response.errors()) {
+            for (BulkResponseItem item : response.items()) {
+                if (item.error() != null && item.status() != CONFLICT) {
+                    throw new IllegalStateException("Elasticsearch rejected product " + item.id() + " in "
+                            + index + ": " + item.error().reason());
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes products deleted while their chunk was in flight: a delete that reached the new index before the
+     * chunk's create would otherwise be undone by it. Walks the ids of the new index once all chunks are written,
+     * so later deletes arrive through the write alias.
+     */
+    private long pruneDeleted(IndexCoordinates target) {
+        elasticsearchOperations.indexOps(target).refresh();
+
+        long pruned = 0;
+        List<Object> searchAfter = null;
+        while (true) {
+            NativeQueryBuilder queryBuilder = NativeQuery.builder()
+                    .withQuery(q -> q.matchAll(m -> m))
+                    .withFields("id")
+                    .withPageable(PageRequest.of(0, PRUNE_BATCH_SIZE, Sort.by("id")))
+                    .withTrackTotalHits(false);
+            if (searchAfter != null) {
+                queryBuilder.withSearchAfter(searchAfter);
+            }
+            List<SearchHit<ProductDocument>> hits =
+                    elasticsearchOperations.search(queryBuilder.build(), ProductDocument.class, target).getSearchHits();
+            if (hits.isEmpty()) {
+                break;
+            }
+
+            List<UUID> ids = hits.stream().map(hit -> UUID.fromString(hit.getId())).toList();
+            Set<UUID> existing = new HashSet<>(productRepository.findExistingIds(ids));
+            for (UUID id : ids) {
+                if (!existing.contains(id)) {
+                    elasticsearchOperations.delete(id.toString(), target);
+                    pruned++;
+                }
+            }
+            if (hits.size() < PRUNE_BATCH_SIZE) {
+                break;
+            }
+            searchAfter = hits.get(hits.size() - 1).getSortValues();
+        }
+        return pruned;
+    }
+
+    // No refreshes and no replicas while bulk loading; both are restored before the index takes traffic
+    private void createIndex(IndexCoordinates target, String buildingAlias) {
+        IndexOperations indexOperations = elasticsearchOperations.indexOps(target);
+        Settings settings = new Settings();
+        settings.put("index.refresh_interval", "-1");
+        settings.put("index.number_of_replicas", 0);
+        indexOperations.create(settings, indexOperations.createMapping(ProductDocument.class));
+
+        AliasActions actions = new AliasActions();
+        actions.add(new AliasAction.Add(AliasActionParameters.builder()
+                .withIndices(target.getIndexName())
+                .withAliases(buildingAlias)
+                .withIsWriteIndex(true)
+                .build()));
+        indexOperations.alias(actions);
+    }
+
+    private void finishIndex(IndexCoordinates target) {
+        try {
+            elasticsearchClient.indices().putSettings(request -> request
+                    .index(target.getIndexName())
+                    .settings(settings -> settings
+                            .refreshInterval(interval -> interval.time(refreshInterval))
+                            .numberOfReplicas(String.valueOf(replicas))));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to restore settings of " + target.getIndexName(), e);
+        }
+        elasticsearchOperations.indexOps(target).refresh();
+    }
+
+    /**
+     * Points the alias at the new index in a single request, so searches see either the old index or the new one
+     * and never neither, and drops the write alias in the same request, after which live writes reach the new index
+     * through the alias alone. An index created before aliases were used has the alias's own name and is dropped
+     * by the same request.
+     */
+    private List<String> swapAlias(String alias, String buildingAlias, IndexCoordinates target) {
+        List<String> current = currentIndices(alias);
+        AliasActions actions = new AliasActions();
+        actions.add(new AliasAction.Remove(AliasActionParameters.builder()
+                .withIndices(target.getIndexName())
+                .withAliases(buildingAlias)
+                .build()));
+        for (String index : current) {
+            if (index.equals(alias)) {
+                actions.add(new AliasAction.RemoveIndex(AliasActionParameters.builder()
+                        .withIndices(index)
+                        .build()));
+            } else {
+                actions.add(new AliasAction.Remove(AliasActionParameters.builder()
+                        .withIndices(index)
+                        .withAliases(alias)
+                        .build()));
+            }
+        }
+        actions.add(new AliasAction.Add(AliasActionParameters.builder()
+                .withIndices(target.getIndexName())
+                .withAliases(alias)
+                .build()));
+        elasticsearchOperations.indexOps(target).alias(actions);
+        return current;
+    }
+
+    // The concrete indices behind the alias, or the legacy index of the same name
+    private List<String> currentIndices(String alias) {
+        IndexOperations indexOperations = elasticsearchOperations.indexOps(IndexCoordinates.of(alias));
+        if (!indexOperations.exists()) {
+            return List.of();
+        }
+        return indexOperations.getInformation().stream().map(IndexInformation::getName).toList();
+    }
+
+    private int nextVersion(String alias) {
+        String prefix = alias + VERSION_SEPARATOR;
+        return elasticsearchOperations.indexOps(IndexCoordinates.of(prefix + "*")).getInformation().stream()
+                .map(IndexInformation::getName)
+                .map(name -> name.substring(prefix.length()))
+                .filter(version -> !version.isEmpty() && version.chars().allMatch(Character::isDigit))
+                .mapToInt(Integer::parseInt)
+                .max()
+                .orElse(0) + 1;
+    }
+
+    // The legacy index was already removed by the swap
+    private void deleteIndices(List<String> indices, String alias) {
+        for (String index : indices) {
+            if (index.equals(alias)) {
+                continue;
+            }
+            try {
+                elasticsearchOperations.indexOps(IndexCoordinates.of(index)).delete();
+            } catch (RuntimeException e) {
+                log.warn("Failed to delete index {}", index, e);
+            }
+        }
+    }
+}
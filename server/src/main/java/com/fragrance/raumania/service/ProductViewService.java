@@ -0,0 +1,209 @@
+package com.fragrance.raumania.service;
+
+import com.fragrance.raumania.model.product.ProductDocument;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.query.ScriptType;
+import org.springframework.data.elasticsearch.core.query.UpdateQuery;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Counts product views in Redis and writes them to the product table in batches, so a popular product page
+ * never turns into a hot row. Unique viewers are estimated with one HyperLogLog per product. Every replica runs the
+ * flush, so it holds a Redis lock while it does, or two replicas could both write the same flushing hash. Each
+ * flushing hash gets a batch id that is recorded in the same transaction as its counts, so a batch whose hash could
+ * not be cleared afterwards is not counted again.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductViewService {
+
+    private static final String PENDING_VIEWS = "product-views-pending";
+    private static final String FLUSHING_VIEWS = "product-views-flushing";
+    private static final String FLUSHING_BATCH = "product-views-flushing-batch";
+    private static final String VIEWERS_PREFIX = "product-viewers-";
+    private static final String FLUSH_LOCK = "product-views-flush-lock";
+    private static final String FLUSH_VERSION = "product-views-version";
+
+    // Deletes the lock only while it is still ours, so a flush that outlived its lease cannot free someone else's
+    private static final DefaultRedisScript<Long> RELEASE_LOCK = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private static final String UPDATE_VIEW_COUNT =
+            "UPDATE product SET view_count = COALESCE(view_count, 0) + ?, unique_view_count = ? WHERE id = ?";
+
+    private static final String MARK_FLUSHED = "INSERT INTO product_view_flush (batch_id, flushed_at) VALUES (?, ?)";
+
+    private static final String DELETE_FLUSHED_BEFORE = "DELETE FROM product_view_flush WHERE flushed_at < ?";
+
+    private static final String INCREMENT_VIEW_COUNT =
+            "ctx._source.viewCount = (ctx._source.viewCount == null ? 0 : ctx._source.viewCount) + params.views";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ElasticsearchOperations elasticsearchOperations;
+
+    // Well above a normal flush, so the lock only expires when its holder died
+    @Value("${product-view.flush-lock-ms:300000}")
+    private long flushLockMillis;
+
+    // Batch markers only need to outlive the retries of their own batch
+    @Value("${product-view.flushed-batch-retention-hours:24}")
+    private long flushedBatchRetentionHours;
+
+    // Best effort: a lost view is cheaper than failing the product page because Redis is down
+    public void recordView(UUID productId, String viewerId) {
+        byte[] pending = PENDING_VIEWS.getBytes(StandardCharsets.UTF_8);
+        byte[] field = productId.toString().getBytes(StandardCharsets.UTF_8);
+        byte[] viewers = (VIEWERS_PREFIX + productId).getBytes(StandardCharsets.UTF_8);
+        byte[] viewer = viewerId.getBytes(StandardCharsets.UTF_8);
+
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                connection.hashCommands().hIncrBy(pending, field, 1);
+                connection.hyperLogLogCommands().pfAdd(viewers, viewer);
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Failed to record view for product {}", productId, e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${product-view.flush-interval-ms:60000}")
+    public void flush() {
+        String token = UUID.randomUUID().toString();
+        try {
+            if (!Boolean.TRUE.equals(stringRedisTemplate.opsForValue()
+                    .setIfAbsent(FLUSH_LOCK, token, Duration.ofMillis(flushLockMillis)))) {
+                return;
+            }
+        } catch (DataAccessException e) {
+            log.warn("Failed to take the product view flush lock", e);
+            return;
+        }
+
+        try {
+            // A leftover flushing hash means the previous run died halfway; finish it before taking new counts
+            if (!Boolean.TRUE.equals(stringRedisTemplate.hasKey(FLUSHING_VIEWS))) {
+                if (!Boolean.TRUE.equals(stringRedisTemplate.hasKey(PENDING_VIEWS))) {
+                    return;
+                }
+                // RENAME is atomic, so views recorded from now on land in a fresh pending hash
+                stringRedisTemplate.rename(PENDING_VIEWS, FLUSHING_VIEWS);
+            }
+
+            stringRedisTemplate.opsForValue().setIfAbsent(FLUSHING_BATCH, UUID.randomUUID().toString());
+            String batchId = stringRedisTemplate.opsForValue().get(FLUSHING_BATCH);
+
+            Map<Object, Object> counts = stringRedisTemplate.opsForHash().entries(FLUSHING_VIEWS);
+            if (!counts.isEmpty()) {
+                List<ViewCount> viewCounts = collectViewCounts(counts);
+                if (writeViewCounts(batchId, viewCounts)) {
+                    stringRedisTemplate.opsForValue().increment(FLUSH_VERSION);
+                    indexViewCounts(viewCounts);
+                    log.info("Flushed view counts for {} products", viewCounts.size());
+                } else {
+                    log.info("View count batch {} was already flushed, clearing it", batchId);
+                }
+            }
+            stringRedisTemplate.delete(List.of(FLUSHING_VIEWS, FLUSHING_BATCH));
+        } catch (DataAccessException e) {
+            // Counts stay in the flushing hash and are retried on the next run
+            log.warn("Failed to flush product view counts", e);
+        } finally {
+            releaseLock(token);
+        }
+    }
+
+    // Bumped by every flush that wrote counts, so ETags of listings ordered by views change with that order.
+    // Empty when Redis is unreachable
+    public Optional<String> getFlushVersion() {
+        try {
+            String version = stringRedisTemplate.opsForValue().get(FLUSH_VERSION);
+            return Optional.of(version == null ? "0" : version);
+        } catch (RuntimeException e) {
+            log.warn("Failed to read product view flush version", e);
+            return Optional.empty();
+        }
+    }
+
+    private void releaseLock(String token) {
+        try {
+            stringRedisTemplate.execute(RELEASE_LOCK, List.of(FLUSH_LOCK), token);
+        } catch (DataAccessException e) {
+            // Expires on its own
+            log.warn("Failed to release the product view flush lock", e);
+        }
+    }
+
+    private List<ViewCount> collectViewCounts(Map<Object, Object> counts) {
+        List<ViewCount> viewCounts = new ArrayList<>(counts.size());
+        for (Map.Entry<Object, Object> entry : counts.entrySet()) {
+            String productId = entry.getKey().toString();
+            long views = Long.parseLong(entry.getValue().toString());
+            Long uniqueViews = stringRedisTemplate.opsForHyperLogLog().size(VIEWERS_PREFIX + productId);
+            viewCounts.add(new ViewCount(productId, views, uniqueViews == null ? 0 : uniqueViews));
+        }
+        return viewCounts;
+    }
+
+    // False when the batch marker already exists, in which case nothing is written
+    private boolean writeViewCounts(String batchId, List<ViewCount> viewCounts) {
+        Boolean written = transactionTemplate.execute(status -> {
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            try {
+                jdbcTemplate.update(MARK_FLUSHED, batchId, now);
+            } catch (DuplicateKeyException e) {
+                return false;
+            }
+            jdbcTemplate.batchUpdate(UPDATE_VIEW_COUNT, viewCounts, viewCounts.size(), (ps, viewCount) -> {
+                ps.setLong(1, viewCount.views());
+                ps.setLong(2, viewCount.uniqueViews());
+                ps.setString(3, viewCount.productId());
+            });
+            jdbcTemplate.update(DELETE_FLUSHED_BEFORE,
+                    new Timestamp(now.getTime() - Duration.ofHours(flushedBatchRetentionHours).toMillis()));
+            return true;
+        });
+        return Boolean.TRUE.equals(written);
+    }
+
+    // Increments in place instead of reindexing whole documents; any drift is corrected by the next full reindex
+    private void indexViewCounts(List<ViewCount> viewCounts) {
+        List<UpdateQuery> updates = viewCounts.stream()
+                .map(viewCount -> UpdateQuery.builder(viewCount.productId())
+                        .withScriptType(ScriptType.INLINE)
+                        .withScript(INCREMENT_VIEW_COUNT)
+                        .withLang("painless")
+                        .withParams(Map.of("views", viewCount.views()))
+                        .build())
+                .toList();
+        try {
+            elasticsearchOperations.bulkUpdate(updates, ProductDocument.class);
+        } catch (RuntimeException e) {
+            // The database already holds the counts, so this must not stop the flushing hash from being cleared
+            log.warn("Failed to update view counts in Elasticsearch", e);
+        }
+    }
+
+    private record ViewCount(String productId, long views, long uniqueViews) {
+    }
+}
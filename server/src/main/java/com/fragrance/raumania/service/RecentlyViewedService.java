@@ -0,0 +1,78 @@
+package com.fragrance.raumania.service;
+
+import com.fragrance.raumania.dto.response.product.RelatedProductResponse;
+import com.fragrance.raumania.model.user.User;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Per-user recently viewed products, newest first, kept in a capped Redis list that expires when the user stops
+ * browsing. Nothing is written to MySQL.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RecentlyViewedService {
+
+    private static final String PREFIX = "recently-viewed-";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RelatedProductService relatedProductService;
+
+    @Value("${recently-viewed.max-items:20}")
+    private int maxItems;
+
+    @Value("${recently-viewed.ttl-days:30}")
+    private long ttlDays;
+
+    // Off the request thread and in one round trip, so the product page never waits on it
+    @Async
+    public void recordView(UUID userId, UUID productId) {
+        byte[] key = (PREFIX + userId).getBytes(StandardCharsets.UTF_8);
+        byte[] value = productId.toString().getBytes(StandardCharsets.UTF_8);
+
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                // Removing first moves a product viewed again to the front instead of listing it twice
+                connection.listCommands().lRem(key, 0, value);
+                connection.listCommands().lPush(key, value);
+                connection.listCommands().lTrim(key, 0, maxItems - 1);
+                connection.keyCommands().expire(key, Duration.ofDays(ttlDays).toSeconds());
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Failed to record recently viewed product {} for user {}", productId, userId, e);
+        }
+    }
+
+    // Cards come from the in-memory catalog, so hydrating the list costs no further round trip
+    public List<RelatedProductResponse> getRecentlyViewed(int limit) {
+        if (limit < 1) {
+            return List.of();
+        }
+        User user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        List<String> ids = stringRedisTemplate.opsForList().range(PREFIX + user.getId(), 0, Math.min(limit, maxItems) - 1);
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+
+        List<RelatedProductResponse> result = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            // Deleted or deactivated products have no card and are skipped
+            relatedProductService.getCard(UUID.fromString(id)).ifPresent(result::add);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,335 @@
+package com.fragrance.raumania.service;
+
+import com.fragrance.raumania.dto.response.product.RelatedProductResponse;
+import com.fragrance.raumania.mapper.ProductMapper;
+import com.fragrance.raumania.model.product.Product;
+import com.fragrance.raumania.model.product.ProductDocument;
+import com.fragrance.raumania.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps a precomputed top-K list of similar products for every active product, scored on shared brand,
+ * scent and size and on price proximity. Lookups never hit MySQL. Changed products are queued and applied by one
+ * drain at a time, which loads them before taking the lock, so only the in-memory update is serialised.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RelatedProductService {
+
+    private static final int NEIGHBOUR_COUNT = 8;
+    private static final double BRAND_WEIGHT = 3.0;
+    private static final double SCENT_WEIGHT = 2.0;
+    private static final double SIZE_WEIGHT = 1.0;
+    private static final double PRICE_WEIGHT = 1.0;
+
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+
+    // Replaced whole by a rebuild, so lookups keep serving the previous lists while the next ones are computed
+    private volatile Map<UUID, ProductFeature> features = new ConcurrentHashMap<>();
+    private volatile Map<UUID, List<Neighbour>> neighbours = new ConcurrentHashMap<>();
+
+    // Snapshot used for random sampling, replaced on every change
+    private volatile UUID[] productIds = new UUID[0];
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+    // Products changed after a running rebuild read the catalog; queued again once its result is swapped in
+    private final Set<UUID> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    private final Set<UUID> pendingRefresh = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    /**
+     * Recomputes every list from MySQL in the background. Scoring is quadratic in the catalog size, so only one
+     * rebuild runs at a time; requests arriving meanwhile are folded into a single further run.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuildRequested.set(true);
+        while (rebuildRequested.get() && rebuilding.compareAndSet(false, true)) {
+            try {
+                while (rebuildRequested.getAndSet(false)) {
+                    recompute();
+                }
+            } catch (RuntimeException e) {
+                log.error("Failed to rebuild related products", e);
+            } finally {
+                rebuilding.set(false);
+            }
+        }
+    }
+
+    private void recompute() {
+        long start = System.currentTimeMillis();
+
+        // Changes recorded before this point are part of the catalog read below
+        changedDuringRebuild.clear();
+
+        Map<UUID, ProductFeature> rebuiltFeatures = new ConcurrentHashMap<>();
+        productRepository.findAllProductsWithBrandAndVariants().stream()
+                .filter(product -> !Boolean.FALSE.equals(product.getIsActive()))
+                .map(product -> toFeature(productMapper.toDocument(product)))
+                .forEach(feature -> rebuiltFeatures.put(feature.id(), feature));
+
+        // Computed outside the lock, so product saves are not held up behind a rebuild
+        Map<UUID, List<Neighbour>> rebuiltNeighbours = new ConcurrentHashMap<>();
+        rebuiltFeatures.values().forEach(feature ->
+                rebuiltNeighbours.put(feature.id(), computeNeighbours(feature, rebuiltFeatures)));
+
+        synchronized (this) {
+            features = rebuiltFeatures;
+            neighbours = rebuiltNeighbours;
+            refreshProductIds();
+
+            pendingRefresh.addAll(changedDuringRebuild);
+            changedDuringRebuild.clear();
+        }
+        drainRefreshes();
+
+        log.info("Related products computed for {} products in {} ms", rebuiltFeatures.size(), System.currentTimeMillis() - start);
+    }
+
+    // Reloads the product from MySQL; one that is gone or inactive is dropped from every list
+    public void refreshProduct(UUID productId) {
+        pendingRefresh.add(productId);
+        drainRefreshes();
+    }
+
+    /**
+     * Adds products that were just inserted, such as an import batch, from the entities already in memory. The
+     * batch is applied at once, so every existing list is checked against all of it in one pass instead of one
+     * pass per product and without reading the catalog again.
+     */
+    @Async
+    public void addProducts(List<Product> products) {
+        List<ProductFeature> added = products.stream()
+                .filter(product -> !Boolean.FALSE.equals(product.getIsActive()))
+                .map(product -> toFeature(productMapper.toDocument(product)))
+                .toList();
+        synchronized (this) {
+            if (rebuilding.get()) {
+                added.forEach(feature -> changedDuringRebuild.add(feature.id()));
+            }
+            apply(added, List.of());
+        }
+    }
+
+    // Whoever finds the queue unclaimed drains it, so changes to one product are applied in the order they happened
+    private void drainRefreshes() {
+        while (!pendingRefresh.isEmpty() && refreshing.compareAndSet(false, true)) {
+            try {
+                // Removed one by one, so an id queued again meanwhile stays for the next round
+                List<UUID> productIds = new ArrayList<>();
+                for (Iterator<UUID> iterator = pendingRefresh.iterator(); iterator.hasNext(); ) {
+                    productIds.add(iterator.next());
+                    iterator.remove();
+                }
+
+                List<ProductFeature> updated = new ArrayList<>();
+                List<UUID> removed = new ArrayList<>();
+                for (UUID productId : productIds) {
+                    productRepository.findDetailById(productId)
+                            .filter(product -> !Boolean.FALSE.equals(product.getIsActive()))
+                            .ifPresentOrElse(product -> updated.add(toFeature(productMapper.toDocument(product))),
+                                    () -> removed.add(productId));
+                }
+
+                synchronized (this) {
+                    if (rebuilding.get()) {
+                        changedDuringRebuild.addAll(productIds);
+                    }
+                    apply(updated, removed);
+                }
+            } catch (RuntimeException e) {
+                log.error("Failed to refresh related products", e);
+            } finally {
+                refreshing.set(false);
+            }
+        }
+    }
+
+    private void apply(List<ProductFeature> updated, List<UUID> removed) {
+        Set<UUID> changed = new HashSet<>();
+        for (UUID productId : removed) {
+            if (features.remove(productId) != null) {
+                neighbours.remove(productId);
+                changed.add(productId);
+            }
+        }
+        updated.forEach(feature -> {
+            features.put(feature.id(), feature);
+            changed.add(feature.id());
+        });
+        if (changed.isEmpty()) {
+            return;
+        }
+        updated.forEach(feature -> neighbours.put(feature.id(), computeNeighbours(feature, features)));
+        refreshProductIds();
+
+        // Only the products whose list contains a changed one, or that an updated one would now enter, need recomputing
+        for (ProductFeature other : features.values()) {
+            if (changed.contains(other.id())) {
+                continue;
+            }
+            List<Neighbour> current = neighbours.getOrDefault(other.id(), List.of());
+            boolean listed = current.stream().anyMatch(n -> changed.contains(n.id()));
+            boolean qualifies = !updated.isEmpty() && (current.size() < NEIGHBOUR_COUNT
+                    || updated.stream().anyMatch(feature -> score(other, feature) > current.get(current.size() - 1).score()));
+            if (listed || qualifies) {
+                neighbours.put(other.id(), computeNeighbours(other, features));
+            }
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} products similar to {@code productId}, topped up with random products.
+     * A null product id returns a random sample. The top-up is seeded by the product, so the same catalog always
+     * gives a product the same list and the detail ETag can cover it.
+     */
+    public List<RelatedProductResponse> getRelatedProducts(UUID productId, int limit) {
+        List<RelatedProductResponse> result = new ArrayList<>(limit);
+        Set<UUID> excluded = new HashSet<>();
+
+        if (productId != null) {
+            excluded.add(productId);
+            for (Neighbour neighbour : neighbours.getOrDefault(productId, List.of())) {
+                if (result.size() >= limit) {
+                    break;
+                }
+                ProductFeature feature = features.get(neighbour.id());
+                if (feature != null) {
+                    result.add(feature.card());
+                    excluded.add(feature.id());
+                }
+            }
+        }
+
+        if (result.size() < limit) {
+            Random random = productId == null
+                    ? ThreadLocalRandom.current()
+                    : new Random(productId.getMostSignificantBits() ^ productId.getLeastSignificantBits());
+            result.addAll(getRandomProducts(limit - result.size(), excluded, random));
+        }
+        return result;
+    }
+
+    public Optional<RelatedProductResponse> getCard(UUID productId) {
+        return Optional.ofNullable(features.get(productId)).map(ProductFeature::card);
+    }
+
+    private List<RelatedProductResponse> getRandomProducts(int limit, Set<UUID> excluded, Random random) {
+        UUID[] ids = productIds;
+        int available = ids.length - (int) excluded.stream().filter(features::containsKey).count();
+        int wanted = Math.min(limit, Math.max(available, 0));
+
+        List<RelatedProductResponse> result = new ArrayList<>(wanted);
+        Set<UUID> picked = new HashSet<>(excluded);
+
+        // Bounded number of draws so a concurrently shrinking catalog can never spin forever
+        for (int attempts = 0; result.size() < wanted && attempts < wanted * 10; attempts++) {
+            UUID id = ids[random.nextInt(ids.length)];
+            ProductFeature feature = features.get(id);
+            if (feature != null && picked.add(id)) {
+                result.add(feature.card());
+            }
+        }
+        return result;
+    }
+
+    private List<Neighbour> computeNeighbours(ProductFeature feature, Map<UUID, ProductFeature> features) {
+        return features.values().stream()
+                .filter(other -> !other.id().equals(feature.id()))
+                .map(other -> new Neighbour(other.id(), score(feature, other)))
+                .filter(neighbour -> neighbour.score() > 0)
+                .sorted(Comparator.comparingDouble(Neighbour::score).reversed()
+                        .thenComparing(Neighbour::id))
+                .limit(NEIGHBOUR_COUNT)
+                .toList();
+    }
+
+    private double score(ProductFeature a, ProductFeature b) {
+        double score = 0;
+
+        if (a.brandName() != null && a.brandName().equals(b.brandName())) {
+            score += BRAND_WEIGHT;
+        }
+        score += SCENT_WEIGHT * intersectionSize(a.scents(), b.scents());
+        score += SIZE_WEIGHT * intersectionSize(a.sizes(), b.sizes());
+
+        if (a.minPrice() != null && b.minPrice() != null) {
+            double highest = Math.max(a.minPrice(), b.minPrice());
+            double distance = highest > 0 ? Math.abs(a.minPrice() - b.minPrice()) / highest : 0;
+            score += PRICE_WEIGHT * (1 - distance);
+        }
+        return score;
+    }
+
+    private int intersectionSize(Set<String> a, Set<String> b) {
+        Set<String> smaller = a.size() <= b.size() ? a : b;
+        Set<String> larger = smaller == a ? b : a;
+        int count = 0;
+        for (String value : smaller) {
+            if (larger.contains(value)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void refreshProductIds() {
+        productIds = features.keySet().toArray(new UUID[0]);
+    }
+
+    private ProductFeature toFeature(ProductDocument document) {
+        RelatedProductResponse card = RelatedProductResponse.builder()
+                .id(document.getId())
+                .name(document.getName())
+                .thumbnailImage(document.getThumbnailImage())
+                .minPrice(document.getMinPrice())
+                .build();
+
+        return new ProductFeature(
+                document.getId(),
+                document.getBrandName() != null ? document.getBrandName().toLowerCase() : null,
+                normalize(document.getVariantScents()),
+                normalize(document.getVariantSizes()),
+                document.getMinPrice(),
+                card
+        );
+    }
+
+    private Set<String> normalize(List<String> values) {
+        if (values == null) {
+            return Set.of();
+        }
+        return values.stream()
+                .filter(Objects::nonNull)
+                .map(value -> value.trim().toLowerCase())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    private record ProductFeature(UUID id,
+                                  String brandName,
+                                  Set<String> scents,
+                                  Set<String> sizes,
+                                  Double minPrice,
+                                  RelatedProductResponse card) {
+    }
+
+    private record Neighbour(UUID id, double score) {
+    }
+}
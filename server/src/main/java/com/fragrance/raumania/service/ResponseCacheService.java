@@ -0,0 +1,145 @@
+package com.fragrance.raumania.service;
+
+import com.fragrance.raumania.dto.response.cache.CacheStatisticResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Stores serialized HTTP responses; every entry is registered under tags so writes can purge exactly what they affect
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ResponseCacheService {
+
+    public static final String TAG_CATALOG = "catalog";
+    public static final String TAG_BRAND = "brand";
+    // Tags a handler adds once it knows more than the route does, such as the product a variant belongs to
+    public static final String EXTRA_TAGS_ATTRIBUTE = ResponseCacheService.class.getName() + ".extraTags";
+
+    private static final String RESPONSE_PREFIX = "response-cache-";
+    private static final String TAG_PREFIX = "response-cache-tag-";
+    private static final String BODY_FIELD = "body";
+    private static final String HEADER_FIELD_PREFIX = "header:";
+
+    private final RedisTemplate<String, byte[]> byteRedisTemplate;
+
+    // Tag sets outlive every entry they point to
+    @Value("${response-cache.tag-ttl-minutes:60}")
+    private long tagTtlMinutes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public record CachedResponse(Map<String, String> headers, byte[] body) {}
+
+    public Optional<CachedResponse> get(String key) {
+        try {
+            Map<Object, Object> fields = byteRedisTemplate.opsForHash().entries(RESPONSE_PREFIX + key);
+            if (fields.isEmpty() || !fields.containsKey(BODY_FIELD)) {
+                misses.incrementAndGet();
+                return Optional.empty();
+            }
+
+            Map<String, String> headers = new LinkedHashMap<>();
+            fields.forEach((field, value) -> {
+                String name = (String) field;
+                if (name.startsWith(HEADER_FIELD_PREFIX)) {
+                    headers.put(name.substring(HEADER_FIELD_PREFIX.length()), new String((byte[]) value, StandardCharsets.UTF_8));
+                }
+            });
+            hits.incrementAndGet();
+            return Optional.of(new CachedResponse(headers, (byte[]) fields.get(BODY_FIELD)));
+        } catch (RuntimeException e) {
+            log.warn("Failed to read response cache for {}", key, e);
+            return Optional.empty();
+        }
+    }
+
+    // One round trip wrapped in MULTI, so an entry is never left without its expiry or missing from a tag set
+    public void put(String key, CachedResponse response, Duration ttl, Collection<String> tags) {
+        try {
+            Map<byte[], byte[]> fields = new HashMap<>();
+            fields.put(bytes(BODY_FIELD), response.body());
+            response.headers().forEach((name, value) ->
+                    fields.put(bytes(HEADER_FIELD_PREFIX + name), bytes(value)));
+
+            byte[] redisKey = bytes(RESPONSE_PREFIX + key);
+            long tagTtlSeconds = Duration.ofMinutes(tagTtlMinutes).toSeconds();
+            byteRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                connection.multi();
+                connection.hashCommands().hMSet(redisKey, fields);
+                connection.keyCommands().pExpire(redisKey, ttl.toMillis());
+                for (String tag : tags) {
+                    byte[] tagKey = bytes(TAG_PREFIX + tag);
+                    connection.setCommands().sAdd(tagKey, redisKey);
+                    connection.keyCommands().expire(tagKey, tagTtlSeconds);
+                }
+                connection.exec();
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Failed to write response cache for {}", key, e);
+        }
+    }
+
+    public void purge(String... tags) {
+        for (String tag : tags) {
+            try {
+                Set<byte[]> members = byteRedisTemplate.opsForSet().members(TAG_PREFIX + tag);
+                List<String> keys = new ArrayList<>();
+                if (members != null) {
+                    members.forEach(member -> keys.add(new String(member, StandardCharsets.UTF_8)));
+                }
+                keys.add(TAG_PREFIX + tag);
+
+                Long deleted = byteRedisTemplate.delete(keys);
+                if (deleted != null && deleted > 1) {
+                    evictions.addAndGet(deleted - 1);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to purge response cache tag {}", tag, e);
+            }
+        }
+    }
+
+    public static void addTags(WebRequest request, String... tags) {
+        request.setAttribute(EXTRA_TAGS_ATTRIBUTE, List.of(tags), RequestAttributes.SCOPE_REQUEST);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static String productTag(UUID productId) {
+        return "product:" + productId;
+    }
+
+    public static String brandTag(UUID brandId) {
+        return "brand:" + brandId;
+    }
+
+    public CacheStatisticResponse getStatistic() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long total = hitCount + missCount;
+
+        return CacheStatisticResponse.builder()
+                .name("http-response")
+                .hits(hitCount)
+                .misses(missCount)
+                .evictions(evictions.get())
+                .hitRatio(total == 0 ? 0.0 : (double) hitCount / total)
+                .build();
+    }
+}
@@ -0,0 +1,90 @@
+package com.fragrance.raumania.service;
+
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.elasticsearch.NoSuchIndexException;
+import org.springframework.data.elasticsearch.UncategorizedElasticsearchException;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks whether Elasticsearch is answering searches. A connection failure, timeout or server error marks it down
+ * for a short wait, during which searches skip it instead of each waiting on a dead node. After the wait one search
+ * at a time probes it, and the first answer marks it up again.
+ */
+@Service
+@Slf4j
+public class SearchHealthService {
+
+    @Value("${search.fallback.retry-after-ms:5000}")
+    private long retryAfterMillis;
+
+    // 0 while Elasticsearch is up
+    private volatile long unavailableUntil;
+    private final AtomicBoolean probing = new AtomicBoolean();
+    private final AtomicLong outages = new AtomicLong();
+    private volatile String lastError;
+
+    public boolean shouldTryElasticsearch() {
+        long until = unavailableUntil;
+        if (until == 0) {
+            return true;
+        }
+        if (System.currentTimeMillis() < until) {
+            return false;
+        }
+        return probing.compareAndSet(false, true);
+    }
+
+    // Any answer counts, an error for a bad request included. Only writes on recovery, as every search calls it
+    public void recordAnswer() {
+        if (unavailableUntil != 0) {
+            unavailableUntil = 0;
+            probing.set(false);
+            log.info("Elasticsearch is answering again, searches go back to it");
+        }
+    }
+
+    public void recordOutage(RuntimeException e) {
+        if (unavailableUntil == 0) {
+            outages.incrementAndGet();
+            log.warn("Elasticsearch is unavailable, serving searches from the fallback index", e);
+        }
+        lastError = e.toString();
+        unavailableUntil = System.currentTimeMillis() + retryAfterMillis;
+        probing.set(false);
+    }
+
+    // Only failures of the cluster itself; a rejected query would fail the same way against a healthy one
+    public boolean isOutage(RuntimeException e) {
+        return e instanceof DataAccessResourceFailureException
+                || e instanceof NoSuchIndexException
+                || (e instanceof UncategorizedElasticsearchException elasticsearchException
+                && elasticsearchException.getStatusCode() != null
+                && isServerError(elasticsearchException.getStatusCode()))
+                // Thrown as is by the low-level client
+                || (e instanceof ElasticsearchException elasticsearchException
+                && isServerError(elasticsearchException.status()));
+    }
+
+    // 429 is the cluster shedding load, not the request being wrong
+    private boolean isServerError(int status) {
+        return status >= 500 || status == 429;
+    }
+
+    public boolean isAvailable() {
+        return unavailableUntil == 0;
+    }
+
+    public long getOutages() {
+        return outages.get();
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+}
@@ -0,0 +1,187 @@
+package com.fragrance.raumania.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fragrance.raumania.dto.filter.product.ProductFilter;
+import com.fragrance.raumania.dto.response.PageResponse;
+import com.fragrance.raumania.dto.response.cache.CacheStatisticResponse;
+import com.fragrance.raumania.dto.response.product.ProductFacetResponse;
+import com.fragrance.raumania.dto.response.product.ProductSummary;
+import com.fragrance.raumania.utils.SortUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caches Elasticsearch product search pages under a canonical form of their parameters, so the same storefront
+ * search spelled differently shares one entry. Entries are keyed by an index generation that every catalog write
+ * bumps, which invalidates them all without scanning for keys.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SearchResultCacheService {
+
+    private static final String SEARCH_RESULT_PREFIX = "search-result-";
+    private static final String SEARCH_RESULT_GENERATION = "search-result-generation";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${cache.search-result.ttl-seconds:120}")
+    private long searchResultTtlSeconds;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    // Time spent in Elasticsearch on misses; each hit is credited with the average of it
+    private final AtomicLong missNanos = new AtomicLong();
+    private final AtomicLong savedNanos = new AtomicLong();
+
+    public PageResponse<List<ProductSummary>> getPage(ProductFilter filter,
+                                                      int pageNumber,
+                                                      int pageSize,
+                                                      String sortBy,
+                                                      String sortDirection,
+                                                      Supplier<PageResponse<List<ProductSummary>>> loader) {
+        String key = null;
+        try {
+            key = SEARCH_RESULT_PREFIX + currentGeneration() + "-"
+                    + DigestUtils.md5DigestAsHex(signature(filter, pageNumber, pageSize, sortBy, sortDirection)
+                    .getBytes(StandardCharsets.UTF_8));
+            Object json = redisTemplate.opsForValue().get(key);
+            if (json != null) {
+                CachedPage cached = objectMapper.readValue((String) json, CachedPage.class);
+                long missCount = misses.get();
+                if (missCount > 0) {
+                    savedNanos.addAndGet(missNanos.get() / missCount);
+                }
+                hits.incrementAndGet();
+                return cached.toPageResponse();
+            }
+        } catch (JsonProcessingException | RuntimeException e) {
+            // A broken entry or an unreachable Redis falls through to Elasticsearch
+            log.warn("Failed to read search result cache", e);
+        }
+
+        long start = System.nanoTime();
+        PageResponse<List<ProductSummary>> page = loader.get();
+        missNanos.addAndGet(System.nanoTime() - start);
+        misses.incrementAndGet();
+
+        if (key != null) {
+            try {
+                redisTemplate.opsForValue().set(key,
+                        objectMapper.writeValueAsString(CachedPage.of(page)),
+                        Duration.ofSeconds(searchResultTtlSeconds));
+            } catch (JsonProcessingException | RuntimeException e) {
+                log.warn("Failed to write search result cache", e);
+            }
+        }
+        return page;
+    }
+
+    // Bumping the generation orphans every cached page at once; the old keys expire on their own
+    public void invalidate() {
+        try {
+            redisTemplate.opsForValue().increment(SEARCH_RESULT_GENERATION);
+            evictions.incrementAndGet();
+        } catch (RuntimeException e) {
+            log.warn("Failed to invalidate search result cache", e);
+        }
+    }
+
+    public CacheStatisticResponse getStatistic() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long total = hitCount + missCount;
+
+        return CacheStatisticResponse.builder()
+                .name("search-result")
+                .hits(hitCount)
+                .misses(missCount)
+                .evictions(evictions.get())
+                .hitRatio(total == 0 ? 0.0 : (double) hitCount / total)
+                .savedMillis(savedNanos.get() / 1_000_000)
+                .build();
+    }
+
+    // Seeded with the clock rather than 0 so a Redis flush can never bring back a generation seen before
+    private Object currentGeneration() {
+        Object generation = redisTemplate.opsForValue().get(SEARCH_RESULT_GENERATION);
+        if (generation == null) {
+            redisTemplate.opsForValue().setIfAbsent(SEARCH_RESULT_GENERATION, System.currentTimeMillis());
+            generation = redisTemplate.opsForValue().get(SEARCH_RESULT_GENERATION);
+        }
+        return generation;
+    }
+
+    // Mirrors how the search reads its parameters: the analyzed name ignores case and spacing, blank filters are
+    // no filters, and the popular sort has a fixed direction. Keyword filters are matched exactly and kept as sent
+    private String signature(ProductFilter filter,
+                             int pageNumber,
+                             int pageSize,
+                             String sortBy,
+                             String sortDirection) {
+        boolean popular = SortUtils.POPULAR.equalsIgnoreCase(sortBy);
+        return "name=" + normalizeName(filter.getName())
+                + "|minPrice=" + normalize(filter.getMinPrice())
+                + "|maxPrice=" + normalize(filter.getMaxPrice())
+                + "|isActive=" + normalize(filter.getIsActive())
+                + "|brand=" + normalize(filter.getBrandName())
+                + "|size=" + normalize(filter.getSize())
+                + "|scent=" + normalize(filter.getScent())
+                + "|page=" + Math.max(pageNumber, 1)
+                + "|pageSize=" + pageSize
+                + "|sort=" + (popular ? SortUtils.POPULAR : sortBy + " " + sortDirection.toLowerCase(Locale.ROOT));
+    }
+
+    private String normalizeName(String name) {
+        if (name == null || name.isBlank()) {
+            return "~";
+        }
+        return name.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private String normalize(Object value) {
+        if (value == null) {
+            return "~";
+        }
+        String text = value.toString();
+        return text.isBlank() ? "~" : text;
+    }
+
+    public record CachedPage(int pageNumber,
+                             int pageSize,
+                             List<ProductSummary> content,
+                             Long totalElements,
+                             Integer totalPages,
+                             ProductFacetResponse facets) {
+
+        static CachedPage of(PageResponse<List<ProductSummary>> page) {
+            return new CachedPage(page.getPageNumber(), page.getPageSize(), page.getContent(),
+                    page.getTotalElements(), page.getTotalPages(), page.getFacets());
+        }
+
+        PageResponse<List<ProductSummary>> toPageResponse() {
+            return PageResponse.<List<ProductSummary>>builder()
+                    .pageNumber(pageNumber)
+                    .pageSize(pageSize)
+                    .content(content)
+                    .totalElements(totalElements)
+                    .totalPages(totalPages)
+                    .facets(facets)
+                    .build();
+        }
+    }
+}
@@ -6,10 +6,10 @@ import com.fragrance.raumania.dto.response.PageResponse;
 import com.fragrance.raumania.dto.response.brand.BrandExportResponse;
 import com.fragrance.raumania.dto.response.brand.BrandNameResponse;
 import com.fragrance.raumania.dto.response.brand.BrandResponse;
-import com.fragrance.raumania.event.ProductIndexEvent;
+import com.fragrance.raumania.dto.response.product.SearchProductResponse;
+import com.fragrance.raumania.event.BrandChangedEvent;
 import com.fragrance.raumania.exception.ResourceNotFoundException;
 import com.fragrance.raumania.mapper.BrandMapper;
-import com.fragrance.raumania.mapper.ProductMapper;
 import com.fragrance.raumania.model.product.Brand;
 import com.fragrance.raumania.model.product.Product;
 import com.fragrance.raumania.model.product.ProductVariant;
@@ -40,7 +40,6 @@ public class BrandServiceImpl implements BrandService {
     private final BrandMapper brandMapper;
     private final SortUtils sortUtils;
     private final ProductRepository productRepository;
-    private final ProductMapper productMapper;
 
     @Override
     @Transactional
@@ -56,7 +55,10 @@ public class BrandServiceImpl implements BrandService {
                 .description(request.getDescription())
                 .build();
 
-        return brandMapper.toBrandResponse(brandRepository.save(brand));
+        brand = brandRepository.save(brand);
+        eventPublisher.publishEvent(new BrandChangedEvent(brand.getId()));
+
+        return brandMapper.toBrandResponse(brand);
     }
 
     @Override
@@ -65,14 +67,15 @@ public class BrandServiceImpl implements BrandService {
         Brand brand = brandRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Brand not found"));
 
+        String previousName = brand.getName();
         brand.setName(request.getName());
         brand.setDescription(request.getDescription());
 
         brand = brandRepository.save(brand);
 
-        brand.getProducts().forEach(product ->
-                eventPublisher.publishEvent(new ProductIndexEvent(product.getId(), ProductIndexEvent.Operation.UPDATE))
-        );
+        // Products only reference the brand, so no product row changes; their ids are enough for the listeners
+        List<UUID> productIds = productRepository.findIdsByBrandId(id);
+        eventPublisher.publishEvent(new BrandChangedEvent(brand.getId(), previousName, brand.getName(), productIds));
 
         return brandMapper.toBrandResponse(brand);
     }
@@ -90,13 +93,11 @@ public class BrandServiceImpl implements BrandService {
         Brand brand = brandRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Brand not found"));
 
-        brand.getProducts().forEach(product -> {
-                product.setBrand(null);
-                eventPublisher.publishEvent(new ProductIndexEvent(product.getId(), ProductIndexEvent.Operation.UPDATE));
-            }
-        );
+        List<UUID> productIds = productRepository.findIdsByBrandId(id);
+        productRepository.clearBrand(id);
 
         brandRepository.deleteById(id);
+        eventPublisher.publishEvent(new BrandChangedEvent(id, brand.getName(), null, productIds));
         return id;
     }
 
@@ -106,21 +107,17 @@ public class BrandServiceImpl implements BrandService {
             pageNumber = 1; // Adjust to 1-based index
         }
 
-        Sort sort = sortUtils.buildSort(sortBy, sortDirection);
+        Sort sort = sortUtils.buildProductSort(sortBy, sortDirection);
         Pageable pageable = PageRequest.of(pageNumber - 1, pageSize, sort);
 
-        Page<Product> productsPage = productRepository.findByBrandId(brandId, pageable);
-
-        var searchProductsResponse = productsPage.getContent().stream()
-                .map(productMapper::toSearchProductResponse)
-                .toList();
+        Page<SearchProductResponse> productsPage = productRepository.findCardsByBrandId(brandId, pageable);
 
         return PageResponse.builder()
                 .pageNumber(pageNumber)
                 .pageSize(pageSize)
                 .totalElements(productsPage.getTotalElements())
                 .totalPages(productsPage.getTotalPages())
-                .content(searchProductsResponse)
+                .content(productsPage.getContent())
                 .build();
     }
 
@@ -189,7 +186,7 @@ public class BrandServiceImpl implements BrandService {
         return PageResponse.builder()
                 .content(responseList)
                 .totalPages(1)
-                .totalElements(responseList.size())
+                .totalElements((long) responseList.size())
                 .pageNumber(1)
                 .pageSize(responseList.size())
                 .build();
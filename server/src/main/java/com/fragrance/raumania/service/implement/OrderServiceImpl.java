@@ -11,6 +11,9 @@ import com.fragrance.raumania.dto.request.order.UpdateOrderStatusRequest;
 import com.fragrance.raumania.dto.response.PageResponse;
 import com.fragrance.raumania.dto.response.order.OrderItemResponse;
 import com.fragrance.raumania.dto.response.order.OrderResponse;
+import com.fragrance.raumania.event.OrderPlacedEvent;
+import com.fragrance.raumania.event.ProductDetailChangedEvent;
+import com.fragrance.raumania.exception.InvalidDataException;
 import com.fragrance.raumania.exception.ResourceNotFoundException;
 import com.fragrance.raumania.mapper.OrderItemMapper;
 import com.fragrance.raumania.mapper.OrderMapper;
@@ -23,13 +26,16 @@ import com.fragrance.raumania.model.user.User;
 import com.fragrance.raumania.repository.*;
 import com.fragrance.raumania.service.interfaces.AuthenticationService;
 import com.fragrance.raumania.service.interfaces.OrderService;
+import com.fragrance.raumania.utils.CursorUtils;
 import com.fragrance.raumania.utils.SortUtils;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -41,6 +47,7 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
+    private final ApplicationEventPublisher eventPublisher;
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
     private final CartItemRepository cartItemRepository;
@@ -48,6 +55,7 @@ public class OrderServiceImpl implements OrderService {
     private final OrderMapper orderMapper;
     private final PaymentRepository paymentRepository;
     private final SortUtils sortUtils;
+    private final CursorUtils cursorUtils;
     private final ProductVariantRepository productVariantRepository;
     private final AuthenticationService authenticationService;
 
@@ -106,6 +114,7 @@ public class OrderServiceImpl implements OrderService {
                 .build();
 
         List<OrderItem> orderItems = new ArrayList<>();
+        List<OrderPlacedEvent.Line> saleLines = new ArrayList<>();
 
         for (CartItem cartItem : cartItems) {
             ProductVariant variant = cartItem.getProductVariant();
@@ -137,6 +146,8 @@ public class OrderServiceImpl implements OrderService {
                     .build();
 
             orderItems.add(orderItem);
+            saleLines.add(new OrderPlacedEvent.Line(
+                    variant.getProduct().getId(), variant.getProduct().getBrand().getId(), quantity));
 
             // Delete the cart item
             cartItemRepository.delete(cartItem);
@@ -157,6 +168,14 @@ public class OrderServiceImpl implements OrderService {
 
         paymentRepository.save(payment);
 
+        // Stock shown on the product pages changed
+        orderItems.stream()
+                .map(OrderItem::getProductId)
+                .distinct()
+                .forEach(productId -> eventPublisher.publishEvent(new ProductDetailChangedEvent(productId)));
+
+        eventPublisher.publishEvent(new OrderPlacedEvent(savedOrder.getId(), saleLines));
+
         List<OrderItemResponse> orderItemResponses = orderItems.stream()
                 .map(orderItemMapper::toOrderItemResponse)
                 .toList();
@@ -281,7 +300,11 @@ public class OrderServiceImpl implements OrderService {
 
 
     @Override
-    public PageResponse<?> getAllOrders(int pageNumber, int pageSize, String sortBy, String sortDirection) {
+    public PageResponse<?> getAllOrders(int pageNumber, int pageSize, String sortBy, String sortDirection, String cursor) {
+        if (cursor != null) {
+            return getOrdersByCursor(pageSize, sortBy, sortDirection, cursor);
+        }
+
         if (pageNumber < 1) {
             pageNumber = 1; // Adjust to 1-based index
         }
@@ -303,6 +326,23 @@ public class OrderServiceImpl implements OrderService {
     }
 
 
+    private PageResponse<?> getOrdersByCursor(int pageSize, String sortBy, String sortDirection, String cursor) {
+        if (pageSize < 1) {
+            throw new InvalidDataException("Page size must be positive");
+        }
+        Sort sort = sortUtils.buildKeysetSort(sortBy, sortDirection);
+        Specification<Order> specification = cursorUtils.seek(sort, cursor, Order.class);
+
+        List<Order> rows = orderRepository.findBy(specification, query -> query.sortBy(sort).limit(pageSize + 1).all());
+        CursorUtils.KeysetPage<Order> page = cursorUtils.toKeysetPage(rows, pageSize, sort);
+
+        return PageResponse.builder()
+                .pageSize(pageSize)
+                .content(page.content().stream().map(orderMapper::mapToOrderResponse).toList())
+                .nextCursor(page.nextCursor())
+                .build();
+    }
+
     private <E extends Enum<E>> Map<String, Long> convertListToMap(List<Object[]> list, Class<E> enumClass) {
         Map<String, Long> map = Arrays.stream(enumClass.getEnumConstants())
                 .collect(Collectors.toMap(Enum::name, e -> 0L));
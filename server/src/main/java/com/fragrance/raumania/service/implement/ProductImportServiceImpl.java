@@ -0,0 +1,508 @@
+package com.fragrance.raumania.service.implement;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fragrance.raumania.dto.request.product.ProductImportRow;
+import com.fragrance.raumania.dto.response.product.ProductImportError;
+import com.fragrance.raumania.dto.response.product.ProductImportResponse;
+import com.fragrance.raumania.event.ProductIndexEvent;
+import com.fragrance.raumania.exception.InvalidDataException;
+import com.fragrance.raumania.model.product.Brand;
+import com.fragrance.raumania.model.product.Product;
+import com.fragrance.raumania.model.product.ProductImage;
+import com.fragrance.raumania.model.product.ProductVariant;
+import com.fragrance.raumania.repository.BrandRepository;
+import com.fragrance.raumania.repository.ProductRepository;
+import com.fragrance.raumania.service.FallbackSearchService;
+import com.fragrance.raumania.service.ProductCountCacheService;
+import com.fragrance.raumania.service.RelatedProductService;
+import com.fragrance.raumania.service.ResponseCacheService;
+import com.fragrance.raumania.service.interfaces.ProductImportService;
+import com.fragrance.raumania.utils.CsvReader;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductImportServiceImpl implements ProductImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final String INSERT_PRODUCT = "INSERT INTO product " +
+            "(id, name, description, product_material, inspiration, usage_instructions, " +
+            "min_price, max_price, thumbnail_image, is_active, brand_id, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_VARIANT = "INSERT INTO product_variant " +
+            "(id, name, size, scent, stock, price, product_id, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_IMAGE = "INSERT INTO product_image " +
+            "(id, image, product_id, created_at, updated_at) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_OUTBOX = "INSERT INTO product_index_outbox " +
+            "(product_id, operation, attempts, available_at, parked, created_at, updated_at) " +
+            "VALUES (?, ?, 0, ?, false, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BrandRepository brandRepository;
+    private final ProductRepository productRepository;
+    private final ProductCountCacheService productCountCacheService;
+    private final ResponseCacheService responseCacheService;
+    private final FallbackSearchService fallbackSearchService;
+    private final RelatedProductService relatedProductService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${product-import.batch-size:500}")
+    private int batchSize;
+
+    @Override
+    public ProductImportResponse importProducts(MultipartFile file) throws IOException {
+        long startedAt = System.nanoTime();
+        ImportContext context = new ImportContext(loadBrands());
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+            RecordReader records = isNdjson(file) ? ndjsonReader(reader) : csvReader(reader);
+
+            PendingProduct pending = null;
+            ImportRecord record;
+            while ((record = records.next()) != null) {
+                context.totalRows++;
+                if (record.error() != null) {
+                    context.fail(record.rowNumber(), record.error());
+                    continue;
+                }
+
+                ProductImportRow row = record.row();
+                if (pending != null && pending.accepts(row)) {
+                    addVariant(context, pending, record);
+                    continue;
+                }
+
+                if (pending != null) {
+                    context.enqueue(pending);
+                }
+                pending = startProduct(context, record);
+                if (context.batch.size() >= batchSize) {
+                    flush(context);
+                }
+            }
+            if (pending != null) {
+                context.enqueue(pending);
+            }
+            flush(context);
+        }
+
+        if (context.importedProducts > 0) {
+            productCountCacheService.invalidate();
+            // Search results are purged by the outbox relay once the products are indexed
+            responseCacheService.purge(ResponseCacheService.TAG_CATALOG);
+        }
+
+        long elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000;
+        return ProductImportResponse.builder()
+                .totalRows(context.totalRows)
+                .importedProducts(context.importedProducts)
+                .importedVariants(context.importedVariants)
+                .failedRows(context.failedRows)
+                .elapsedMillis(elapsedMillis)
+                .rowsPerSecond(elapsedMillis == 0 ? context.totalRows : context.totalRows * 1000.0 / elapsedMillis)
+                .errors(context.errors)
+                .build();
+    }
+
+    private Map<String, Brand> loadBrands() {
+        return brandRepository.findAll().stream()
+                .collect(Collectors.toMap(brand -> normalize(brand.getName()), Function.identity(), (a, b) -> a));
+    }
+
+    private PendingProduct startProduct(ImportContext context, ImportRecord record) {
+        ProductImportRow row = record.row();
+        PendingProduct pending = new PendingProduct(row);
+
+        String error = null;
+        Brand brand = row.getBrand() == null ? null : context.brands.get(normalize(row.getBrand()));
+        if (isBlank(row.getName())) {
+            error = "Name is required";
+        } else if (brand == null) {
+            error = "Brand not found: " + row.getBrand();
+        } else if (!context.seenNames.add(normalize(row.getName()))) {
+            error = "Product with the same name already appears earlier in the file";
+        }
+
+        if (error != null) {
+            pending.error = error;
+            context.fail(record.rowNumber(), error);
+            return pending;
+        }
+
+        pending.product = Product.builder()
+                .id(UUID.randomUUID())
+                .name(row.getName().trim())
+                .description(row.getDescription())
+                .productMaterial(row.getProductMaterial())
+                .inspiration(row.getInspiration())
+                .usageInstructions(row.getUsageInstructions())
+                .thumbnailImage(row.getThumbnailImage() == null ? "" : row.getThumbnailImage())
+                .isActive(row.getIsActive() == null || row.getIsActive())
+                .brand(brand)
+                .build();
+        addVariant(context, pending, record);
+        return pending;
+    }
+
+    private void addVariant(ImportContext context, PendingProduct pending, ImportRecord record) {
+        ProductImportRow row = record.row();
+        if (pending.error != null) {
+            context.fail(record.rowNumber(), pending.error);
+            return;
+        }
+
+        String error = validateVariant(row);
+        if (error != null) {
+            context.fail(record.rowNumber(), error);
+            return;
+        }
+
+        Product product = pending.product;
+        product.getProductVariants().add(ProductVariant.builder()
+                .id(UUID.randomUUID())
+                .name(row.getVariantName())
+                .size(row.getSize())
+                .scent(row.getScent())
+                .stock(row.getStock() == null ? 0 : row.getStock())
+                .price(row.getPrice())
+                .product(product)
+                .build());
+        if (row.getImages() != null) {
+            for (String image : row.getImages()) {
+                if (!isBlank(image)) {
+                    product.getProductImages().add(ProductImage.builder()
+                            .id(UUID.randomUUID())
+                            .image(image.trim())
+                            .product(product)
+                            .build());
+                }
+            }
+        }
+        pending.rowNumbers.add(record.rowNumber());
+    }
+
+    private String validateVariant(ProductImportRow row) {
+        if (isBlank(row.getVariantName())) {
+            return "Variant name is required";
+        }
+        if (isBlank(row.getSize())) {
+            return "Size is required";
+        }
+        if (isBlank(row.getScent())) {
+            return "Scent is required";
+        }
+        if (row.getPrice() == null || row.getPrice() <= 0) {
+            return "Price must be greater than 0";
+        }
+        if (row.getStock() != null && row.getStock() < 0) {
+            return "Stock must be a non-negative integer";
+        }
+        return null;
+    }
+
+    private void flush(ImportContext context) {
+        List<PendingProduct> batch = context.batch.stream()
+                .filter(pending -> pending.error == null && !pending.rowNumbers.isEmpty())
+                .collect(Collectors.toCollection(ArrayList::new));
+        context.batch.clear();
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        // One lookup per batch instead of one per product
+        Set<String> existingNames = productRepository.findExistingNames(
+                        batch.stream().map(pending -> pending.product.getName()).toList())
+                .stream()
+                .map(this::normalize)
+                .collect(Collectors.toSet());
+        batch.removeIf(pending -> {
+            if (existingNames.contains(normalize(pending.product.getName()))) {
+                pending.rowNumbers.forEach(row -> context.fail(row, "Product with the same name already exists"));
+                return true;
+            }
+            return false;
+        });
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<Product> products = batch.stream().map(pending -> pending.product).toList();
+        products.forEach(this::applyPriceRange);
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(products));
+        } catch (DataAccessException e) {
+            log.warn("Product import batch of {} products failed", products.size(), e);
+            batch.forEach(pending -> pending.rowNumbers.forEach(row ->
+                    context.fail(row, "Batch insert failed: " + e.getMostSpecificCause().getMessage())));
+            return;
+        }
+
+        context.importedProducts += products.size();
+        context.importedVariants += products.stream().mapToLong(product -> product.getProductVariants().size()).sum();
+        fallbackSearchService.refresh(products.stream().map(Product::getId).toList());
+        // Built from the batch in memory, in the background, rather than by reloading the whole catalog
+        relatedProductService.addProducts(products);
+    }
+
+    private void applyPriceRange(Product product) {
+        DoubleSummaryStatistics prices = product.getProductVariants().stream()
+                .mapToDouble(ProductVariant::getPrice)
+                .summaryStatistics();
+        product.setMinPrice(prices.getMin());
+        product.setMaxPrice(prices.getMax());
+    }
+
+    private void insert(List<Product> products) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+
+        jdbcTemplate.batchUpdate(INSERT_PRODUCT, products, products.size(), (ps, product) -> {
+            ps.setString(1, product.getId().toString());
+            ps.setString(2, product.getName());
+            ps.setString(3, product.getDescription());
+            ps.setString(4, product.getProductMaterial());
+            ps.setString(5, product.getInspiration());
+            ps.setString(6, product.getUsageInstructions());
+            ps.setDouble(7, product.getMinPrice());
+            ps.setDouble(8, product.getMaxPrice());
+            ps.setString(9, product.getThumbnailImage());
+            ps.setBoolean(10, product.getIsActive());
+            ps.setString(11, product.getBrand().getId().toString());
+            ps.setTimestamp(12, now);
+            ps.setTimestamp(13, now);
+        });
+
+        List<ProductVariant> variants = products.stream()
+                .flatMap(product -> product.getProductVariants().stream())
+                .toList();
+        jdbcTemplate.batchUpdate(INSERT_VARIANT, variants, variants.size(), (ps, variant) -> {
+            ps.setString(1, variant.getId().toString());
+            ps.setString(2, variant.getName());
+            ps.setString(3, variant.getSize());
+            ps.setString(4, variant.getScent());
+            ps.setInt(5, variant.getStock());
+            ps.setDouble(6, variant.getPrice());
+            ps.setString(7, variant.getProduct().getId().toString());
+            ps.setTimestamp(8, now);
+            ps.setTimestamp(9, now);
+        });
+
+        List<ProductImage> images = products.stream()
+                .flatMap(product -> product.getProductImages().stream())
+                .toList();
+        if (!images.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_IMAGE, images, images.size(), (ps, image) -> {
+                ps.setString(1, image.getId().toString());
+                ps.setString(2, image.getImage());
+                ps.setString(3, image.getProduct().getId().toString());
+                ps.setTimestamp(4, now);
+                ps.setTimestamp(5, now);
+            });
+        }
+
+        // Indexed by the outbox relay, so the batch reaches Elasticsearch exactly when it commits
+        jdbcTemplate.batchUpdate(INSERT_OUTBOX, products, products.size(), (ps, product) -> {
+            ps.setString(1, product.getId().toString());
+            ps.setString(2, ProductIndexEvent.Operation.CREATE.name());
+            ps.setTimestamp(3, now);
+            ps.setTimestamp(4, now);
+            ps.setTimestamp(5, now);
+        });
+    }
+
+    private boolean isNdjson(MultipartFile file) {
+        String filename = file.getOriginalFilename() == null ? "" : file.getOriginalFilename().toLowerCase(Locale.ROOT);
+        if (filename.endsWith(".ndjson") || filename.endsWith(".jsonl")) {
+            return true;
+        }
+        if (filename.endsWith(".csv")) {
+            return false;
+        }
+
+        String contentType = file.getContentType() == null ? "" : file.getContentType();
+        if (contentType.contains("ndjson") || contentType.contains("jsonl")) {
+            return true;
+        }
+        if (contentType.contains("csv")) {
+            return false;
+        }
+        throw new InvalidDataException("Unsupported import format, expected a .csv or .ndjson file");
+    }
+
+    private RecordReader ndjsonReader(BufferedReader reader) {
+        long[] lineNumber = {0};
+        return () -> {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber[0]++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    return new ImportRecord(lineNumber[0], objectMapper.readValue(line, ProductImportRow.class), null);
+                } catch (JsonProcessingException e) {
+                    return new ImportRecord(lineNumber[0], null, "Malformed JSON: " + e.getOriginalMessage());
+                }
+            }
+            return null;
+        };
+    }
+
+    private RecordReader csvReader(BufferedReader reader) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.readRecord();
+        if (header == null) {
+            return () -> null;
+        }
+
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(normalize(header.get(i)), i);
+        }
+        if (!columns.containsKey("name") || !columns.containsKey("brand")) {
+            throw new InvalidDataException("CSV header must contain at least the name and brand columns");
+        }
+
+        long[] rowNumber = {0};
+        return () -> {
+            List<String> fields;
+            while ((fields = csv.readRecord()) != null) {
+                rowNumber[0]++;
+                if (fields.size() == 1 && fields.get(0).isBlank()) {
+                    continue;
+                }
+                try {
+                    return new ImportRecord(rowNumber[0], toRow(fields, columns), null);
+                } catch (NumberFormatException e) {
+                    return new ImportRecord(rowNumber[0], null, "Invalid number: " + e.getMessage());
+                } catch (IllegalArgumentException e) {
+                    return new ImportRecord(rowNumber[0], null, e.getMessage());
+                }
+            }
+            return null;
+        };
+    }
+
+    private ProductImportRow toRow(List<String> fields, Map<String, Integer> columns) {
+        ProductImportRow row = new ProductImportRow();
+        row.setName(column(fields, columns, "name"));
+        row.setBrand(column(fields, columns, "brand"));
+        row.setDescription(column(fields, columns, "description"));
+        row.setProductMaterial(column(fields, columns, "productmaterial"));
+        row.setInspiration(column(fields, columns, "inspiration"));
+        row.setUsageInstructions(column(fields, columns, "usageinstructions"));
+        row.setThumbnailImage(column(fields, columns, "thumbnailimage"));
+        row.setVariantName(column(fields, columns, "variantname"));
+        row.setSize(column(fields, columns, "size"));
+        row.setScent(column(fields, columns, "scent"));
+
+        String isActive = column(fields, columns, "isactive");
+        row.setIsActive(isActive == null ? null : parseBoolean("isActive", isActive));
+        String stock = column(fields, columns, "stock");
+        row.setStock(stock == null ? null : Integer.parseInt(stock.trim()));
+        String price = column(fields, columns, "price");
+        row.setPrice(price == null ? null : Double.parseDouble(price.trim()));
+
+        // Images are pipe separated in CSV
+        String images = column(fields, columns, "images");
+        if (images != null) {
+            row.setImages(Arrays.asList(images.split("\\|")));
+        }
+        return row;
+    }
+
+    private String column(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= fields.size() || fields.get(index).isEmpty()) {
+            return null;
+        }
+        return fields.get(index);
+    }
+
+    // Boolean.parseBoolean would quietly turn "yes" or "1" into false
+    private Boolean parseBoolean(String name, String value) {
+        return switch (normalize(value)) {
+            case "" -> null;
+            case "true" -> true;
+            case "false" -> false;
+            default -> throw new IllegalArgumentException(name + " must be true or false: " + value.trim());
+        };
+    }
+
+    private String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private interface RecordReader {
+        // Returns null at end of input
+        ImportRecord next() throws IOException;
+    }
+
+    private record ImportRecord(long rowNumber, ProductImportRow row, String error) {}
+
+    private class PendingProduct {
+        private final String key;
+        private final List<Long> rowNumbers = new ArrayList<>();
+        private Product product;
+        private String error;
+
+        private PendingProduct(ProductImportRow row) {
+            this.key = normalize(row.getName());
+        }
+
+        private boolean accepts(ProductImportRow row) {
+            return !key.isEmpty() && key.equals(normalize(row.getName()));
+        }
+    }
+
+    private static class ImportContext {
+        private final Map<String, Brand> brands;
+        private final Set<String> seenNames = new HashSet<>();
+        private final List<PendingProduct> batch = new ArrayList<>();
+        private final List<ProductImportError> errors = new ArrayList<>();
+        private long totalRows;
+        private long importedProducts;
+        private long importedVariants;
+        private long failedRows;
+
+        private ImportContext(Map<String, Brand> brands) {
+            this.brands = brands;
+        }
+
+        private void enqueue(PendingProduct pending) {
+            batch.add(pending);
+        }
+
+        private void fail(long row, String message) {
+            failedRows++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ProductImportError(row, message));
+            }
+        }
+    }
+}
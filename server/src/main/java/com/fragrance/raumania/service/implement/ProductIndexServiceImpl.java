@@ -1,61 +1,274 @@
 package com.fragrance.raumania.service.implement;
 
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.Refresh;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
 import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
 import co.elastic.clients.elasticsearch._types.query_dsl.QueryBuilders;
+import co.elastic.clients.elasticsearch._types.query_dsl.TextQueryType;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import com.fragrance.raumania.dto.filter.product.ProductFilter;
 import com.fragrance.raumania.dto.response.PageResponse;
+import com.fragrance.raumania.exception.InvalidDataException;
 import com.fragrance.raumania.dto.response.product.ProductExportResponse;
+import com.fragrance.raumania.dto.response.product.ProductFacetResponse;
+import com.fragrance.raumania.dto.response.product.ProductSuggestionResponse;
 import com.fragrance.raumania.dto.response.product.ProductSummary;
 import com.fragrance.raumania.mapper.ProductMapper;
-import com.fragrance.raumania.model.product.Product;
 import com.fragrance.raumania.model.product.ProductDocument;
-import com.fragrance.raumania.repository.ProductDocumentRepository;
 import com.fragrance.raumania.repository.ProductRepository;
+import com.fragrance.raumania.service.FallbackSearchService;
+import com.fragrance.raumania.service.ProductReindexService;
+import com.fragrance.raumania.service.SearchHealthService;
+import com.fragrance.raumania.service.SearchResultCacheService;
 import com.fragrance.raumania.service.interfaces.ProductIndexService;
+import com.fragrance.raumania.utils.CursorUtils;
+import com.fragrance.raumania.utils.SortUtils;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregation;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregations;
 import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.client.elc.NativeQueryBuilder;
 import org.springframework.data.elasticsearch.core.*;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.ByQueryResponse;
+import org.springframework.data.elasticsearch.core.query.Order;
+import org.springframework.data.elasticsearch.core.query.Query.PointInTime;
+import org.springframework.data.elasticsearch.core.query.UpdateQuery;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-import java.util.UUID;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class ProductIndexServiceImpl implements ProductIndexService  {
-    private final ProductDocumentRepository productDocumentRepository;
+
+    private static final String NAME_SUGGEST = "name.suggest";
+    private static final String BRAND_KEYWORD = "brandName.keyword";
+    private static final String SCENT_KEYWORD = "variantScents.keyword";
+    private static final List<String> SUBFIELDS = List.of(NAME_SUGGEST, BRAND_KEYWORD, SCENT_KEYWORD);
+
+    private static final String FACET_BRANDS = "brands";
+    private static final String FACET_SIZES = "sizes";
+    private static final String FACET_SCENTS = "scents";
+    private static final String FACET_PRICES = "prices";
+    private static final String FACET_VALUES = "values";
+    private static final int MAX_SUGGESTIONS = 20;
+    private static final int EXPORT_BATCH_SIZE = 1000;
+    private static final String[] SUMMARY_FIELDS = {"id", "name", "minPrice", "maxPrice", "thumbnailImage"};
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
     private final ElasticsearchOperations elasticsearchOperations;
-
+    private final ElasticsearchClient elasticsearchClient;
+    private final CursorUtils cursorUtils;
+    private final SearchResultCacheService searchResultCacheService;
+    private final ProductReindexService productReindexService;
+    private final FallbackSearchService fallbackSearchService;
+    private final SearchHealthService searchHealthService;
+
+    @Value("${search.facets.size:50}")
+    private int facetSize;
+
+    @Value("${search.facets.price-interval:50}")
+    private double priceInterval;
+
+    @Value("${search.pit.keep-alive-seconds:120}")
+    private long pointInTimeKeepAliveSeconds;
+
+    @Value("${search.pit.max-open:100}")
+    private int maxOpenPointsInTime;
+
+    // Snapshots opened for cursor searches on this instance, by id, with the time their keep-alive runs out
+    private final Map<String, Long> openPointsInTime = new ConcurrentHashMap<>();
+
+
+    // Indices created before a subfield existed get it added, then every document is rewritten in place so the
+    // subfield is populated. Adding subfields is a compatible mapping change, no reindex needed
+    @EventListener(ApplicationReadyEvent.class)
+    public void addMissingSubfields() {
+        IndexOperations indexOperations = elasticsearchOperations.indexOps(ProductDocument.class);
+        try {
+            if (!indexOperations.exists()) {
+                return;
+            }
+            Map<String, Object> mapping = indexOperations.getMapping();
+            List<String> missing = SUBFIELDS.stream()
+                    .filter(subfield -> !hasSubfield(mapping, subfield))
+                    .toList();
+            if (missing.isEmpty()) {
+                return;
+            }
+            indexOperations.putMapping();
+            NativeQuery all = NativeQuery.builder().withQuery(q -> q.matchAll(m -> m)).build();
+            elasticsearchOperations.updateByQuery(UpdateQuery.builder(all).build(), indexOperations.getIndexCoordinates());
+            log.info("Added {} to the product index mapping", missing);
+        } catch (RuntimeException e) {
+            log.warn("Failed to add subfields to the product index mapping", e);
+        }
+    }
 
     @Override
     public void indexProduct(UUID productId) {
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
-        productDocumentRepository.save(productMapper.toDocument(product));
+        indexProducts(List.of(productId), List.of());
     }
 
     @Override
     public void unIndexProduct(UUID productId) {
-        productDocumentRepository.deleteById(productId);
+        indexProducts(List.of(), List.of(productId));
+    }
+
+    @Override
+    public Set<UUID> indexProducts(Collection<UUID> productIds, Collection<UUID> deletedIds) {
+        String index = elasticsearchOperations.getIndexCoordinatesFor(ProductDocument.class).getIndexName();
+        List<ProductDocument> documents = productIds.isEmpty()
+                ? List.of()
+                : productRepository.findDetailsByIds(productIds).stream().map(productMapper::toDocument).toList();
+
+        // Products deleted since their event was queued are removed instead
+        Set<UUID> removed = new LinkedHashSet<>(deletedIds);
+        Set<UUID> found = new HashSet<>();
+        documents.forEach(document -> found.add(document.getId()));
+        productIds.stream().filter(id -> !found.contains(id)).forEach(removed::add);
+
+        List<BulkOperation> operations = new ArrayList<>(documents.size() + removed.size());
+        for (ProductDocument document : documents) {
+            // Converted the way the repository would write it, so both paths produce the same source
+            Document source = elasticsearchOperations.getElasticsearchConverter().mapObject(document);
+            operations.add(BulkOperation.of(o -> o.index(i -> i
+                    .index(index)
+                    .id(document.getId().toString())
+                    .document(source))));
+        }
+        for (UUID id : removed) {
+            operations.add(BulkOperation.of(o -> o.delete(d -> d.index(index).id(id.toString()))));
+        }
+        if (operations.isEmpty()) {
+            return Set.of();
+        }
+
+        // A reindex on any replica exposes its new index through a write alias. require_alias keeps a write racing
+        // the swap from creating a concrete index of that name after the alias is gone
+        int liveOperations = operations.size();
+        String building = productReindexService.buildingIndex();
+        if (building != null) {
+            for (ProductDocument document : documents) {
+                Document source = elasticsearchOperations.getElasticsearchConverter().mapObject(document);
+                operations.add(BulkOperation.of(o -> o.index(i -> i
+                        .index(building)
+                        .id(document.getId().toString())
+                        .requireAlias(true)
+                        .document(source))));
+            }
+            for (UUID id : removed) {
+                operations.add(BulkOperation.of(o -> o.delete(d -> d.index(building).id(id.toString()))));
+            }
+        }
+
+        // wait_for returns once the writes are searchable, so caches purged after this cannot refill with old hits
+        BulkResponse response;
+        try {
+            response = elasticsearchClient.bulk(b -> b.operations(operations).refresh(Refresh.WaitFor));
+        } catch (IOException e) {
+            // Translated the way ElasticsearchOperations would, so callers can tell an outage from a bad request
+            throw new DataAccessResourceFailureException("Bulk indexing of " + operations.size() + " products failed", e);
+        }
+
+        // Items come back in request order; a failed copy into the index being built is caught up by its prune pass
+        // or the next write, so only the live ones are retried
+        Set<UUID> failed = new HashSet<>();
+        if (response.errors()) {
+            List<BulkResponseItem> items = response.items();
+            for (int i = 0; i < items.size(); i++) {
+                BulkResponseItem item = items.get(i);
+                if (item.error() == null || item.id() == null) {
+                    continue;
+                }
+                if (i < liveOperations) {
+                    log.warn("Elasticsearch rejected {} of product {}: {}", item.operationType(), item.id(), item.error().reason());
+                    failed.add(UUID.fromString(item.id()));
+                } else {
+                    log.debug("Failed to write product {} to {}: {}", item.id(), building, item.error().reason());
+                }
+            }
+        }
+        return failed;
+    }
+
+    // One update_by_query in place of loading and reindexing every product of the brand
+    @Override
+    public long updateBrandName(String previousName, String name) {
+        NativeQuery byBrand = NativeQuery.builder()
+                .withQuery(q -> q.term(t -> t.field(BRAND_KEYWORD).value(previousName)))
+                .build();
+        UpdateQuery update = UpdateQuery.builder(byBrand)
+                .withScript("ctx._source.brandName = params.name")
+                .withLang("painless")
+                .withParams(Collections.singletonMap("name", name))
+                .withAbortOnVersionConflict(false)
+                // So the catalog purge that follows cannot re-cache the old name
+                .withRefreshPolicy(RefreshPolicy.IMMEDIATE)
+                .build();
+
+        long updated = updateByQuery(update, productIndex());
+        String building = productReindexService.buildingIndex();
+        if (building != null) {
+            updateByQuery(update, IndexCoordinates.of(building));
+        }
+        return updated;
+    }
+
+    private long updateByQuery(UpdateQuery update, IndexCoordinates index) {
+        ByQueryResponse response = elasticsearchOperations.updateByQuery(update, index);
+        if (!response.getFailures().isEmpty() || response.getVersionConflicts() > 0) {
+            throw new IllegalStateException("Brand rename left " + response.getFailures().size() + " failures and "
+                    + response.getVersionConflicts() + " version conflicts in " + index.getIndexName());
+        }
+        return response.getUpdated();
     }
 
     @Override
     public PageResponse<?> searchName(String name, int pageNumber, int pageSize) {
+        return routed(() -> elasticsearchName(name, pageNumber, pageSize), () -> {
+            PageResponse<List<ProductSummary>> page = fallbackSearchService.searchAsYouType(name, pageNumber, pageSize);
+            return PageResponse.builder()
+                    .content(page.getContent().stream().map(ProductSummary::name).toList())
+                    .totalPages(page.getTotalPages())
+                    .totalElements(page.getTotalElements())
+                    .pageNumber(page.getPageNumber())
+                    .pageSize(page.getPageSize())
+                    .build();
+        });
+    }
+
+    private PageResponse<?> elasticsearchName(String name, int pageNumber, int pageSize) {
         if (pageNumber < 1) {
             pageNumber = 1;
         }
 
         NativeQuery query = NativeQuery.builder()
-                .withQuery(QueryBuilders
-                        .wildcard(w ->
-                                w.field("name")
-                                        .value("*" + name + "*")
-                                        .caseInsensitive(true)
-                        )
-                )
+                .withQuery(nameAsYouTypeQuery(name))
                 .withPageable(PageRequest.of(pageNumber - 1, pageSize))
                 .build();
 
@@ -75,6 +288,109 @@ public class ProductIndexServiceImpl implements ProductIndexService  {
                 .build();
     }
 
+    @Override
+    public List<ProductSuggestionResponse> suggest(String prefix, int size) {
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+
+        int limit = Math.min(Math.max(size, 1), MAX_SUGGESTIONS);
+        NativeQuery query = NativeQuery.builder()
+                .withQuery(nameAsYouTypeQuery(prefix))
+                .withMaxResults(limit)
+                .build();
+
+        List<String> terms = WORD.matcher(prefix.toLowerCase(Locale.ROOT)).results()
+                .map(MatchResult::group)
+                .toList();
+
+        return routed(
+                () -> elasticsearchOperations.search(query, ProductDocument.class).getSearchHits().stream()
+                        .map(SearchHit::getContent)
+                        .map(document -> new ProductSuggestionResponse(
+                                document.getId(),
+                                document.getName(),
+                                highlightOffsets(document.getName(), terms)))
+                        .toList(),
+                () -> fallbackSearchService.searchAsYouType(prefix, 1, limit).getContent().stream()
+                        .map(summary -> new ProductSuggestionResponse(
+                                summary.id(),
+                                summary.name(),
+                                highlightOffsets(summary.name(), terms)))
+                        .toList());
+    }
+
+    /**
+     * Sends a search to Elasticsearch while it is healthy and to the in-memory fallback while it is not. A search
+     * that finds it unreachable is answered from the fallback too, so the outage that trips the switch costs no
+     * failed requests. Until the fallback has been built there is nothing to switch to.
+     */
+    private <T> T routed(Supplier<T> elasticsearch, Supplier<T> fallback) {
+        boolean fallbackReady = fallbackSearchService.isReady();
+        if (fallbackReady && !searchHealthService.shouldTryElasticsearch()) {
+            return fallback.get();
+        }
+        try {
+            T result = elasticsearch.get();
+            searchHealthService.recordAnswer();
+            return result;
+        } catch (RuntimeException e) {
+            if (!searchHealthService.isOutage(e)) {
+                searchHealthService.recordAnswer();
+                throw e;
+            }
+            searchHealthService.recordOutage(e);
+            if (!fallbackReady) {
+                throw e;
+            }
+            return fallback.get();
+        }
+    }
+
+    // bool_prefix treats every typed word as a term and the last one as a prefix, matched against the shingle
+    // and edge n-gram subfields that search_as_you_type indexes; no wildcard expansion at query time.
+    // Package-private so SearchNameLatencyBenchmark measures the query the endpoints send
+    static Query nameAsYouTypeQuery(String text) {
+        return Query.of(q -> q.multiMatch(m -> m
+                .query(text)
+                .type(TextQueryType.BoolPrefix)
+                .fields(NAME_SUGGEST, NAME_SUGGEST + "._2gram", NAME_SUGGEST + "._3gram")));
+    }
+
+    // "name.suggest" is present when properties.name.fields.suggest is
+    private boolean hasSubfield(Map<String, Object> mapping, String subfield) {
+        String[] path = subfield.split("\\.");
+        if (mapping.get("properties") instanceof Map<?, ?> properties
+                && properties.get(path[0]) instanceof Map<?, ?> field
+                && field.get("fields") instanceof Map<?, ?> fields) {
+            return fields.containsKey(path[1]);
+        }
+        return false;
+    }
+
+    // Marks the start of every word in the name that begins with one of the typed words
+    private List<ProductSuggestionResponse.HighlightOffset> highlightOffsets(String name, List<String> terms) {
+        List<ProductSuggestionResponse.HighlightOffset> offsets = new ArrayList<>();
+        if (name == null) {
+            return offsets;
+        }
+
+        Matcher word = WORD.matcher(name);
+        while (word.find()) {
+            String lower = word.group().toLowerCase(Locale.ROOT);
+            int longest = 0;
+            for (String term : terms) {
+                if (term.length() > longest && lower.startsWith(term)) {
+                    longest = term.length();
+                }
+            }
+            if (longest > 0) {
+                offsets.add(new ProductSuggestionResponse.HighlightOffset(word.start(), word.start() + longest));
+            }
+        }
+        return offsets;
+    }
+
     @Override
     public PageResponse<?> elasticsearchProducts(String name,
                                                            Double minPrice,
@@ -86,12 +402,10 @@ public class ProductIndexServiceImpl implements ProductIndexService  {
                                                            int pageNumber,
                                                            int pageSize,
                                                            String sortBy,
-                                                           String sortDirection) {
-
-        if (pageNumber < 1) {
-            pageNumber = 1;
-        }
+                                                           String sortDirection,
+                                                           String cursor) {
 
+        // Only the name is scored; the remaining predicates are yes/no and run in filter context, which ES caches
         BoolQuery.Builder b = QueryBuilders.bool();
 
         if (name != null && !name.trim().isEmpty()) {
@@ -102,119 +416,381 @@ public class ProductIndexServiceImpl implements ProductIndexService  {
                                     .fuzziness("2")));
         }
 
-        if (minPrice != null) {
-            b.must(m ->
-                    m.range(r ->
-                            r.number(n ->
-                                    n.field("maxPrice")
-                                            .gte(minPrice))
-                )
-            );
+        if (isActive != null) {
+            b.filter(f ->
+                    f.term(t ->
+                            t.field("isActive").value(isActive)));
         }
 
-        if (maxPrice != null) {
-            b.must(m ->
-                    m.range(r ->
-                            r.number(n ->
-                                    n.field("minPrice")
-                                            .lte(maxPrice))
-                )
-            );
+        // Facet selections go to post_filter so they narrow the hits but not the aggregations; each facet is
+        // aggregated under every selection except its own, so its other values keep their counts
+        Map<String, Query> facetFilters = new LinkedHashMap<>();
+
+        if (minPrice != null || maxPrice != null) {
+            BoolQuery.Builder price = QueryBuilders.bool();
+            if (minPrice != null) {
+                price.filter(f ->
+                        f.range(r ->
+                                r.number(n ->
+                                        n.field("maxPrice")
+                                                .gte(minPrice))));
+            }
+            if (maxPrice != null) {
+                price.filter(f ->
+                        f.range(r ->
+                                r.number(n ->
+                                        n.field("minPrice")
+                                                .lte(maxPrice))));
+            }
+            facetFilters.put(FACET_PRICES, Query.of(q -> q.bool(price.build())));
         }
 
         if (brandName != null && !brandName.trim().isEmpty()) {
-            b.must(m ->
-                    m.match(v ->
-                            v.field("brandName").query(brandName)));
-        }
-
-        if (isActive != null) {
-            b.must(m ->
-                    m.term(t ->
-                            t.field("isActive").value(isActive)));
+            facetFilters.put(FACET_BRANDS, Query.of(q -> q.term(t -> t.field(BRAND_KEYWORD).value(brandName))));
         }
 
         if (size != null && !size.trim().isEmpty()) {
-            b.must(m ->
-                    m.term(t ->
-                            t.field("variantSizes").value(size)));
+            facetFilters.put(FACET_SIZES, Query.of(q -> q.term(t -> t.field("variantSizes").value(size))));
         }
 
         if (scent != null && !scent.trim().isEmpty()) {
-            b.must(m ->
-                    m.match(v ->
-                            v.field("variantScents").query(scent)));
+            facetFilters.put(FACET_SCENTS, Query.of(q -> q.term(t -> t.field(SCENT_KEYWORD).value(scent))));
         }
 
-        Sort sort = Sort.by(Sort.Order.by(sortBy).with(Sort.Direction.fromString(sortDirection)));
+        Sort sort = SortUtils.POPULAR.equalsIgnoreCase(sortBy)
+                // Indices created before the field existed have no mapping for it until the first view flush
+                ? Sort.by(new Order(Sort.Direction.DESC, SortUtils.VIEW_COUNT).withUnmappedType("long"))
+                : Sort.by(Sort.Order.by(sortBy).with(Sort.Direction.fromString(sortDirection)));
+
+        BoolQuery boolQuery = b.build();
+        ProductFilter filter = ProductFilter.builder()
+                .name(name)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .isActive(isActive)
+                .brandName(brandName)
+                .size(size)
+                .scent(scent)
+                .build();
+        if (cursor != null) {
+            return routed(() -> elasticsearchProductsAfter(boolQuery, facetFilters, sort, pageSize, cursor),
+                    () -> fallbackSearchService.searchAfter(filter, pageSize, sortBy, sortDirection, cursor));
+        }
+
+        // Fallback pages bypass the cache, so they never outlive the outage
+        return routed(
+                () -> searchResultCacheService.getPage(filter, pageNumber, pageSize, sortBy, sortDirection,
+                        () -> elasticsearchProductsPage(boolQuery, facetFilters, sort, pageNumber, pageSize)),
+                () -> fallbackSearchService.search(filter, pageNumber, pageSize, sortBy, sortDirection));
+    }
+
+    private PageResponse<List<ProductSummary>> elasticsearchProductsPage(BoolQuery boolQuery,
+                                                                         Map<String, Query> facetFilters,
+                                                                         Sort sort,
+                                                                         int pageNumber,
+                                                                         int pageSize) {
+        if (pageNumber < 1) {
+            pageNumber = 1;
+        }
 
         PageRequest pageRequest = PageRequest.of(pageNumber - 1, pageSize, sort);
 
-        NativeQuery query = NativeQuery.builder()
-                .withQuery(q -> q.bool(b.build()))
-                .withFields("id", "name", "minPrice", "maxPrice", "thumbnailImage")
-                .withPageable(pageRequest)
-                .build();
+        NativeQueryBuilder queryBuilder = NativeQuery.builder()
+                .withQuery(q -> q.bool(boolQuery))
+                .withFields(SUMMARY_FIELDS)
+                .withPageable(pageRequest);
+        withFacets(queryBuilder, facetFilters);
+
+        NativeQuery query = queryBuilder.build();
 
         SearchHits<ProductDocument> searchHits = elasticsearchOperations.search(query, ProductDocument.class);
         SearchPage<ProductDocument> productPage = SearchHitSupport.searchPageFor(searchHits, pageRequest);
 
         List<ProductSummary> summaries = productPage.getContent().stream()
                 .map(SearchHit::getContent)
-                .map(doc -> new ProductSummary(
-                        doc.getId(),
-                        doc.getName(),
-                        doc.getMinPrice(),
-                        doc.getMaxPrice(),
-                        doc.getThumbnailImage()
-                ))
+                .map(this::toSummary)
                 .toList();
 
-        return PageResponse.builder()
+        return PageResponse.<List<ProductSummary>>builder()
                 .content(summaries)
                 .totalPages(productPage.getTotalPages())
                 .totalElements(productPage.getTotalElements())
                 .pageNumber(pageNumber)
                 .pageSize(pageSize)
+                .facets(toFacets(searchHits))
                 .build();
     }
 
-    @Override
-    public PageResponse<?> getAllForDataExport() {
+    /**
+     * Cursor mode: pages through a point-in-time snapshot with search_after, so deep pages cost the same as the
+     * first, are not capped by max_result_window, and documents indexed or removed meanwhile cannot shift rows
+     * between pages. An empty cursor opens the snapshot and the last page closes it and has no cursor. Once
+     * search.pit.max-open snapshots are open, new cursors page the live index instead of opening another one.
+     */
+    private PageResponse<?> elasticsearchProductsAfter(BoolQuery boolQuery,
+                                                       Map<String, Query> facetFilters,
+                                                       Sort sort,
+                                                       int pageSize,
+                                                       String cursor) {
+        if (pageSize < 1) {
+            throw new InvalidDataException("Page size must be positive");
+        }
+        Sort.Order order = sort.iterator().next();
+        String pointInTime;
+        List<Object> searchAfter = null;
+
+        if (cursor.isBlank()) {
+            pointInTime = openCursorPointInTime();
+        } else {
+            Map<String, Object> values = cursorUtils.decode(cursor);
+            Object pit = values.get("pit");
+            if (!order.getProperty().equals(values.get("sortBy"))
+                    || !order.getDirection().name().equals(values.get("direction"))
+                    || (pit != null && !(pit instanceof String))
+                    || !(values.get("after") instanceof List<?> after)) {
+                throw new InvalidDataException("Cursor does not match the requested sort");
+            }
+            pointInTime = (String) pit;
+            searchAfter = new ArrayList<>(after);
+        }
 
-        BoolQuery.Builder b = QueryBuilders.bool();
+        NativeQueryBuilder queryBuilder = NativeQuery.builder()
+                .withQuery(q -> q.bool(boolQuery))
+                .withFields(SUMMARY_FIELDS)
+                .withPageable(PageRequest.of(0, pageSize + 1, withIdTiebreaker(sort)))
+                .withTrackTotalHits(false);
+        if (pointInTime != null) {
+            queryBuilder.withPointInTime(new PointInTime(pointInTime, pointInTimeKeepAlive()));
+        }
+        if (searchAfter == null) {
+            // Facets describe the whole result, so only the first page computes them
+            withFacets(queryBuilder, facetFilters);
+        } else {
+            queryBuilder.withSearchAfter(searchAfter);
+            if (!facetFilters.isEmpty()) {
+                queryBuilder.withFilter(allOf(facetFilters.values()));
+            }
+        }
 
-        int limit = 10000;
-        PageRequest pageRequest = PageRequest.of(0, limit);
+        SearchHits<ProductDocument> searchHits;
+        try {
+            searchHits = elasticsearchOperations.search(queryBuilder.build(), ProductDocument.class);
+        } catch (RuntimeException e) {
+            if (searchAfter == null) {
+                if (pointInTime != null) {
+                    closePointInTime(pointInTime);
+                }
+                throw e;
+            }
+            if (searchHealthService.isOutage(e)) {
+                throw e;
+            }
+            log.debug("Search after cursor failed", e);
+            throw new InvalidDataException("Cursor has expired");
+        }
 
-        NativeQuery query = NativeQuery.builder()
-                .withQuery(q -> q.bool(b.build()))
-                .withFields("id", "name", "minPrice", "brandName", "variantNames")
-                .withPageable(pageRequest)
+        // Elasticsearch may hand back a new id for the same snapshot; the latest one must be used
+        String nextPointInTime = searchHits.getPointInTimeId() != null ? searchHits.getPointInTimeId() : pointInTime;
+        List<SearchHit<ProductDocument>> rows = searchHits.getSearchHits();
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("sortBy", order.getProperty());
+            values.put("direction", order.getDirection().name());
+            if (nextPointInTime != null) {
+                values.put("pit", nextPointInTime);
+                trackPointInTime(pointInTime, nextPointInTime);
+            }
+            values.put("after", rows.get(pageSize - 1).getSortValues());
+            nextCursor = cursorUtils.encode(values);
+        } else if (nextPointInTime != null) {
+            openPointsInTime.remove(pointInTime);
+            closePointInTime(nextPointInTime);
+        }
+
+        return PageResponse.builder()
+                .content(rows.stream().map(SearchHit::getContent).map(this::toSummary).toList())
+                .pageSize(pageSize)
+                .nextCursor(nextCursor)
+                .facets(toFacets(searchHits))
                 .build();
+    }
 
-        SearchHits<ProductDocument> searchHits = elasticsearchOperations.search(query, ProductDocument.class);
-        SearchPage<ProductDocument> productPage = SearchHitSupport.searchPageFor(searchHits, pageRequest);
+    private void withFacets(NativeQueryBuilder queryBuilder, Map<String, Query> facetFilters) {
+        queryBuilder
+                .withAggregation(FACET_BRANDS, facetAggregation(facetFilters, FACET_BRANDS,
+                        Aggregation.of(a -> a.terms(t -> t.field(BRAND_KEYWORD).size(facetSize)))))
+                .withAggregation(FACET_SIZES, facetAggregation(facetFilters, FACET_SIZES,
+                        Aggregation.of(a -> a.terms(t -> t.field("variantSizes").size(facetSize)))))
+                .withAggregation(FACET_SCENTS, facetAggregation(facetFilters, FACET_SCENTS,
+                        Aggregation.of(a -> a.terms(t -> t.field(SCENT_KEYWORD).size(facetSize)))))
+                .withAggregation(FACET_PRICES, facetAggregation(facetFilters, FACET_PRICES,
+                        Aggregation.of(a -> a.histogram(h -> h.field("minPrice").interval(priceInterval).minDocCount(1)))));
+
+        if (!facetFilters.isEmpty()) {
+            queryBuilder.withFilter(allOf(facetFilters.values()));
+        }
+    }
 
-        List<ProductExportResponse> responses = productPage.getContent().stream()
-                .map(SearchHit::getContent)
-                .map(doc ->
-                        ProductExportResponse.builder()
-                                .id(doc.getId())
-                                .name(doc.getName())
-                                .price(doc.getMinPrice())
-                                .brandName(doc.getBrandName())
-                                .variantName(doc.getVariantNames())
-                            .build()
-                        )
+    // Rows with equal sort values keep a fixed order, so search_after neither skips nor repeats them
+    private Sort withIdTiebreaker(Sort sort) {
+        Sort.Order order = sort.iterator().next();
+        if (order.getProperty().equals("id")) {
+            return sort;
+        }
+        return sort.and(Sort.by(Sort.Direction.ASC, "id"));
+    }
+
+    private ProductSummary toSummary(ProductDocument doc) {
+        return new ProductSummary(
+                doc.getId(),
+                doc.getName(),
+                doc.getMinPrice(),
+                doc.getMaxPrice(),
+                doc.getThumbnailImage()
+        );
+    }
+
+    private IndexCoordinates productIndex() {
+        return elasticsearchOperations.getIndexCoordinatesFor(ProductDocument.class);
+    }
+
+    private Duration pointInTimeKeepAlive() {
+        return Duration.ofSeconds(pointInTimeKeepAliveSeconds);
+    }
+
+    // Returns null when this instance already holds max-open snapshots. The count is checked before opening, so
+    // concurrent first pages can overshoot it by a few, well short of the cluster's search.max_open_pit_context
+    private String openCursorPointInTime() {
+        long now = System.currentTimeMillis();
+        openPointsInTime.values().removeIf(expiresAt -> expiresAt < now);
+        if (openPointsInTime.size() >= maxOpenPointsInTime) {
+            return null;
+        }
+        String pointInTime = elasticsearchOperations.openPointInTime(productIndex(), pointInTimeKeepAlive());
+        openPointsInTime.put(pointInTime, now + pointInTimeKeepAlive().toMillis());
+        return pointInTime;
+    }
+
+    // Each page extends the keep-alive and may hand back a new id. Snapshots opened by another instance are not
+    // counted here
+    private void trackPointInTime(String previous, String next) {
+        if (openPointsInTime.remove(previous) != null) {
+            openPointsInTime.put(next, System.currentTimeMillis() + pointInTimeKeepAlive().toMillis());
+        }
+    }
+
+    // The snapshot expires on its own after the keep-alive; closing just frees it sooner
+    private void closePointInTime(String pointInTime) {
+        openPointsInTime.remove(pointInTime);
+        try {
+            elasticsearchOperations.closePointInTime(pointInTime);
+        } catch (RuntimeException e) {
+            log.debug("Failed to close point in time", e);
+        }
+    }
+
+    // Wraps a facet in a filter aggregation applying every other facet's selection
+    private Aggregation facetAggregation(Map<String, Query> facetFilters, String facet, Aggregation values) {
+        List<Query> others = facetFilters.entrySet().stream()
+                .filter(entry -> !entry.getKey().equals(facet))
+                .map(Map.Entry::getValue)
                 .toList();
+        return Aggregation.of(a -> a
+                .filter(others.isEmpty() ? Query.of(q -> q.matchAll(m -> m)) : allOf(others))
+                .aggregations(FACET_VALUES, values));
+    }
+
+    private Query allOf(Collection<Query> queries) {
+        return Query.of(q -> q.bool(bool -> bool.filter(new ArrayList<>(queries))));
+    }
+
+    private ProductFacetResponse toFacets(SearchHits<ProductDocument> searchHits) {
+        if (!(searchHits.getAggregations() instanceof ElasticsearchAggregations aggregations)) {
+            return null;
+        }
+        Map<String, ElasticsearchAggregation> byName = aggregations.aggregationsAsMap();
+
+        return ProductFacetResponse.builder()
+                .brands(termBuckets(byName.get(FACET_BRANDS)))
+                .sizes(termBuckets(byName.get(FACET_SIZES)))
+                .scents(termBuckets(byName.get(FACET_SCENTS)))
+                .prices(priceBuckets(byName.get(FACET_PRICES)))
+                .build();
+    }
+
+    private List<ProductFacetResponse.Bucket> termBuckets(ElasticsearchAggregation facet) {
+        if (facet == null) {
+            return List.of();
+        }
+        Aggregate values = facet.aggregation().getAggregate().filter().aggregations().get(FACET_VALUES);
+        return values.sterms().buckets().array().stream()
+                .map(bucket -> new ProductFacetResponse.Bucket(bucket.key().stringValue(), bucket.docCount()))
+                .toList();
+    }
+
+    private List<ProductFacetResponse.PriceBucket> priceBuckets(ElasticsearchAggregation facet) {
+        if (facet == null) {
+            return List.of();
+        }
+        Aggregate values = facet.aggregation().getAggregate().filter().aggregations().get(FACET_VALUES);
+        return values.histogram().buckets().array().stream()
+                .map(bucket -> new ProductFacetResponse.PriceBucket(
+                        bucket.key(), bucket.key() + priceInterval, bucket.docCount()))
+                .toList();
+    }
+
+    // Walks the whole index in id order over a point-in-time snapshot instead of one capped from/size request
+    @Override
+    public PageResponse<?> getAllForDataExport() {
+        List<ProductExportResponse> responses = new ArrayList<>();
+        String pointInTime = elasticsearchOperations.openPointInTime(productIndex(), pointInTimeKeepAlive());
+        try {
+            List<Object> searchAfter = null;
+            while (true) {
+                NativeQueryBuilder queryBuilder = NativeQuery.builder()
+                        .withQuery(q -> q.matchAll(m -> m))
+                        .withFields("id", "name", "minPrice", "brandName", "variantNames")
+                        .withPageable(PageRequest.of(0, EXPORT_BATCH_SIZE, Sort.by("id")))
+                        .withPointInTime(new PointInTime(pointInTime, pointInTimeKeepAlive()))
+                        .withTrackTotalHits(false);
+                if (searchAfter != null) {
+                    queryBuilder.withSearchAfter(searchAfter);
+                }
+
+                SearchHits<ProductDocument> searchHits =
+                        elasticsearchOperations.search(queryBuilder.build(), ProductDocument.class);
+                if (searchHits.getPointInTimeId() != null) {
+                    pointInTime = searchHits.getPointInTimeId();
+                }
+
+                List<SearchHit<ProductDocument>> batch = searchHits.getSearchHits();
+                for (SearchHit<ProductDocument> hit : batch) {
+                    ProductDocument doc = hit.getContent();
+                    responses.add(ProductExportResponse.builder()
+                            .id(doc.getId())
+                            .name(doc.getName())
+                            .price(doc.getMinPrice())
+                            .brandName(doc.getBrandName())
+                            .variantName(doc.getVariantNames())
+                            .build());
+                }
+                if (batch.size() < EXPORT_BATCH_SIZE) {
+                    break;
+                }
+                searchAfter = batch.get(batch.size() - 1).getSortValues();
+            }
+        } finally {
+            closePointInTime(pointInTime);
+        }
 
         return PageResponse.builder()
                 .content(responses)
-                .totalPages(productPage.getTotalPages())
-                .totalElements(productPage.getTotalElements())
+                .totalPages(1)
+                .totalElements((long) responses.size())
                 .pageNumber(0)
-                .pageSize(limit)
+                .pageSize(responses.size())
                 .build();
     }
 
@@ -9,7 +9,9 @@ import com.fragrance.raumania.dto.response.product.*;
 import com.fragrance.raumania.dto.response.review.ReviewResponse;
 import com.fragrance.raumania.dto.response.review.ReviewStatisticProjection;
 import com.fragrance.raumania.dto.response.review.ReviewStatisticResponse;
+import com.fragrance.raumania.event.ProductDetailChangedEvent;
 import com.fragrance.raumania.event.ProductIndexEvent;
+import com.fragrance.raumania.exception.InvalidDataException;
 import com.fragrance.raumania.exception.ResourceNotFoundException;
 import com.fragrance.raumania.mapper.ProductMapper;
 import com.fragrance.raumania.mapper.ProductVariantMapper;
@@ -20,56 +22,92 @@ import com.fragrance.raumania.model.product.ProductImage;
 import com.fragrance.raumania.model.product.ProductVariant;
 import com.fragrance.raumania.repository.*;
 import com.fragrance.raumania.repository.specification.ProductSpecification;
-import com.fragrance.raumania.service.CloudinaryService;
+import com.fragrance.raumania.service.CoPurchaseService;
+import com.fragrance.raumania.service.FanOutExecutor;
+import com.fragrance.raumania.service.ImageUploadService;
+import com.fragrance.raumania.service.ProductCacheService;
+import com.fragrance.raumania.service.ProductCountCacheService;
+import com.fragrance.raumania.service.RelatedProductService;
 import com.fragrance.raumania.service.interfaces.ProductService;
+import com.fragrance.raumania.utils.CursorUtils;
 import com.fragrance.raumania.utils.SortUtils;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ProductServiceImpl implements ProductService {
 
+    // Names reported in ProductResponse.degradedSections
+    private static final String SECTION_IMAGES = "productImages";
+    private static final String SECTION_REVIEWS = "fiveLatestReviews";
+    private static final String SECTION_REVIEW_STATISTIC = "reviewStatistic";
+
     private final ApplicationEventPublisher eventPublisher;
     private final ProductRepository productRepository;
     private final BrandRepository brandRepository;
     private final ProductImageRepository productImageRepository;
     private final ProductVariantRepository variantRepository;
-    private final CloudinaryService cloudinaryService;
+    private final ImageUploadService imageUploadService;
+    private final TransactionTemplate transactionTemplate;
     private final ProductMapper productMapper;
     private final ProductVariantMapper productVariantMapper;
     private final ReviewRepository reviewRepository;
     private final ReviewMapper reviewMapper;
     private final SortUtils sortUtils;
+    private final CursorUtils cursorUtils;
     private final ProductVariantRepository productVariantRepository;
+    private final ProductCacheService productCacheService;
+    private final ProductCountCacheService productCountCacheService;
+    private final RelatedProductService relatedProductService;
+    private final CoPurchaseService coPurchaseService;
+    private final FanOutExecutor fanOutExecutor;
+
+    @Value("${product.batch.max-ids:50}")
+    private int batchMaxIds;
 
     @Override
-    @Transactional
     public ProductResponse createProduct(CreateProductRequest request,
                                          MultipartFile thumbnailImageFile,
                                          MultipartFile[] imageFiles) throws IOException {
 
+        // Checked before uploading so a rejected request leaves nothing behind on the image host
         Optional<Product> existingProduct = productRepository.findByName(request.getName());
         if (existingProduct.isPresent()) {
             throw new IllegalArgumentException("Product with the same name already exists");
         }
 
-        Brand brand = brandRepository.findByName(request.getBrand())
-                .orElseThrow(() -> new IllegalArgumentException("Brand not found"));
+        if (brandRepository.findByName(request.getBrand()).isEmpty()) {
+            throw new IllegalArgumentException("Brand not found");
+        }
+
+        // Uploads run in parallel before the transaction, which then only persists the URLs
+        ImageUploadService.UploadedImages uploadedImages =
+                imageUploadService.uploadProductImages(thumbnailImageFile, imageFiles);
 
-        String thumbnailImage = "";
-        if (thumbnailImageFile != null) {
-            thumbnailImage =  cloudinaryService.uploadImage(thumbnailImageFile);
+        try {
+            return transactionTemplate.execute(status -> persistNewProduct(request, uploadedImages));
+        } catch (RuntimeException e) {
+            imageUploadService.deleteQuietly(uploadedImages.urls());
+            throw e;
         }
+    }
+
+    private ProductResponse persistNewProduct(CreateProductRequest request, ImageUploadService.UploadedImages uploadedImages) {
+        Brand brand = brandRepository.findByName(request.getBrand())
+                .orElseThrow(() -> new IllegalArgumentException("Brand not found"));
 
         CreateProductVariantRequest variantRequest = request.getProductVariant();
 
@@ -79,7 +117,7 @@ public class ProductServiceImpl implements ProductService {
                 .productMaterial(request.getProductMaterial())
                 .inspiration(request.getInspiration())
                 .usageInstructions(request.getUsageInstructions())
-                .thumbnailImage(thumbnailImage)
+                .thumbnailImage(uploadedImages.thumbnailImage() != null ? uploadedImages.thumbnailImage() : "")
                 .isActive(request.getIsActive())
                 .minPrice(variantRequest.getPrice())
                 .maxPrice(variantRequest.getPrice())
@@ -99,24 +137,15 @@ public class ProductServiceImpl implements ProductService {
 
         productVariantRepository.save(variant);
 
-        if (imageFiles != null && imageFiles.length > 0) {
-            List<ProductImage> productImages = new ArrayList<>();
-
-            for (MultipartFile imageFile : imageFiles) {
-
-                String imageUrl = cloudinaryService.uploadImage(imageFile);
-
-                ProductImage productImage = ProductImage.builder()
+        List<ProductImage> productImages = uploadedImages.images().stream()
+                .map(imageUrl -> ProductImage.builder()
                         .image(imageUrl)
                         .product(product)
-                        .build();
-
-                productImages.add(productImage);
-            }
+                        .build())
+                .toList();
 
-            if (!productImages.isEmpty()) {
-                productImageRepository.saveAll(productImages);
-            }
+        if (!productImages.isEmpty()) {
+            productImageRepository.saveAll(productImages);
         }
 
         productRepository.flush();
@@ -126,22 +155,42 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
-    @Transactional
     public ProductResponse updateProduct(UUID id,
                                          UpdateProductRequest request,
                                          MultipartFile thumbnailImageFile,
                                          MultipartFile[] imageFiles) throws IOException {
 
+        if (!productRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Product not found");
+        }
+
+        if (brandRepository.findByName(request.getBrand()).isEmpty()) {
+            throw new ResourceNotFoundException("Brand not found");
+        }
+
+        ImageUploadService.UploadedImages uploadedImages =
+                imageUploadService.uploadProductImages(thumbnailImageFile, imageFiles);
+
+        try {
+            return transactionTemplate.execute(status -> persistProductUpdate(id, request, uploadedImages));
+        } catch (RuntimeException e) {
+            imageUploadService.deleteQuietly(uploadedImages.urls());
+            throw e;
+        }
+    }
+
+    private ProductResponse persistProductUpdate(UUID id,
+                                                 UpdateProductRequest request,
+                                                 ImageUploadService.UploadedImages uploadedImages) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
 
         Brand brand = brandRepository.findByName(request.getBrand())
                 .orElseThrow(() -> new ResourceNotFoundException("Brand not found"));
 
-        // ✅ Upload new thumbnail image if provided
-        if (thumbnailImageFile != null && !thumbnailImageFile.isEmpty()) {
-            String thumbnailImageUrl = cloudinaryService.uploadImage(thumbnailImageFile);
-            product.setThumbnailImage(thumbnailImageUrl);
+        // ✅ Use the new thumbnail image if one was uploaded
+        if (uploadedImages.thumbnailImage() != null) {
+            product.setThumbnailImage(uploadedImages.thumbnailImage());
         } else {
             product.setThumbnailImage(request.getThumbnailImage());
         }
@@ -154,32 +203,23 @@ public class ProductServiceImpl implements ProductService {
         product.setIsActive(request.getIsActive());
         product.setBrand(brand);
 
-        product = productRepository.save(product);
-
-        // ✅ Upload and associate new images (optional: clear old images first)
-        if (imageFiles != null && imageFiles.length > 0) {
-            List<ProductImage> newImages = new ArrayList<>();
+        Product savedProduct = productRepository.save(product);
 
-            for (MultipartFile imageFile : imageFiles) {
-                if (!imageFile.isEmpty()) {
-                    String imageUrl = cloudinaryService.uploadImage(imageFile);
-                    ProductImage newImage = ProductImage.builder()
-                            .image(imageUrl)
-                            .product(product)
-                            .build();
-                    newImages.add(newImage);
-                }
-            }
-
-            if (!newImages.isEmpty()) {
+        // ✅ Associate new images (optional: clear old images first)
+        List<ProductImage> newImages = uploadedImages.images().stream()
+                .map(imageUrl -> ProductImage.builder()
+                        .image(imageUrl)
+                        .product(savedProduct)
+                        .build())
+                .toList();
 
-                productImageRepository.saveAll(newImages);
-            }
+        if (!newImages.isEmpty()) {
+            productImageRepository.saveAll(newImages);
         }
 
-        eventPublisher.publishEvent(new ProductIndexEvent(product.getId(), ProductIndexEvent.Operation.UPDATE));
+        eventPublisher.publishEvent(new ProductIndexEvent(savedProduct.getId(), ProductIndexEvent.Operation.UPDATE));
 
-        return productMapper.toProductResponse(product);
+        return productMapper.toProductResponse(savedProduct);
     }
 
     @Transactional
@@ -196,6 +236,7 @@ public class ProductServiceImpl implements ProductService {
         }
 
         productImageRepository.delete(image);
+        eventPublisher.publishEvent(new ProductDetailChangedEvent(productId));
     }
 
     @Override
@@ -209,7 +250,46 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     public ProductResponse getProductById(UUID id) {
-        Product product = productRepository.findById(id)
+        ProductResponse productResponse = productCacheService.getProductDetail(id, () -> buildProductDetail(id));
+        // Served from memory, so never cached with the rest, where it would go stale without the ETag noticing
+        productResponse.setRelatedProducts(getRelatedProducts(id, DETAIL_RELATED_PRODUCTS));
+        return productResponse;
+    }
+
+    // Images, reviews and rating statistics only need the id, so they are queried concurrently with the product itself
+    private ProductResponse buildProductDetail(UUID id) {
+        long deadline = fanOutExecutor.deadline();
+        Future<List<ProductImageResponse>> images = fanOutExecutor.submitReadOnly(() -> loadProductImages(id));
+        Future<List<ReviewResponse>> reviews = fanOutExecutor.submitReadOnly(() -> loadLatestReviews(id));
+        Future<ReviewStatisticResponse> statistic = fanOutExecutor.submitReadOnly(() -> loadReviewStatistic(id));
+
+        ProductResponse productResponse;
+        try {
+            // Product, brand and variants in one statement; the only part the page cannot do without
+            productResponse = fanOutExecutor.readOnly(() -> loadProduct(id));
+        } catch (RuntimeException e) {
+            images.cancel(true);
+            reviews.cancel(true);
+            statistic.cancel(true);
+            throw e;
+        }
+
+        List<String> degradedSections = new ArrayList<>();
+        productResponse.setProductImages(fanOutExecutor.await(images, deadline, SECTION_IMAGES)
+                .orElseGet(() -> degraded(degradedSections, SECTION_IMAGES, List.of())));
+        productResponse.setFiveLatestReviews(fanOutExecutor.await(reviews, deadline, SECTION_REVIEWS)
+                .orElseGet(() -> degraded(degradedSections, SECTION_REVIEWS, List.of())));
+        productResponse.setReviewStatistic(fanOutExecutor.await(statistic, deadline, SECTION_REVIEW_STATISTIC)
+                .orElseGet(() -> degraded(degradedSections, SECTION_REVIEW_STATISTIC, new ReviewStatisticResponse())));
+
+        if (!degradedSections.isEmpty()) {
+            productResponse.setDegradedSections(degradedSections);
+        }
+        return productResponse;
+    }
+
+    private ProductResponse loadProduct(UUID id) {
+        Product product = productRepository.findDetailById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
 
         OptionalDouble minPrice = product.getProductVariants().stream()
@@ -229,7 +309,15 @@ public class ProductServiceImpl implements ProductService {
                 .map(productVariantMapper::toProductVariantResponse)
                 .toList();
 
-        List<ProductImageResponse> productImageResponses = product.getProductImages()
+        ProductResponse productResponse = productMapper.toProductResponse(product);
+        productResponse.setProductVariants(productVariantResponses);
+        productResponse.setMinPrice(minPrice.isPresent() ? minPrice.getAsDouble() : null);
+        productResponse.setMaxPrice(maxPrice.isPresent() ? maxPrice.getAsDouble() : null);
+        return productResponse;
+    }
+
+    private List<ProductImageResponse> loadProductImages(UUID productId) {
+        return productImageRepository.findByProductId(productId)
                 .stream()
                 .map(productImage -> {
                     return ProductImageResponse.builder()
@@ -238,54 +326,34 @@ public class ProductServiceImpl implements ProductService {
                             .build();
                 })
                 .toList();
+    }
 
-        List<ReviewResponse> fiveLatestReviews = reviewRepository.find5LatestReviewByProductId(product.getId().toString())
+    private List<ReviewResponse> loadLatestReviews(UUID productId) {
+        return reviewRepository.findLatestReviewsByProductId(productId, PageRequest.of(0, 5))
                 .stream()
                 .map(reviewMapper::toReviewResponse)
                 .toList();
+    }
 
-        ReviewStatisticResponse reviewStatistic = new ReviewStatisticResponse();
-        ReviewStatisticProjection projection = reviewRepository.findReviewStatisticByProductId(product.getId().toString());
-
-        if (projection != null) {
-            reviewStatistic = new ReviewStatisticResponse(
-                    projection.getAverageRating() != null ? projection.getAverageRating() : 0.0,
-                    projection.getTotalReviews() != null ? projection.getTotalReviews().intValue() : 0,
-                    projection.getFiveStarReviews() != null ? projection.getFiveStarReviews().intValue() : 0,
-                    projection.getFourStarReviews() != null ? projection.getFourStarReviews().intValue() : 0,
-                    projection.getThreeStarReviews() != null ? projection.getThreeStarReviews().intValue() : 0,
-                    projection.getTwoStarReviews() != null ? projection.getTwoStarReviews().intValue() : 0,
-                    projection.getOneStarReviews() != null ? projection.getOneStarReviews().intValue() : 0
-            );
+    private ReviewStatisticResponse loadReviewStatistic(UUID productId) {
+        ReviewStatisticProjection projection = reviewRepository.findReviewStatisticByProductId(productId.toString());
+        if (projection == null) {
+            return new ReviewStatisticResponse();
         }
+        return new ReviewStatisticResponse(
+                projection.getAverageRating() != null ? projection.getAverageRating() : 0.0,
+                projection.getTotalReviews() != null ? projection.getTotalReviews().intValue() : 0,
+                projection.getFiveStarReviews() != null ? projection.getFiveStarReviews().intValue() : 0,
+                projection.getFourStarReviews() != null ? projection.getFourStarReviews().intValue() : 0,
+                projection.getThreeStarReviews() != null ? projection.getThreeStarReviews().intValue() : 0,
+                projection.getTwoStarReviews() != null ? projection.getTwoStarReviews().intValue() : 0,
+                projection.getOneStarReviews() != null ? projection.getOneStarReviews().intValue() : 0
+        );
+    }
 
-        List<Product> relatedProducts = productRepository.findRandomProducts(4);
-
-        List<RelatedProductResponse> relatedProductResponses = relatedProducts.stream()
-                .map(relatedProduct -> RelatedProductResponse.builder()
-                        .id(relatedProduct.getId())
-                        .name(relatedProduct.getName())
-                        .thumbnailImage(relatedProduct.getThumbnailImage())
-                        .minPrice(
-                                relatedProduct.getProductVariants()
-                                        .stream()
-                                        .map(ProductVariant::getPrice)
-                                        .min(Double::compareTo)
-                                        .orElse(null)
-                        )
-                        .build())
-                .collect(Collectors.toList());
-
-        ProductResponse productResponse = productMapper.toProductResponse(product);
-        productResponse.setRelatedProducts(relatedProductResponses);
-        productResponse.setProductVariants(productVariantResponses);
-        productResponse.setProductImages(productImageResponses);
-        productResponse.setFiveLatestReviews(fiveLatestReviews);
-        productResponse.setReviewStatistic(reviewStatistic);
-
-        productResponse.setMinPrice(minPrice.isPresent() ? minPrice.getAsDouble() : null);
-        productResponse.setMaxPrice(maxPrice.isPresent() ? maxPrice.getAsDouble() : null);
-        return productResponse;
+    private <T> T degraded(List<String> degradedSections, String section, T fallback) {
+        degradedSections.add(section);
+        return fallback;
     }
 
     @Override
@@ -297,48 +365,67 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
-    @Transactional
-    public List<RelatedProductResponse> getRelatedProducts(int limit) {
-        List<Product> relatedProducts = productRepository.findRandomProducts(limit);
-
-        return relatedProducts.stream()
-                .map(product -> {
-                    Double minPrice = product.getProductVariants()
-                            .stream()
-                            .map(ProductVariant::getPrice)
-                            .min(Double::compareTo)
-                            .orElse(null);
-
-                    return RelatedProductResponse.builder()
-                            .id(product.getId())
-                            .name(product.getName())
-                            .thumbnailImage(product.getThumbnailImage())
-                            .minPrice(minPrice)
-                            .build();
-                })
-                .collect(Collectors.toList());
+    public ProductBatchResponse getProductsByIds(List<UUID> ids) {
+        Set<UUID> uniqueIds = new LinkedHashSet<>(ids);
+        if (uniqueIds.size() > batchMaxIds) {
+            throw new InvalidDataException("At most " + batchMaxIds + " product ids can be requested at once");
+        }
+        if (uniqueIds.isEmpty()) {
+            return ProductBatchResponse.builder()
+                    .products(List.of())
+                    .missingIds(List.of())
+                    .build();
+        }
+
+        Map<UUID, SearchProductResponse> cards = new HashMap<>();
+        productRepository.findCardsByIds(uniqueIds).forEach(card -> cards.put(card.getId(), card));
+
+        List<SearchProductResponse> products = new ArrayList<>();
+        List<UUID> missingIds = new ArrayList<>();
+        for (UUID id : uniqueIds) {
+            SearchProductResponse card = cards.get(id);
+            if (card != null) {
+                products.add(card);
+            } else {
+                missingIds.add(id);
+            }
+        }
+
+        return ProductBatchResponse.builder()
+                .products(products)
+                .missingIds(missingIds)
+                .build();
     }
 
+    // Products bought together come first; attribute similarity fills the rest until enough orders exist
     @Override
-    public PageResponse<?> getAllProducts(int pageNumber, int pageSize, String sortBy, String sortDirection) {
-        if (pageNumber < 1) {
-            pageNumber = 1; // Adjust to 1-based index
+    public List<RelatedProductResponse> getRelatedProducts(UUID productId, int limit) {
+        if (productId == null) {
+            return relatedProductService.getRelatedProducts(null, limit);
         }
 
-        Sort sort = sortUtils.buildSort(sortBy, sortDirection);
-        Pageable pageable = PageRequest.of(pageNumber - 1 , pageSize, sort);
-
-        Page<Product> productsPage = productRepository.findAll(pageable);
+        List<RelatedProductResponse> result = new ArrayList<>(coPurchaseService.getAlsoBought(productId, limit));
+        if (result.size() < limit) {
+            Set<UUID> included = result.stream().map(RelatedProductResponse::getId).collect(Collectors.toSet());
+            for (RelatedProductResponse similar : relatedProductService.getRelatedProducts(productId, limit + result.size())) {
+                if (result.size() >= limit) {
+                    break;
+                }
+                if (included.add(similar.getId())) {
+                    result.add(similar);
+                }
+            }
+        }
+        return result;
+    }
 
-        var searchProductsResponse = productsPage.getContent().stream().map(productMapper::toSearchProductResponse).toList();
+    @Override
+    public PageResponse<?> getAllProducts(int pageNumber, int pageSize, String sortBy, String sortDirection, String cursor, boolean includeTotal) {
+        if (cursor != null) {
+            return getProductsByCursor(null, pageSize, sortBy, sortDirection, cursor);
+        }
 
-        return PageResponse.builder()
-                .pageNumber(pageNumber)
-                .pageSize(pageSize)
-                .totalElements(productsPage.getTotalElements())
-                .totalPages(productsPage.getTotalPages())
-                .content(searchProductsResponse)
-                .build();
+        return getProductsBySlice(null, null, pageNumber, pageSize, sortBy, sortDirection, includeTotal);
     }
 
     @Override
@@ -346,27 +433,72 @@ public class ProductServiceImpl implements ProductService {
                                                    int pageSize,
                                                    String sortBy,
                                                    String sortDirection,
-                                                   ProductFilter filter) {
+                                                   ProductFilter filter,
+                                                   String cursor,
+                                                   boolean includeTotal) {
+        if (cursor != null) {
+            return getProductsByCursor(ProductSpecification.filterBy(filter), pageSize, sortBy, sortDirection, cursor);
+        }
+
+        return getProductsBySlice(ProductSpecification.filterBy(filter), filter, pageNumber, pageSize, sortBy, sortDirection, includeTotal);
+    }
+
+    // Offset pagination without the COUNT query; the total is only computed on request and cached per filter
+    private PageResponse<?> getProductsBySlice(Specification<Product> specification,
+                                               ProductFilter filter,
+                                               int pageNumber,
+                                               int pageSize,
+                                               String sortBy,
+                                               String sortDirection,
+                                               boolean includeTotal) {
         if (pageNumber < 1) {
-            pageNumber = 1;
+            pageNumber = 1; // Adjust to 1-based index
         }
 
-        Sort sort = sortUtils.buildSort(sortBy, sortDirection);
+        Sort sort = sortUtils.buildProductSort(sortBy, sortDirection);
         Pageable pageable = PageRequest.of(pageNumber - 1, pageSize, sort);
-        Specification<Product> specification = ProductSpecification.filterBy(filter);
-
-        Page<Product> productsPage = productRepository.findAll(specification, pageable);
 
-        var searchProductsResponse = productsPage.getContent().stream().map(productMapper::toSearchProductResponse).toList();
+        Slice<SearchProductResponse> productsSlice = productRepository.findCardSlice(specification, pageable);
 
-        return PageResponse.builder()
+        PageResponse.PageResponseBuilder<Object> builder = PageResponse.builder()
                 .pageNumber(pageNumber)
                 .pageSize(pageSize)
-                .totalElements(productsPage.getTotalElements())
-                .totalPages(productsPage.getTotalPages())
-                .content(searchProductsResponse)
-                .build();
+                .hasNext(productsSlice.hasNext())
+                .content(productsSlice.getContent());
+
+        if (includeTotal) {
+            long totalElements = productCountCacheService.countProducts(filter, () -> specification == null
+                    ? productRepository.count()
+                    : productRepository.count(specification));
+            builder.totalElements(totalElements)
+                    .totalPages((int) ((totalElements + pageSize - 1) / pageSize));
+        }
+
+        return builder.build();
     }
 
+    // Seek pagination: fetches one extra row to know whether a next page exists, no OFFSET and no COUNT
+    private PageResponse<?> getProductsByCursor(Specification<Product> specification,
+                                                int pageSize,
+                                                String sortBy,
+                                                String sortDirection,
+                                                String cursor) {
+        if (pageSize < 1) {
+            throw new InvalidDataException("Page size must be positive");
+        }
+        Sort sort = sortUtils.buildProductKeysetSort(sortBy, sortDirection);
+        Specification<Product> seek = cursorUtils.seek(sort, cursor, Product.class);
+        if (specification != null) {
+            seek = specification.and(seek);
+        }
+
+        List<Product> rows = productRepository.findBy(seek, query -> query.sortBy(sort).limit(pageSize + 1).all());
+        CursorUtils.KeysetPage<Product> page = cursorUtils.toKeysetPage(rows, pageSize, sort);
 
+        return PageResponse.builder()
+                .pageSize(pageSize)
+                .content(page.content().stream().map(productMapper::toSearchProductResponse).toList())
+                .nextCursor(page.nextCursor())
+                .build();
+    }
 }
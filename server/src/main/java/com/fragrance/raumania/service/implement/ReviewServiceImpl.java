@@ -5,6 +5,8 @@ import com.fragrance.raumania.dto.request.review.CreateReviewRequest;
 import com.fragrance.raumania.dto.request.review.UpdateReviewRequest;
 import com.fragrance.raumania.dto.response.PageResponse;
 import com.fragrance.raumania.dto.response.review.ReviewResponse;
+import com.fragrance.raumania.event.ProductDetailChangedEvent;
+import com.fragrance.raumania.exception.InvalidDataException;
 import com.fragrance.raumania.exception.ResourceNotFoundException;
 import com.fragrance.raumania.mapper.ReviewMapper;
 import com.fragrance.raumania.model.product.Product;
@@ -17,10 +19,12 @@ import com.fragrance.raumania.repository.ReviewRepository;
 import com.fragrance.raumania.repository.UserRepository;
 import com.fragrance.raumania.repository.specification.ReviewSpecification;
 import com.fragrance.raumania.service.interfaces.ReviewService;
+import com.fragrance.raumania.utils.CursorUtils;
 import com.fragrance.raumania.utils.SortUtils;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -36,12 +40,14 @@ import java.util.UUID;
 @Service
 @RequiredArgsConstructor
 public class ReviewServiceImpl implements ReviewService {
+    private final ApplicationEventPublisher eventPublisher;
     private final ReviewRepository reviewRepository;
     private final ProductRepository productRepository;
     private final ProductVariantRepository productVariantRepository;
     private final UserRepository userRepository;
     private final ReviewMapper reviewMapper;
     private final SortUtils sortUtils;
+    private final CursorUtils cursorUtils;
 
     @Override
     @Transactional
@@ -64,6 +70,7 @@ public class ReviewServiceImpl implements ReviewService {
                 .build();
 
         Review savedReview = reviewRepository.save(review);
+        eventPublisher.publishEvent(new ProductDetailChangedEvent(product.getId()));
 
         return reviewMapper.toReviewResponse(savedReview);
     }
@@ -87,6 +94,7 @@ public class ReviewServiceImpl implements ReviewService {
         review.setRating(request.getRating());
         review.setContent(request.getContent());
         Review updatedReview = reviewRepository.save(review);
+        eventPublisher.publishEvent(new ProductDetailChangedEvent(review.getProduct().getId()));
 
         return reviewMapper.toReviewResponse(updatedReview);
     }
@@ -106,6 +114,7 @@ public class ReviewServiceImpl implements ReviewService {
         }
 
         reviewRepository.delete(review);
+        eventPublisher.publishEvent(new ProductDetailChangedEvent(review.getProduct().getId()));
         return reviewId;
     }
 
@@ -131,6 +140,7 @@ public class ReviewServiceImpl implements ReviewService {
                 .build();
 
         Review savedReview = reviewRepository.save(review);
+        eventPublisher.publishEvent(new ProductDetailChangedEvent(product.getId()));
 
         return reviewMapper.toReviewResponse(savedReview);
     }
@@ -143,6 +153,7 @@ public class ReviewServiceImpl implements ReviewService {
 
         review.setRating(request.getRating());
         review.setContent(request.getContent());
+        eventPublisher.publishEvent(new ProductDetailChangedEvent(review.getProduct().getId()));
 
         return reviewMapper.toReviewResponse(review);
     }
@@ -159,6 +170,7 @@ public class ReviewServiceImpl implements ReviewService {
         Review review = reviewRepository.findById(reviewId)
                 .orElseThrow(() -> new EntityNotFoundException("Review not found"));
         reviewRepository.delete(review);
+        eventPublisher.publishEvent(new ProductDetailChangedEvent(review.getProduct().getId()));
         return reviewId;
 
     }
@@ -177,7 +189,11 @@ public class ReviewServiceImpl implements ReviewService {
 //    }
 
     @Override
-    public PageResponse<?> getAllReviewsByProductIdAndProductVariantId(int pageNumber, int pageSize, String sortBy, String sortDirection, ReviewFilter filter) {
+    public PageResponse<?> getAllReviewsByProductIdAndProductVariantId(int pageNumber, int pageSize, String sortBy, String sortDirection, ReviewFilter filter, String cursor) {
+        if (cursor != null) {
+            return getReviewsByCursor(filter, pageSize, sortBy, sortDirection, cursor);
+        }
+
         if (pageNumber < 1) {
             pageNumber = 1;
         }
@@ -200,7 +216,11 @@ public class ReviewServiceImpl implements ReviewService {
     }
 
     @Override
-    public PageResponse<?> filterReviewsByProductIdAndProductVariantId(int pageNumber, int pageSize, String sortBy, String sortDirection, ReviewFilter filter) {
+    public PageResponse<?> filterReviewsByProductIdAndProductVariantId(int pageNumber, int pageSize, String sortBy, String sortDirection, ReviewFilter filter, String cursor) {
+        if (cursor != null) {
+            return getReviewsByCursor(filter, pageSize, sortBy, sortDirection, cursor);
+        }
+
         if (pageNumber < 1) {
             pageNumber = 1;
         }
@@ -221,4 +241,22 @@ public class ReviewServiceImpl implements ReviewService {
                 .content(reviewResponses)
                 .build();
     }
+
+    private PageResponse<?> getReviewsByCursor(ReviewFilter filter, int pageSize, String sortBy, String sortDirection, String cursor) {
+        if (pageSize < 1) {
+            throw new InvalidDataException("Page size must be positive");
+        }
+        Sort sort = sortUtils.buildKeysetSort(sortBy, sortDirection);
+        Specification<Review> specification = ReviewSpecification.filterBy(filter)
+                .and(cursorUtils.seek(sort, cursor, Review.class));
+
+        List<Review> rows = reviewRepository.findBy(specification, query -> query.sortBy(sort).limit(pageSize + 1).all());
+        CursorUtils.KeysetPage<Review> page = cursorUtils.toKeysetPage(rows, pageSize, sort);
+
+        return PageResponse.builder()
+                .pageSize(pageSize)
+                .content(page.content().stream().map(reviewMapper::toReviewResponse).toList())
+                .nextCursor(page.nextCursor())
+                .build();
+    }
 }
@@ -15,7 +15,7 @@ import com.fragrance.raumania.model.user.User;
 import com.fragrance.raumania.repository.CartRepository;
 import com.fragrance.raumania.repository.RoleRepository;
 import com.fragrance.raumania.repository.UserRepository;
-import com.fragrance.raumania.service.CloudinaryService;
+import com.fragrance.raumania.service.interfaces.ImageStorageService;
 import com.fragrance.raumania.service.interfaces.UserService;
 import com.fragrance.raumania.utils.SortUtils;
 
@@ -42,7 +42,7 @@ public class UserServiceImpl implements UserService {
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
     private final RoleRepository roleRepository;
-    private final CloudinaryService cloudinaryService;
+    private final ImageStorageService imageStorageService;
     private final CartRepository cartRepository;
     private final SortUtils sortUtils;
 
@@ -68,7 +68,7 @@ public class UserServiceImpl implements UserService {
 
         // ✅ Upload new profile image if provided
         if (imageFile != null && !imageFile.isEmpty()) {
-            String imageUrl = cloudinaryService.uploadImage(imageFile);
+            String imageUrl = imageStorageService.uploadImage(imageFile);
             me.setImageUrl(imageUrl);
         } else {
             me.setImageUrl(request.getImageUrl());
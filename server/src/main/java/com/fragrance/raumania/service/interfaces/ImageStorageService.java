@@ -0,0 +1,11 @@
+package com.fragrance.raumania.service.interfaces;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+
+public interface ImageStorageService {
+    String uploadImage(MultipartFile file) throws IOException;
+
+    void deleteImage(String url) throws IOException;
+}
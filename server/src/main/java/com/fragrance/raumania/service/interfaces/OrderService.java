@@ -21,7 +21,7 @@ public interface OrderService {
     UUID deleteOrder(UUID orderId);
     OrderResponse updateOrderStatus(UUID orderId, UpdateOrderStatusRequest request);
 
-    PageResponse<?> getAllOrders(int pageNumber, int pageSize, String sortBy, String sortDirection);
+    PageResponse<?> getAllOrders(int pageNumber, int pageSize, String sortBy, String sortDirection, String cursor);
 
 
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.fragrance.raumania.service.interfaces;
+
+import com.fragrance.raumania.dto.response.product.ProductImportResponse;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+
+public interface ProductImportService {
+    ProductImportResponse importProducts(MultipartFile file) throws IOException;
+}
@@ -1,15 +1,28 @@
 package com.fragrance.raumania.service.interfaces;
 
 import com.fragrance.raumania.dto.response.PageResponse;
+import com.fragrance.raumania.dto.response.product.ProductSuggestionResponse;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 public interface ProductIndexService {
     void indexProduct(UUID productId);
     void unIndexProduct(UUID productId);
 
+    // Indexes or removes many products in one bulk request and returns the ids Elasticsearch rejected.
+    // Runs in the caller's transaction, if any, so a failure does not roll it back
+    Set<UUID> indexProducts(Collection<UUID> productIds, Collection<UUID> deletedIds);
+
+    // Rewrites the brand name of every document carrying the previous one; a null name clears it
+    long updateBrandName(String previousName, String name);
+
     PageResponse<?> searchName(String name, int pageNumber, int pageSize);
 
+    List<ProductSuggestionResponse> suggest(String prefix, int size);
+
     PageResponse<?> elasticsearchProducts(String name,
                                          Double minPrice,
                                          Double maxPrice,
@@ -20,7 +33,8 @@ public interface ProductIndexService {
                                          int pageNumber,
                                          int pageSize,
                                          String sortBy,
-                                         String sortDirection);
+                                         String sortDirection,
+                                         String cursor);
 
     PageResponse<?> getAllForDataExport();
 }
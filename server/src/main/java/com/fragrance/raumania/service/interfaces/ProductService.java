@@ -4,6 +4,7 @@ import com.fragrance.raumania.dto.filter.product.ProductFilter;
 import com.fragrance.raumania.dto.request.product.CreateProductRequest;
 import com.fragrance.raumania.dto.request.product.UpdateProductRequest;
 import com.fragrance.raumania.dto.response.PageResponse;
+import com.fragrance.raumania.dto.response.product.ProductBatchResponse;
 import com.fragrance.raumania.dto.response.product.ProductResponse;
 import com.fragrance.raumania.dto.response.product.RelatedProductResponse;
 import org.springframework.web.multipart.MultipartFile;
@@ -14,14 +15,18 @@ import java.util.Map;
 import java.util.UUID;
 
 public interface ProductService {
+    // Related cards embedded in the product detail
+    int DETAIL_RELATED_PRODUCTS = 4;
+
     ProductResponse createProduct(CreateProductRequest request, MultipartFile thumbnailImageFiles, MultipartFile[] imageFiles) throws IOException;
     ProductResponse updateProduct(UUID id, UpdateProductRequest request, MultipartFile thumbnailImageFiles, MultipartFile[] imageFiles) throws IOException;
     ProductResponse getProductById(UUID id);
     UUID deleteProduct(UUID id);
-    List<RelatedProductResponse> getRelatedProducts(int limit);
+    List<RelatedProductResponse> getRelatedProducts(UUID productId, int limit);
 
-    PageResponse<?> getAllProducts(int pageNumber, int pageSize, String sortBy, String sortDirection);
-    PageResponse<?> searchAndFilterProducts(int pageNumber, int pageSize, String sortBy, String sortDirection, ProductFilter filter);
+    PageResponse<?> getAllProducts(int pageNumber, int pageSize, String sortBy, String sortDirection, String cursor, boolean includeTotal);
+    PageResponse<?> searchAndFilterProducts(int pageNumber, int pageSize, String sortBy, String sortDirection, ProductFilter filter, String cursor, boolean includeTotal);
+    ProductBatchResponse getProductsByIds(List<UUID> ids);
     void deleteProductImage(UUID productId, UUID imageId);
     Map<String, List<String>> getAllFilterOptions();
 }
@@ -18,6 +18,6 @@ public interface ReviewService {
     UUID deleteReview(UUID reviewId);
 //    Double getAverageRating(UUID productId);
 
-    PageResponse<?> getAllReviewsByProductIdAndProductVariantId(int pageNumber, int pageSize, String sortBy, String sortDirection, ReviewFilter filter);
-    PageResponse<?> filterReviewsByProductIdAndProductVariantId(int pageNumber, int pageSize, String sortBy, String sortDirection, ReviewFilter filter);
+    PageResponse<?> getAllReviewsByProductIdAndProductVariantId(int pageNumber, int pageSize, String sortBy, String sortDirection, ReviewFilter filter, String cursor);
+    PageResponse<?> filterReviewsByProductIdAndProductVariantId(int pageNumber, int pageSize, String sortBy, String sortDirection, ReviewFilter filter, String cursor);
 }
@@ -0,0 +1,273 @@
+package com.fragrance.raumania.utils;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Sparse, symmetric item-item co-occurrence counts over primitive arrays. Product ids are interned to dense ints
+ * once; every row is an open-addressing int-to-int map instead of one boxed map entry per pair, which takes about
+ * a third of the memory (see CoPurchaseMatrixBenchmark). Not thread-safe; callers guard it.
+ */
+public class CoPurchaseMatrix {
+
+    private static final int EMPTY = -1;
+    private static final int INITIAL_ROW_CAPACITY = 4;
+
+    private final int maxBasketSize;
+
+    // UUID -> index, open addressing over the two halves of the id; slots hold index + 1, 0 marks a free slot
+    private int[] slots = new int[1024];
+    private long[] mostSignificant = new long[512];
+    private long[] leastSignificant = new long[512];
+    private int size;
+
+    // Per product: number of baskets it appears in, and its co-occurrence row
+    private int[] basketCounts = new int[512];
+    private int[][] rowKeys = new int[512][];
+    private int[][] rowValues = new int[512][];
+    private int[] rowSizes = new int[512];
+
+    private long pairCount;
+
+    public CoPurchaseMatrix(int maxBasketSize) {
+        this.maxBasketSize = maxBasketSize;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long pairCount() {
+        return pairCount;
+    }
+
+    public int indexOf(UUID id) {
+        int slot = findSlot(id.getMostSignificantBits(), id.getLeastSignificantBits());
+        return slots[slot] - 1;
+    }
+
+    public UUID idAt(int index) {
+        return new UUID(mostSignificant[index], leastSignificant[index]);
+    }
+
+    /**
+     * Counts every pair in one order. Duplicate products are ignored, and very large baskets are truncated so a
+     * single bulk order cannot add quadratically many pairs.
+     */
+    public int[] addBasket(UUID[] productIds) {
+        int[] basket = new int[Math.min(productIds.length, maxBasketSize)];
+        int basketSize = 0;
+        for (UUID productId : productIds) {
+            if (basketSize == basket.length) {
+                break;
+            }
+            int index = intern(productId);
+            if (!contains(basket, basketSize, index)) {
+                basket[basketSize++] = index;
+            }
+        }
+
+        for (int i = 0; i < basketSize; i++) {
+            basketCounts[basket[i]]++;
+            for (int j = 0; j < basketSize; j++) {
+                if (i != j) {
+                    increment(basket[i], basket[j]);
+                }
+            }
+        }
+        return Arrays.copyOf(basket, basketSize);
+    }
+
+    /**
+     * Top {@code k} neighbours of a product by cosine similarity of their basket vectors, which keeps products
+     * that are in every basket from topping every list. Pairs seen fewer than {@code minSupport} times are ignored.
+     */
+    public int[] topNeighbours(int index, int k, int minSupport) {
+        int[] keys = rowKeys[index];
+        if (keys == null) {
+            return new int[0];
+        }
+        int[] values = rowValues[index];
+
+        int[] best = new int[k];
+        double[] bestScores = new double[k];
+        int found = 0;
+        for (int slot = 0; slot < keys.length; slot++) {
+            int neighbour = keys[slot];
+            if (neighbour == EMPTY || values[slot] < minSupport) {
+                continue;
+            }
+            double score = values[slot] / Math.sqrt((double) basketCounts[index] * basketCounts[neighbour]);
+            if (found == k && score <= bestScores[k - 1]) {
+                continue;
+            }
+
+            // Insertion into a small sorted array beats a heap for the k values used here
+            int position = found == k ? k - 1 : found++;
+            while (position > 0 && bestScores[position - 1] < score) {
+                best[position] = best[position - 1];
+                bestScores[position] = bestScores[position - 1];
+                position--;
+            }
+            best[position] = neighbour;
+            bestScores[position] = score;
+        }
+        return Arrays.copyOf(best, found);
+    }
+
+    // Neighbour indexes of a product, used to find rows whose ranking an update may have changed
+    public int[] neighboursOf(int index) {
+        int[] keys = rowKeys[index];
+        if (keys == null) {
+            return new int[0];
+        }
+        int[] result = new int[rowSizes[index]];
+        int count = 0;
+        for (int key : keys) {
+            if (key != EMPTY) {
+                result[count++] = key;
+            }
+        }
+        return result;
+    }
+
+    // Approximate heap footprint of the arrays, for logging
+    public long estimateBytes() {
+        long bytes = (long) slots.length * Integer.BYTES
+                + (long) mostSignificant.length * Long.BYTES * 2
+                + (long) basketCounts.length * Integer.BYTES * 2
+                + (long) rowKeys.length * 2 * 8;
+        for (int i = 0; i < size; i++) {
+            if (rowKeys[i] != null) {
+                bytes += (long) rowKeys[i].length * Integer.BYTES * 2 + 32;
+            }
+        }
+        return bytes;
+    }
+
+    private int intern(UUID id) {
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        int slot = findSlot(msb, lsb);
+        if (slots[slot] != 0) {
+            return slots[slot] - 1;
+        }
+
+        if (size == mostSignificant.length) {
+            growIds();
+        }
+        int index = size++;
+        mostSignificant[index] = msb;
+        leastSignificant[index] = lsb;
+        slots[slot] = index + 1;
+
+        if (size * 2 > slots.length) {
+            rehashIds();
+        }
+        return index;
+    }
+
+    private int findSlot(long msb, long lsb) {
+        int mask = slots.length - 1;
+        int slot = mix(Long.hashCode(msb) * 31 + Long.hashCode(lsb)) & mask;
+        while (slots[slot] != 0) {
+            int index = slots[slot] - 1;
+            if (mostSignificant[index] == msb && leastSignificant[index] == lsb) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void growIds() {
+        int capacity = mostSignificant.length * 2;
+        mostSignificant = Arrays.copyOf(mostSignificant, capacity);
+        leastSignificant = Arrays.copyOf(leastSignificant, capacity);
+        basketCounts = Arrays.copyOf(basketCounts, capacity);
+        rowKeys = Arrays.copyOf(rowKeys, capacity);
+        rowValues = Arrays.copyOf(rowValues, capacity);
+        rowSizes = Arrays.copyOf(rowSizes, capacity);
+    }
+
+    private void rehashIds() {
+        slots = new int[slots.length * 2];
+        int mask = slots.length - 1;
+        for (int index = 0; index < size; index++) {
+            int slot = mix(Long.hashCode(mostSignificant[index]) * 31 + Long.hashCode(leastSignificant[index])) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = index + 1;
+        }
+    }
+
+    private void increment(int row, int column) {
+        if (rowKeys[row] == null) {
+            rowKeys[row] = newKeys(INITIAL_ROW_CAPACITY);
+            rowValues[row] = new int[INITIAL_ROW_CAPACITY];
+        }
+
+        int[] keys = rowKeys[row];
+        int mask = keys.length - 1;
+        int slot = mix(column) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == column) {
+                rowValues[row][slot]++;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = column;
+        rowValues[row][slot] = 1;
+        rowSizes[row]++;
+        pairCount++;
+        if (rowSizes[row] * 4 > keys.length * 3) {
+            rehashRow(row);
+        }
+    }
+
+    private void rehashRow(int row) {
+        int[] oldKeys = rowKeys[row];
+        int[] oldValues = rowValues[row];
+        int[] keys = newKeys(oldKeys.length * 2);
+        int[] values = new int[keys.length];
+        int mask = keys.length - 1;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY) {
+                continue;
+            }
+            int slot = mix(oldKeys[i]) & mask;
+            while (keys[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+        rowKeys[row] = keys;
+        rowValues[row] = values;
+    }
+
+    private static int[] newKeys(int capacity) {
+        int[] keys = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        return keys;
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Spreads sequential indexes across the table
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,169 @@
+package com.fragrance.raumania.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fragrance.raumania.exception.InvalidDataException;
+import com.fragrance.raumania.repository.specification.KeysetSpecification;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.beans.PropertyDescriptor;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Encodes and decodes the opaque cursors used by keyset pagination. A cursor carries the sort it was
+ * produced for, the sort key of the last row and its id.
+ */
+@Component
+@RequiredArgsConstructor
+public class CursorUtils {
+
+    public static final String MODE_OFFSET = "offset";
+    public static final String MODE_CURSOR = "cursor";
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Resolves the cursor a listing pages by from its {@code mode} and {@code cursor} parameters. With
+     * {@code mode=cursor} and no cursor the first keyset page is served; its {@code nextCursor} is then passed back
+     * as {@code cursor}. A cursor always continues keyset pagination, and an empty {@code cursor=} still starts it,
+     * whatever the mode. Returns null for offset pagination.
+     */
+    public static String resolveCursor(String mode, String cursor) {
+        if (cursor != null) {
+            return cursor;
+        }
+        if (mode == null || MODE_OFFSET.equalsIgnoreCase(mode)) {
+            return null;
+        }
+        if (MODE_CURSOR.equalsIgnoreCase(mode)) {
+            return "";
+        }
+        throw new InvalidDataException("Unsupported pagination mode, expected offset or cursor");
+    }
+
+    public <T> Specification<T> seek(Sort sort, String cursor, Class<T> entityClass) {
+        if (cursor == null || cursor.isBlank()) {
+            return (root, query, cb) -> null;
+        }
+
+        Sort.Order order = sort.iterator().next();
+        Map<String, Object> values = decode(cursor);
+
+        if (!order.getProperty().equals(values.get("sortBy"))
+                || !order.getDirection().name().equals(values.get("direction"))) {
+            throw new InvalidDataException("Cursor does not match the requested sort");
+        }
+
+        Comparable<?> lastValue = toComparable(values.get("value"), propertyType(entityClass, order.getProperty()));
+        Comparable<?> lastId = toComparable(values.get("id"), propertyType(entityClass, "id"));
+
+        return KeysetSpecification.after(order, lastValue, lastId);
+    }
+
+    /**
+     * Trims the {@code pageSize + 1} rows fetched by a seek query to a page and builds the cursor of its last row.
+     */
+    public <T> KeysetPage<T> toKeysetPage(List<T> rows, int pageSize, Sort sort) {
+        if (pageSize < 1) {
+            throw new InvalidDataException("Page size must be positive");
+        }
+        if (rows.size() <= pageSize) {
+            return new KeysetPage<>(rows, null);
+        }
+
+        List<T> content = rows.subList(0, pageSize);
+        return new KeysetPage<>(content, encode(content.get(pageSize - 1), sort));
+    }
+
+    public String encode(Map<String, Object> values) {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(values));
+        } catch (Exception e) {
+            throw new IllegalStateException("Unable to encode cursor", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> decode(String cursor) {
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(cursor.getBytes(StandardCharsets.US_ASCII));
+            return objectMapper.readValue(json, Map.class);
+        } catch (Exception e) {
+            throw new InvalidDataException("Invalid cursor");
+        }
+    }
+
+    private String encode(Object row, Sort sort) {
+        Sort.Order order = sort.iterator().next();
+        BeanWrapperImpl wrapper = new BeanWrapperImpl(row);
+
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("sortBy", order.getProperty());
+        values.put("direction", order.getDirection().name());
+        values.put("value", toJsonValue(wrapper.getPropertyValue(order.getProperty())));
+        values.put("id", toJsonValue(wrapper.getPropertyValue("id")));
+        return encode(values);
+    }
+
+    private Class<?> propertyType(Class<?> entityClass, String property) {
+        PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(entityClass, property);
+        return descriptor != null ? descriptor.getPropertyType() : null;
+    }
+
+    private Object toJsonValue(Object value) {
+        if (value instanceof Date date) {
+            return date.getTime();
+        }
+        if (value instanceof UUID || value instanceof Enum<?>) {
+            return value.toString();
+        }
+        return value;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Comparable<?> toComparable(Object value, Class<?> type) {
+        if (value == null) {
+            return null;
+        }
+        if (type == null) {
+            throw new InvalidDataException("Unsupported sort property");
+        }
+        try {
+            if (Date.class.isAssignableFrom(type)) {
+                return new Date(((Number) value).longValue());
+            }
+            if (type == UUID.class) {
+                return UUID.fromString(value.toString());
+            }
+            if (type.isEnum()) {
+                return Enum.valueOf((Class<? extends Enum>) type, value.toString());
+            }
+            if (type == Double.class || type == double.class) {
+                return ((Number) value).doubleValue();
+            }
+            if (type == Integer.class || type == int.class) {
+                return ((Number) value).intValue();
+            }
+            if (type == Long.class || type == long.class) {
+                return ((Number) value).longValue();
+            }
+            if (type == Boolean.class || type == boolean.class) {
+                return (Boolean) value;
+            }
+            if (type == String.class) {
+                return value.toString();
+            }
+        } catch (ClassCastException | IllegalArgumentException e) {
+            throw new InvalidDataException("Invalid cursor");
+        }
+        throw new InvalidDataException("Unsupported sort property for cursor pagination");
+    }
+
+    public record KeysetPage<T>(List<T> content, String nextCursor) {
+    }
+}
@@ -0,0 +1,53 @@
+package com.fragrance.raumania.utils;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+
+public class EtagUtils {
+
+    public static final String DEGRADED_SECTIONS_HEADER = "X-Degraded-Sections";
+
+    private EtagUtils() {
+    }
+
+    // Sets the ETag header and returns true when the client copy is current, in which case the handler returns null
+    // and Spring answers 304 without a body
+    public static boolean notModified(WebRequest request, String etag) {
+        return notModified(request, etag, CacheControl.noCache());
+    }
+
+    // For per-user resources, which shared caches such as nginx must not store
+    public static boolean notModifiedPrivate(WebRequest request, String etag) {
+        return notModified(request, etag, CacheControl.noCache().cachePrivate());
+    }
+
+    // A partial response must not be stored, or later revalidations would keep confirming it as current
+    public static void markDegraded(WebRequest request, List<String> degradedSections) {
+        if (request instanceof ServletWebRequest servletWebRequest && servletWebRequest.getResponse() != null) {
+            servletWebRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noStore().getHeaderValue());
+            servletWebRequest.getResponse().setHeader(DEGRADED_SECTIONS_HEADER, String.join(",", degradedSections));
+        }
+    }
+
+    // For responses tied to server-side state one client consumes, such as a search cursor that the last page closes
+    public static void markNoStore(WebRequest request) {
+        if (request instanceof ServletWebRequest servletWebRequest && servletWebRequest.getResponse() != null) {
+            servletWebRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noStore().getHeaderValue());
+        }
+    }
+
+    private static boolean notModified(WebRequest request, String etag, CacheControl cacheControl) {
+        if (etag == null) {
+            return false;
+        }
+        // Replaces Spring Security's default no-store, which would stop clients from ever revalidating
+        if (request instanceof ServletWebRequest servletWebRequest && servletWebRequest.getResponse() != null) {
+            servletWebRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        }
+        return request.checkNotModified(etag);
+    }
+}
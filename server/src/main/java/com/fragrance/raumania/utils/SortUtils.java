@@ -6,6 +6,15 @@ import org.springframework.stereotype.Component;
 @Component
 public class SortUtils {
 
+    public static final String POPULAR = "popular";
+    public static final String VIEW_COUNT = "viewCount";
+    public static final String UNIQUE_VIEW_COUNT = "uniqueViewCount";
+
+    // Orders that change whenever view counts are flushed
+    public static boolean isViewSort(String sortBy) {
+        return POPULAR.equalsIgnoreCase(sortBy) || VIEW_COUNT.equals(sortBy) || UNIQUE_VIEW_COUNT.equals(sortBy);
+    }
+
     public Sort buildSort(String sortBy, String sortDirection) {
         // Default sort is by "id" in ascending order if parameters are not valid
         if (sortBy == null || sortBy.isEmpty()) {
@@ -22,4 +31,30 @@ public class SortUtils {
 
         return Sort.by(direction, sortBy);
     }
+
+    // Only products have view counts, so "popular" (most viewed first, whatever direction was passed) is theirs alone
+    public Sort buildProductSort(String sortBy, String sortDirection) {
+        if (POPULAR.equalsIgnoreCase(sortBy)) {
+            return Sort.by(Sort.Direction.DESC, VIEW_COUNT);
+        }
+        return buildSort(sortBy, sortDirection);
+    }
+
+    public Sort buildKeysetSort(String sortBy, String sortDirection) {
+        return withIdTiebreaker(buildSort(sortBy, sortDirection));
+    }
+
+    public Sort buildProductKeysetSort(String sortBy, String sortDirection) {
+        return withIdTiebreaker(buildProductSort(sortBy, sortDirection));
+    }
+
+    // Keyset pagination needs a unique ordering, so "id" is appended as a tiebreaker in the same direction
+    private Sort withIdTiebreaker(Sort sort) {
+        Sort.Order order = sort.iterator().next();
+
+        if ("id".equals(order.getProperty())) {
+            return sort;
+        }
+        return sort.and(Sort.by(order.getDirection(), "id"));
+    }
 }
\ No newline at end of file
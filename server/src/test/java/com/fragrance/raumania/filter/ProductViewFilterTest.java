@@ -0,0 +1,56 @@
+package com.fragrance.raumania.filter;
+
+import com.fragrance.raumania.service.ProductViewService;
+import com.fragrance.raumania.service.RecentlyViewedService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ProductViewFilterTest {
+
+    private final ProductViewService productViewService = mock(ProductViewService.class);
+    private final ProductViewFilter productViewFilter = new ProductViewFilter(productViewService,
+            mock(RecentlyViewedService.class), new String[]{"127.0.0.1/32", "172.16.0.0/12"});
+
+    @Test
+    void aClientCannotPickItsViewerIdWithTheHeader() throws Exception {
+        String direct = viewerId("203.0.113.9", null);
+
+        assertThat(viewerId("203.0.113.9", "198.51.100.1")).isEqualTo(direct);
+        assertThat(viewerId("203.0.113.9", "198.51.100.2")).isEqualTo(direct);
+    }
+
+    @Test
+    void behindTrustedProxiesTheFirstUntrustedHopIsTheClient() throws Exception {
+        String client = viewerId("203.0.113.9", null);
+
+        // The left entry was sent by the client itself; nginx appended the address it saw
+        assertThat(viewerId("172.18.0.5", "198.51.100.1, 203.0.113.9")).isEqualTo(client);
+        assertThat(viewerId("172.18.0.5", "203.0.113.9, 172.18.0.4")).isEqualTo(client);
+        assertThat(viewerId("172.18.0.5", "not-an-address")).isNotEqualTo(client);
+    }
+
+    private String viewerId(String remoteAddress, String forwardedFor) throws Exception {
+        clearInvocations(productViewService);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/product/" + UUID.randomUUID());
+        request.setRemoteAddr(remoteAddress);
+        request.addHeader("User-Agent", "test");
+        if (forwardedFor != null) {
+            request.addHeader("X-Forwarded-For", forwardedFor);
+        }
+
+        productViewFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        ArgumentCaptor<String> viewerId = ArgumentCaptor.forClass(String.class);
+        verify(productViewService).recordView(any(), viewerId.capture());
+        return viewerId.getValue();
+    }
+}
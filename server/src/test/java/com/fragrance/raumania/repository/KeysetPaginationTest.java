@@ -0,0 +1,80 @@
+package com.fragrance.raumania.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fragrance.raumania.model.product.Product;
+import com.fragrance.raumania.utils.CursorUtils;
+import com.fragrance.raumania.utils.SortUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pages through products by cursor and checks the pages join up to the same order as a single sorted query: no row
+ * skipped or repeated across ties and NULL sort keys. Runs on H2 in MySQL mode, which sorts NULLs the same way.
+ */
+@DataJpaTest(properties =
+        "spring.datasource.url=jdbc:h2:mem:keyset;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class KeysetPaginationTest {
+
+    private static final int PAGE_SIZE = 4;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final CursorUtils cursorUtils = new CursorUtils(new ObjectMapper());
+    private final SortUtils sortUtils = new SortUtils();
+
+    @BeforeEach
+    void setUp() {
+        // Prices repeat and some are missing, so pages have to break ties on id and cross the NULL boundary
+        Double[] prices = {null, 10.0, 20.0, 20.0, 20.0, null, 35.0, 10.0, 50.0, 20.0, null, 35.0, 60.0, 10.0};
+        for (int i = 0; i < prices.length; i++) {
+            entityManager.persist(Product.builder()
+                    .name("Product " + i)
+                    .minPrice(prices[i])
+                    .viewCount(prices[i] == null ? null : (long) (i % 4))
+                    .isActive(true)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @ParameterizedTest
+    @CsvSource({"minPrice, asc", "minPrice, desc", "id, asc", "id, desc", "name, desc", "popular, asc"})
+    void pagesJoinUpToTheFullOrder(String sortBy, String sortDirection) {
+        Sort sort = sortUtils.buildProductKeysetSort(sortBy, sortDirection);
+
+        List<UUID> paged = new ArrayList<>();
+        String cursor = "";
+        int pages = 0;
+        do {
+            Specification<Product> seek = cursorUtils.seek(sort, cursor, Product.class);
+            List<Product> rows = productRepository.findBy(seek, query -> query.sortBy(sort).limit(PAGE_SIZE + 1).all());
+            CursorUtils.KeysetPage<Product> page = cursorUtils.toKeysetPage(rows, PAGE_SIZE, sort);
+            page.content().forEach(product -> paged.add(product.getId()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null && pages < 10);
+
+        List<UUID> expected = productRepository.findAll(sort).stream().map(Product::getId).toList();
+        assertThat(paged).containsExactlyElementsOf(expected);
+        assertThat(pages).isEqualTo((expected.size() + PAGE_SIZE - 1) / PAGE_SIZE);
+    }
+}
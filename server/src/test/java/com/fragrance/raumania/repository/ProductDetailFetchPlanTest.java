@@ -0,0 +1,125 @@
+package com.fragrance.raumania.repository;
+
+import com.fragrance.raumania.constant.role.RoleName;
+import com.fragrance.raumania.mapper.ProductMapper;
+import com.fragrance.raumania.mapper.ProductVariantMapper;
+import com.fragrance.raumania.mapper.ReviewMapper;
+import com.fragrance.raumania.model.authorization.Role;
+import com.fragrance.raumania.model.product.*;
+import com.fragrance.raumania.model.user.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the statements behind a product detail view on an in-memory database, so a lazy association slipping back
+ * into the mapping shows up as a failure instead of as an N+1 in production.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:fetch-plan;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ProductDetailFetchPlanTest {
+
+    private static final int VARIANTS = 3;
+    private static final int IMAGES = 4;
+    private static final int REVIEWERS = 5;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductImageRepository productImageRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    private final ProductMapper productMapper = new ProductMapper();
+    private final ProductVariantMapper productVariantMapper = new ProductVariantMapper();
+    private final ReviewMapper reviewMapper = new ReviewMapper();
+
+    private Statistics statistics;
+    private UUID productId;
+
+    @BeforeEach
+    void setUp() {
+        Brand brand = entityManager.persist(Brand.builder().name("Maison").build());
+        Product product = entityManager.persist(Product.builder()
+                .name("Amber Oud")
+                .brand(brand)
+                .minPrice(40.0)
+                .maxPrice(120.0)
+                .isActive(true)
+                .build());
+        ProductVariant firstVariant = null;
+        for (int i = 0; i < VARIANTS; i++) {
+            ProductVariant variant = entityManager.persist(ProductVariant.builder()
+                    .name("Variant " + i)
+                    .size((i + 1) * 50 + "ml")
+                    .price(40.0 * (i + 1))
+                    .stock(10)
+                    .product(product)
+                    .build());
+            firstVariant = firstVariant == null ? variant : firstVariant;
+        }
+        for (int i = 0; i < IMAGES; i++) {
+            entityManager.persist(ProductImage.builder().image("image-" + i + ".jpg").product(product).build());
+        }
+        Role role = entityManager.persist(Role.builder().name(RoleName.USER).build());
+        for (int i = 0; i < REVIEWERS; i++) {
+            User user = entityManager.persist(User.builder().username("reviewer" + i).role(role).build());
+            entityManager.persist(Review.builder()
+                    .rating(5)
+                    .content("Lovely")
+                    .user(user)
+                    .product(product)
+                    .productVariant(firstVariant)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        productId = product.getId();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void productBrandVariantsAndImagesInTwoStatements() {
+        Product product = productRepository.findDetailById(productId).orElseThrow();
+        assertThat(productMapper.toProductResponse(product).getBrandName()).isEqualTo("Maison");
+        assertThat(product.getProductVariants().stream().map(productVariantMapper::toProductVariantResponse))
+                .hasSize(VARIANTS);
+        assertThat(productImageRepository.findByProductId(productId)).hasSize(IMAGES);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void latestReviewsWithTheirAuthorsInOneStatement() {
+        assertThat(reviewRepository.findLatestReviewsByProductId(productId, PageRequest.of(0, 5)).stream()
+                .map(reviewMapper::toReviewResponse))
+                .hasSize(REVIEWERS)
+                .allSatisfy(review -> assertThat(review.getUserName()).startsWith("reviewer"));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
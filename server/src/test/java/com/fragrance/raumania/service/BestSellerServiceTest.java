@@ -0,0 +1,161 @@
+package com.fragrance.raumania.service;
+
+import com.fragrance.raumania.dto.response.PageResponse;
+import com.fragrance.raumania.dto.response.product.BestSellerResponse;
+import com.fragrance.raumania.dto.response.product.RelatedProductResponse;
+import com.fragrance.raumania.event.OrderPlacedEvent;
+import com.fragrance.raumania.exception.InvalidDataException;
+import com.fragrance.raumania.repository.OrderItemRepository;
+import com.fragrance.raumania.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BestSellerServiceTest {
+
+    private final StringRedisTemplate stringRedisTemplate = mock(StringRedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final ZSetOperations<String, String> zSetOperations = mock(ZSetOperations.class);
+    private final RelatedProductService relatedProductService = mock(RelatedProductService.class);
+    private final BestSellerService bestSellerService = new BestSellerService(stringRedisTemplate,
+            mock(OrderItemRepository.class), mock(ProductRepository.class), relatedProductService);
+
+    private final UUID brandId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(bestSellerService, "windowTtlSeconds", 300L);
+        when(stringRedisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(zSetOperations.reverseRangeWithScores(anyString(), anyLong(), anyLong())).thenReturn(new LinkedHashSet<>());
+    }
+
+    @Test
+    void weekRankingIsTheUnionOfTheLastSevenDays() {
+        bestSellerService.getBestSellers("7d", null, 1, 10);
+
+        List<String> days = days(7);
+        verify(zSetOperations).unionAndStore("best-sellers-day-" + days.get(0),
+                days.subList(1, 7).stream().map(day -> "best-sellers-day-" + day).toList(),
+                "best-sellers-7d");
+        verify(stringRedisTemplate).expire("best-sellers-7d", Duration.ofSeconds(300));
+        verify(zSetOperations).reverseRangeWithScores("best-sellers-7d", 0, 9);
+    }
+
+    @Test
+    void brandRankingUnionsTheBrandDays() {
+        bestSellerService.getBestSellers("30D", brandId, 1, 10);
+
+        String suffix = "-brand-" + brandId;
+        List<String> days = days(30);
+        verify(zSetOperations).unionAndStore("best-sellers-day-" + days.get(0) + suffix,
+                days.subList(1, 30).stream().map(day -> "best-sellers-day-" + day + suffix).toList(),
+                "best-sellers-30d" + suffix);
+    }
+
+    @Test
+    void materializedWindowIsReusedAndAllTimeIsReadDirectly() {
+        when(stringRedisTemplate.hasKey("best-sellers-7d")).thenReturn(true);
+
+        bestSellerService.getBestSellers("7d", null, 1, 10);
+        bestSellerService.getBestSellers("all", brandId, 1, 10);
+
+        verify(zSetOperations, never()).unionAndStore(anyString(), anyCollection(), anyString());
+        verify(zSetOperations).reverseRangeWithScores("best-sellers-7d", 0, 9);
+        verify(zSetOperations).reverseRangeWithScores("best-sellers-all-brand-" + brandId, 0, 9);
+    }
+
+    @Test
+    void pagesKeepTheirRanksAndSkipProductsWithoutACard() {
+        UUID sold = UUID.randomUUID();
+        UUID deleted = UUID.randomUUID();
+        Set<ZSetOperations.TypedTuple<String>> page = new LinkedHashSet<>(List.of(
+                new DefaultTypedTuple<>(deleted.toString(), 9.0),
+                new DefaultTypedTuple<>(sold.toString(), 4.0)));
+        when(zSetOperations.reverseRangeWithScores("best-sellers-all", 10, 19)).thenReturn(page);
+        when(zSetOperations.zCard("best-sellers-all")).thenReturn(25L);
+        when(relatedProductService.getCard(sold)).thenReturn(Optional.of(
+                RelatedProductResponse.builder().id(sold).name("Amber Oud").build()));
+        when(relatedProductService.getCard(deleted)).thenReturn(Optional.empty());
+
+        PageResponse<List<BestSellerResponse>> response = bestSellerService.getBestSellers("all", null, 2, 10);
+
+        assertThat(response.getContent()).singleElement().satisfies(bestSeller -> {
+            assertThat(bestSeller.getId()).isEqualTo(sold);
+            assertThat(bestSeller.getRank()).isEqualTo(12);
+            assertThat(bestSeller.getUnitsSold()).isEqualTo(4);
+        });
+        assertThat(response.getTotalElements()).isEqualTo(25);
+        assertThat(response.getTotalPages()).isEqualTo(3);
+    }
+
+    @Test
+    void validatesTheWindowAndPageSize() {
+        assertThatThrownBy(() -> bestSellerService.getBestSellers("1y", null, 1, 10))
+                .isInstanceOf(InvalidDataException.class);
+        assertThatThrownBy(() -> bestSellerService.getBestSellers("all", null, 1, 0))
+                .isInstanceOf(InvalidDataException.class)
+                .hasMessage("Page size must be positive");
+
+        bestSellerService.getBestSellers("all", null, 0, 1_000);
+
+        verify(zSetOperations).reverseRangeWithScores("best-sellers-all", 0, 99);
+    }
+
+    @Test
+    void saleCountsTowardsAllTimeAndTodayGloballyAndForItsBrand() {
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisZSetCommands zSetCommands = mock(RedisZSetCommands.class);
+        RedisKeyCommands keyCommands = mock(RedisKeyCommands.class);
+        when(connection.zSetCommands()).thenReturn(zSetCommands);
+        when(connection.keyCommands()).thenReturn(keyCommands);
+        when(stringRedisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation ->
+                invocation.<RedisCallback<?>>getArgument(0).doInRedis(connection));
+        UUID productId = UUID.randomUUID();
+
+        bestSellerService.recordSales(List.of(new OrderPlacedEvent.Line(productId, brandId, 3)));
+
+        String today = days(1).get(0);
+        String suffix = "-brand-" + brandId;
+        byte[] member = bytes(productId.toString());
+        for (String key : List.of("best-sellers-all", "best-sellers-all" + suffix,
+                "best-sellers-day-" + today, "best-sellers-day-" + today + suffix)) {
+            verify(zSetCommands).zIncrBy(bytes(key), 3, member);
+        }
+        // Only the daily sets expire
+        verify(keyCommands).expire(bytes("best-sellers-day-" + today), Duration.ofDays(32).toSeconds());
+        verify(keyCommands).expire(bytes("best-sellers-day-" + today + suffix), Duration.ofDays(32).toSeconds());
+        verifyNoMoreInteractions(keyCommands);
+    }
+
+    private List<String> days(int count) {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        List<String> days = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            days.add(today.minusDays(i).format(DateTimeFormatter.BASIC_ISO_DATE));
+        }
+        return days;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
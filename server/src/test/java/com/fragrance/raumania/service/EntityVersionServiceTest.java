@@ -0,0 +1,49 @@
+package com.fragrance.raumania.service;
+
+import com.fragrance.raumania.repository.BrandRepository;
+import com.fragrance.raumania.repository.OrderRepository;
+import com.fragrance.raumania.repository.ProductRepository;
+import com.fragrance.raumania.repository.ReviewRepository;
+import com.fragrance.raumania.service.interfaces.AuthenticationService;
+import com.fragrance.raumania.service.interfaces.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EntityVersionServiceTest {
+
+    private final ProductCountCacheService productCountCacheService = mock(ProductCountCacheService.class);
+    private final ProductViewService productViewService = mock(ProductViewService.class);
+    private final EntityVersionService entityVersionService = new EntityVersionService(
+            mock(ProductRepository.class), mock(BrandRepository.class), mock(ReviewRepository.class),
+            mock(OrderRepository.class), productCountCacheService, mock(AuthenticationService.class),
+            mock(ProductService.class), productViewService);
+
+    @BeforeEach
+    void setUp() {
+        when(productCountCacheService.getCatalogVersion()).thenReturn(Optional.of("42"));
+    }
+
+    @Test
+    void aViewFlushChangesTheEtagOfPopularListingsOnly() {
+        when(productViewService.getFlushVersion()).thenReturn(Optional.of("1"), Optional.of("2"));
+
+        String popularBefore = entityVersionService.getCatalogEtag("popular");
+        String popularAfter = entityVersionService.getCatalogEtag("popular");
+
+        assertThat(popularAfter).isNotEqualTo(popularBefore);
+        assertThat(entityVersionService.getCatalogEtag("name")).isEqualTo(entityVersionService.getCatalogEtag());
+    }
+
+    @Test
+    void noEtagForPopularListingsWhenTheFlushVersionIsUnknown() {
+        when(productViewService.getFlushVersion()).thenReturn(Optional.empty());
+
+        assertThat(entityVersionService.getCatalogEtag("viewCount")).isNull();
+    }
+}
@@ -0,0 +1,204 @@
+package com.fragrance.raumania.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fragrance.raumania.dto.filter.product.ProductFilter;
+import com.fragrance.raumania.dto.response.PageResponse;
+import com.fragrance.raumania.dto.response.product.ProductFacetResponse;
+import com.fragrance.raumania.dto.response.product.ProductSummary;
+import com.fragrance.raumania.exception.InvalidDataException;
+import com.fragrance.raumania.mapper.ProductMapper;
+import com.fragrance.raumania.model.product.Product;
+import com.fragrance.raumania.model.product.ProductDocument;
+import com.fragrance.raumania.repository.ProductRepository;
+import com.fragrance.raumania.utils.CursorUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FallbackSearchServiceTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final ProductMapper productMapper = mock(ProductMapper.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final FallbackSearchService fallbackSearchService = new FallbackSearchService(
+            productRepository, productMapper, transactionTemplate, new CursorUtils(new ObjectMapper()),
+            new SearchHealthService());
+
+    // What MySQL holds; refresh loads from here
+    private final Map<UUID, ProductDocument> catalog = new LinkedHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(fallbackSearchService, "facetSize", 50);
+        ReflectionTestUtils.setField(fallbackSearchService, "priceInterval", 50.0);
+
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(productRepository.findDetailsByIds(anyCollection())).thenAnswer(invocation ->
+                invocation.<Collection<UUID>>getArgument(0).stream()
+                        .filter(catalog::containsKey)
+                        .map(id -> Product.builder().id(id).build())
+                        .toList());
+        when(productMapper.toDocument(any(Product.class))).thenAnswer(invocation ->
+                catalog.get(invocation.<Product>getArgument(0).getId()));
+    }
+
+    @Test
+    void sortsTheWholeCatalogAndFollowsChanges() {
+        ProductDocument cheap = save("Cheap", "Acme", 10.0);
+        ProductDocument middle = save("Middle", "Acme", 50.0);
+        save("Dear", "Other", 90.0);
+
+        assertThat(names(search(new ProductFilter(), "minPrice", "asc"))).containsExactly("Cheap", "Middle", "Dear");
+        assertThat(names(search(new ProductFilter(), "minPrice", "desc"))).containsExactly("Dear", "Middle", "Cheap");
+
+        // A cached order must not survive a change to the catalog
+        cheap.setMinPrice(100.0);
+        fallbackSearchService.refresh(List.of(cheap.getId()));
+        catalog.remove(middle.getId());
+        fallbackSearchService.refresh(List.of(middle.getId()));
+
+        assertThat(names(search(new ProductFilter(), "minPrice", "asc"))).containsExactly("Dear", "Cheap");
+    }
+
+    @Test
+    void selectedBrandNarrowsTheRowsButNotTheBrandFacet() {
+        save("Cheap", "Acme", 10.0);
+        save("Middle", "Acme", 50.0);
+        save("Dear", "Other", 90.0);
+
+        PageResponse<List<ProductSummary>> page =
+                search(ProductFilter.builder().brandName("Acme").build(), "minPrice", "asc");
+
+        assertThat(names(page)).containsExactly("Cheap", "Middle");
+        assertThat(page.getFacets().getBrands()).containsExactly(
+                new ProductFacetResponse.Bucket("Acme", 2), new ProductFacetResponse.Bucket("Other", 1));
+    }
+
+    @Test
+    void matchesAnyWordOfTheNameAndPrefixesFromThreeLetters() {
+        save("Amber Oud", "Acme", 10.0);
+        save("Rose Water", "Acme", 20.0);
+        save("Oud Wood", "Other", 30.0);
+
+        assertThat(names(search(name("OUD"), "minPrice", "asc"))).containsExactly("Amber Oud", "Oud Wood");
+        assertThat(names(search(name("rose, amber!"), "minPrice", "asc"))).containsExactly("Amber Oud", "Rose Water");
+        assertThat(names(search(name("amb"), "minPrice", "asc"))).containsExactly("Amber Oud");
+        // Too short to be read as a prefix
+        assertThat(names(search(name("am"), "minPrice", "asc"))).isEmpty();
+    }
+
+    @Test
+    void activeFlagIsPartOfTheQuery() {
+        save("Shown", "Acme", 10.0);
+        ProductDocument hidden = save("Hidden", "Other", 20.0);
+        hidden.setIsActive(false);
+        fallbackSearchService.refresh(List.of(hidden.getId()));
+
+        PageResponse<List<ProductSummary>> page =
+                search(ProductFilter.builder().isActive(true).build(), "minPrice", "asc");
+
+        assertThat(names(page)).containsExactly("Shown");
+        assertThat(page.getFacets().getBrands()).containsExactly(new ProductFacetResponse.Bucket("Acme", 1));
+    }
+
+    @Test
+    void eachFacetIsCountedUnderEverySelectionButItsOwn() {
+        save("Small Rose", "Acme", 10.0, List.of("50ml"), List.of("Rose"));
+        save("Large Rose", "Acme", 60.0, List.of("100ml"), List.of("Rose"));
+        save("Both Oud", "Other", 120.0, List.of("50ml", "100ml"), List.of("Oud"));
+        save("Small Oud", "Other", 45.0, List.of("50ml"), List.of("Oud"));
+
+        PageResponse<List<ProductSummary>> page = search(
+                ProductFilter.builder().size("50ml").scent("Oud").maxPrice(100.0).build(), "minPrice", "asc");
+
+        assertThat(names(page)).containsExactly("Small Oud");
+        ProductFacetResponse facets = page.getFacets();
+        // Sizes ignore the size selection, scents the scent selection, prices the price selection
+        assertThat(facets.getSizes()).containsExactly(new ProductFacetResponse.Bucket("50ml", 1));
+        assertThat(facets.getScents()).containsExactly(
+                new ProductFacetResponse.Bucket("Oud", 1), new ProductFacetResponse.Bucket("Rose", 1));
+        assertThat(facets.getPrices()).containsExactly(
+                new ProductFacetResponse.PriceBucket(0.0, 50.0, 1),
+                new ProductFacetResponse.PriceBucket(100.0, 150.0, 1));
+        assertThat(facets.getBrands()).containsExactly(new ProductFacetResponse.Bucket("Other", 1));
+    }
+
+    @Test
+    void cursorPagesJoinUpAndForeignCursorsExpire() {
+        for (int i = 0; i < 5; i++) {
+            save("Product " + i, "Acme", 10.0 * i);
+        }
+
+        List<String> paged = new ArrayList<>();
+        String cursor = "";
+        do {
+            PageResponse<?> page = fallbackSearchService.searchAfter(new ProductFilter(), 2, "minPrice", "desc", cursor);
+            paged.addAll(names(page));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(paged).containsExactly("Product 4", "Product 3", "Product 2", "Product 1", "Product 0");
+        String ascending = fallbackSearchService.searchAfter(new ProductFilter(), 2, "minPrice", "asc", "")
+                .getNextCursor();
+        assertThatThrownBy(() ->
+                fallbackSearchService.searchAfter(new ProductFilter(), 2, "minPrice", "desc", ascending))
+                .isInstanceOf(InvalidDataException.class)
+                .hasMessage("Cursor has expired");
+    }
+
+    @Test
+    void asYouTypeRanksProductsMatchingMoreWordsFirst() {
+        save("Amber Wood", "Acme", 10.0);
+        save("Amber Oud", "Acme", 20.0);
+        save("Oud Royal", "Acme", 30.0);
+
+        PageResponse<List<ProductSummary>> page = fallbackSearchService.searchAsYouType("amber o", 1, 10);
+
+        assertThat(names(page)).containsExactly("Amber Oud", "Amber Wood", "Oud Royal");
+    }
+
+    private ProductFilter name(String name) {
+        return ProductFilter.builder().name(name).build();
+    }
+
+    private PageResponse<List<ProductSummary>> search(ProductFilter filter, String sortBy, String sortDirection) {
+        return fallbackSearchService.search(filter, 1, 10, sortBy, sortDirection);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> names(PageResponse<?> page) {
+        return ((List<ProductSummary>) page.getContent()).stream().map(ProductSummary::name).toList();
+    }
+
+    private ProductDocument save(String name, String brandName, double price) {
+        return save(name, brandName, price, List.of(), List.of());
+    }
+
+    private ProductDocument save(String name, String brandName, double price, List<String> sizes, List<String> scents) {
+        ProductDocument document = ProductDocument.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .brandName(brandName)
+                .minPrice(price)
+                .maxPrice(price)
+                .variantSizes(sizes)
+                .variantScents(scents)
+                .isActive(true)
+                .build();
+        catalog.put(document.getId(), document);
+        fallbackSearchService.refresh(List.of(document.getId()));
+        return document;
+    }
+}
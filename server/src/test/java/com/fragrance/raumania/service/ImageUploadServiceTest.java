@@ -0,0 +1,100 @@
+package com.fragrance.raumania.service;
+
+import com.fragrance.raumania.service.interfaces.ImageStorageService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImageUploadServiceTest {
+
+    private final FakeImageStorage storage = new FakeImageStorage();
+    private final ImageUploadService imageUploadService = new ImageUploadService(storage, 4, 16, 1);
+
+    @AfterEach
+    void shutdown() {
+        imageUploadService.shutdown();
+    }
+
+    @Test
+    void uploadsEveryFile() throws IOException {
+        ImageUploadService.UploadedImages uploaded = imageUploadService.uploadProductImages(
+                file("thumbnail"), new MultipartFile[]{file("a"), file("b")});
+
+        assertThat(uploaded.thumbnailImage()).isEqualTo("https://images/thumbnail");
+        assertThat(uploaded.images()).containsExactly("https://images/a", "https://images/b");
+        assertThat(storage.deleted).isEmpty();
+    }
+
+    @Test
+    void deletesUploadsThatFinishAfterAFailure() {
+        MultipartFile[] images = {file("fail"), file("slow"), file("fast")};
+
+        assertThatThrownBy(() -> imageUploadService.uploadProductImages(file("thumbnail"), images))
+                .isInstanceOf(IOException.class);
+
+        assertThat(storage.deleted).containsExactlyInAnyOrder(
+                "https://images/slow", "https://images/fast", "https://images/thumbnail");
+    }
+
+    @Test
+    void deletesUploadsStillRunningAtTheDeadline() throws InterruptedException {
+        MultipartFile[] images = {file("fail"), file("stuck")};
+
+        assertThatThrownBy(() -> imageUploadService.uploadProductImages(null, images))
+                .isInstanceOf(IOException.class);
+        assertThat(storage.deleted).doesNotContain("https://images/stuck");
+
+        storage.release.countDown();
+        assertThat(storage.stuckDeleted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(storage.deleted).containsExactly("https://images/stuck");
+    }
+
+    private static MultipartFile file(String name) {
+        return new MockMultipartFile(name, name + ".png", "image/png", new byte[]{1});
+    }
+
+    private static class FakeImageStorage implements ImageStorageService {
+        private final Set<String> deleted = ConcurrentHashMap.newKeySet();
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final CountDownLatch stuckDeleted = new CountDownLatch(1);
+
+        @Override
+        public String uploadImage(MultipartFile file) throws IOException {
+            try {
+                switch (file.getName()) {
+                    case "fail" -> throw new IOException("rejected");
+                    case "slow" -> Thread.sleep(200);
+                    // Outlives the one second deadline and ignores interruption, like an HTTP call already sent
+                    case "stuck" -> {
+                        while (!release.await(10, TimeUnit.SECONDS)) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                    default -> {
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "https://images/" + file.getName();
+        }
+
+        @Override
+        public void deleteImage(String url) {
+            deleted.add(url);
+            if (url.endsWith("stuck")) {
+                stuckDeleted.countDown();
+            }
+        }
+    }
+}
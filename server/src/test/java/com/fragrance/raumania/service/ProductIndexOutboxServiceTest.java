@@ -0,0 +1,116 @@
+package com.fragrance.raumania.service;
+
+import com.fragrance.raumania.event.ProductIndexEvent;
+import com.fragrance.raumania.model.product.ProductIndexOutbox;
+import com.fragrance.raumania.repository.ProductIndexOutboxRepository;
+import com.fragrance.raumania.service.interfaces.ProductIndexService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class ProductIndexOutboxServiceTest {
+
+    private final ProductIndexOutboxRepository productIndexOutboxRepository = mock(ProductIndexOutboxRepository.class);
+    private final ProductIndexService productIndexService = mock(ProductIndexService.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final ProductIndexOutboxService productIndexOutboxService = new ProductIndexOutboxService(
+            productIndexOutboxRepository, productIndexService, mock(SearchResultCacheService.class),
+            mock(ResponseCacheService.class), new SearchHealthService(), transactionTemplate);
+
+    private final AtomicBoolean inTransaction = new AtomicBoolean();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ReflectionTestUtils.setField(productIndexOutboxService, "batchSize", 10);
+        ReflectionTestUtils.setField(productIndexOutboxService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(productIndexOutboxService, "backoffInitialMillis", 1000L);
+        ReflectionTestUtils.setField(productIndexOutboxService, "backoffMaxMillis", 10_000L);
+        ReflectionTestUtils.setField(productIndexOutboxService, "claimMillis", 60_000L);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            inTransaction.set(true);
+            try {
+                return invocation.getArgument(0, TransactionCallback.class).doInTransaction(mock(TransactionStatus.class));
+            } finally {
+                inTransaction.set(false);
+            }
+        });
+        doAnswer(invocation -> {
+            inTransaction.set(true);
+            try {
+                invocation.getArgument(0, Consumer.class).accept(mock(TransactionStatus.class));
+                return null;
+            } finally {
+                inTransaction.set(false);
+            }
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    void theBulkRequestRunsAfterTheClaimCommitted() {
+        ProductIndexOutbox indexed = row();
+        ProductIndexOutbox rejected = row();
+        when(productIndexOutboxRepository.lockAvailable(any(), anyInt())).thenReturn(List.of(indexed, rejected));
+        when(productIndexService.indexProducts(anyCollection(), any())).thenAnswer(invocation -> {
+            assertThat(inTransaction).isFalse();
+            assertThat(indexed.getAvailableAt()).isAfter(new Date(System.currentTimeMillis() + 30_000));
+            return Set.of(rejected.getProductId());
+        });
+
+        productIndexOutboxService.relay();
+
+        verify(productIndexOutboxRepository).deleteAllInBatch(List.of(indexed));
+        verify(productIndexOutboxRepository).saveAll(List.of(rejected));
+        assertThat(rejected.getAttempts()).isEqualTo(1);
+        assertThat(rejected.getAvailableAt()).isBefore(new Date(System.currentTimeMillis() + 30_000));
+    }
+
+    @Test
+    void aFailedBulkRequestHandsTheRowsBackWithABackoff() {
+        ProductIndexOutbox row = row();
+        when(productIndexOutboxRepository.lockAvailable(any(), anyInt())).thenReturn(List.of(row));
+        when(productIndexService.indexProducts(anyCollection(), any())).thenThrow(new IllegalStateException("mapping"));
+
+        productIndexOutboxService.relay();
+
+        verify(productIndexOutboxRepository).saveAll(List.of(row));
+        verify(productIndexOutboxRepository, never()).deleteAllInBatch(anyCollection());
+        assertThat(row.getAttempts()).isEqualTo(1);
+        assertThat(row.getLastError()).contains("mapping");
+    }
+
+    @Test
+    void onlyOneBackpressureDrainRunsAtATime() {
+        when(productIndexOutboxRepository.lockAvailable(any(), anyInt())).thenAnswer(invocation -> {
+            productIndexOutboxService.relieveBackpressure();
+            return List.of();
+        });
+
+        productIndexOutboxService.relieveBackpressure();
+
+        verify(productIndexOutboxRepository, times(1)).lockAvailable(any(), anyInt());
+        assertThat(productIndexOutboxService.getBufferStatistic().getBackpressureFlushes()).isEqualTo(1);
+    }
+
+    private ProductIndexOutbox row() {
+        return ProductIndexOutbox.builder()
+                .id(new Random().nextLong())
+                .productId(UUID.randomUUID())
+                .operation(ProductIndexEvent.Operation.UPDATE)
+                .availableAt(new Date())
+                .build();
+    }
+}
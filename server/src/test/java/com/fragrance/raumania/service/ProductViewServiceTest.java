@@ -0,0 +1,83 @@
+package com.fragrance.raumania.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import com.fragrance.raumania.model.product.ProductDocument;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.HyperLogLogOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ProductViewServiceTest {
+
+    private static final String BATCH = "batch-1";
+
+    private final StringRedisTemplate stringRedisTemplate = mock(StringRedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+    @SuppressWarnings("unchecked")
+    private final HashOperations<String, Object, Object> hashOperations = mock(HashOperations.class);
+    @SuppressWarnings("unchecked")
+    private final HyperLogLogOperations<String, String> hyperLogLogOperations = mock(HyperLogLogOperations.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final ElasticsearchOperations elasticsearchOperations = mock(ElasticsearchOperations.class);
+    private final ProductViewService productViewService = new ProductViewService(
+            stringRedisTemplate, jdbcTemplate, transactionTemplate, elasticsearchOperations);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(productViewService, "flushLockMillis", 300_000L);
+        ReflectionTestUtils.setField(productViewService, "flushedBatchRetentionHours", 24L);
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(stringRedisTemplate.opsForHash()).thenReturn(hashOperations);
+        when(stringRedisTemplate.opsForHyperLogLog()).thenReturn(hyperLogLogOperations);
+        when(valueOperations.setIfAbsent(eq("product-views-flush-lock"), anyString(), any(Duration.class))).thenReturn(true);
+        when(valueOperations.get("product-views-flushing-batch")).thenReturn(BATCH);
+        // A batch left over from a run whose hash could not be cleared
+        when(stringRedisTemplate.hasKey("product-views-flushing")).thenReturn(true);
+        when(hashOperations.entries("product-views-flushing")).thenReturn(Map.of(UUID.randomUUID().toString(), "3"));
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(mock(TransactionStatus.class)));
+    }
+
+    @Test
+    void aBatchIsWrittenOnceWithItsMarker() {
+        productViewService.flush();
+
+        verify(jdbcTemplate).update(startsWith("INSERT INTO product_view_flush"), eq(BATCH), any());
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE product"), anyList(), eq(1), any(ParameterizedPreparedStatementSetter.class));
+        verify(valueOperations).increment("product-views-version");
+        verify(elasticsearchOperations).bulkUpdate(argThat(updates -> updates.size() == 1), eq(ProductDocument.class));
+        verify(stringRedisTemplate).delete(List.of("product-views-flushing", "product-views-flushing-batch"));
+    }
+
+    @Test
+    void aBatchAlreadyWrittenIsOnlyCleared() {
+        when(jdbcTemplate.update(startsWith("INSERT INTO product_view_flush"), eq(BATCH), any()))
+                .thenThrow(new DuplicateKeyException("batch-1"));
+
+        productViewService.flush();
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        verify(valueOperations, never()).increment(anyString());
+        verify(elasticsearchOperations, never()).bulkUpdate(anyList(), eq(ProductDocument.class));
+        verify(stringRedisTemplate).delete(List.of("product-views-flushing", "product-views-flushing-batch"));
+    }
+}
@@ -0,0 +1,94 @@
+package com.fragrance.raumania.service;
+
+import com.fragrance.raumania.dto.response.product.RelatedProductResponse;
+import com.fragrance.raumania.mapper.ProductMapper;
+import com.fragrance.raumania.model.product.Brand;
+import com.fragrance.raumania.model.product.Product;
+import com.fragrance.raumania.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class RelatedProductServiceTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final RelatedProductService relatedProductService =
+            new RelatedProductService(productRepository, new ProductMapper());
+
+    private final Brand brand = Brand.builder().name("Maison").build();
+
+    @Test
+    void rebuildKeepsAProductSavedWhileTheCatalogWasRead() {
+        Product first = product("First");
+        Product second = product("Second");
+        Product saved = product("Saved meanwhile");
+        when(productRepository.findDetailById(saved.getId())).thenReturn(Optional.of(saved));
+        when(productRepository.findAllProductsWithBrandAndVariants()).thenAnswer(invocation -> {
+            relatedProductService.refreshProduct(saved.getId());
+            return List.of(first, second);
+        });
+
+        relatedProductService.rebuild();
+
+        assertThat(ids(relatedProductService.getRelatedProducts(first.getId(), 4)))
+                .containsExactlyInAnyOrder(second.getId(), saved.getId());
+    }
+
+    @Test
+    void requestsDuringARebuildAreFoldedIntoOneMoreRun() {
+        Product first = product("First");
+        when(productRepository.findAllProductsWithBrandAndVariants())
+                .thenAnswer(invocation -> {
+                    relatedProductService.rebuild();
+                    relatedProductService.rebuild();
+                    return List.of(first);
+                })
+                .thenReturn(List.of(first));
+
+        relatedProductService.rebuild();
+
+        verify(productRepository, times(2)).findAllProductsWithBrandAndVariants();
+        assertThat(relatedProductService.getCard(first.getId())).isPresent();
+    }
+
+    @Test
+    void anImportedBatchJoinsTheListsWithoutReadingTheCatalog() {
+        Product first = product("First");
+        when(productRepository.findAllProductsWithBrandAndVariants()).thenReturn(List.of(first));
+        relatedProductService.rebuild();
+
+        Product imported = product("Imported");
+        Product inactive = product("Inactive");
+        inactive.setIsActive(false);
+        relatedProductService.addProducts(List.of(imported, inactive));
+
+        verify(productRepository, times(1)).findAllProductsWithBrandAndVariants();
+        assertThat(ids(relatedProductService.getRelatedProducts(first.getId(), 4))).containsExactly(imported.getId());
+        assertThat(relatedProductService.getCard(inactive.getId())).isEmpty();
+    }
+
+    @Test
+    void aProductNoLongerFoundIsDroppedFromEveryList() {
+        Product first = product("First");
+        Product deleted = product("Deleted");
+        when(productRepository.findAllProductsWithBrandAndVariants()).thenReturn(List.of(first, deleted));
+        relatedProductService.rebuild();
+        when(productRepository.findDetailById(deleted.getId())).thenReturn(Optional.empty());
+
+        relatedProductService.refreshProduct(deleted.getId());
+
+        assertThat(relatedProductService.getCard(deleted.getId())).isEmpty();
+        assertThat(ids(relatedProductService.getRelatedProducts(first.getId(), 4))).isEmpty();
+    }
+
+    private Product product(String name) {
+        return Product.builder().id(UUID.randomUUID()).name(name).brand(brand).isActive(true).build();
+    }
+
+    private List<UUID> ids(List<RelatedProductResponse> cards) {
+        return cards.stream().map(RelatedProductResponse::getId).toList();
+    }
+}
@@ -0,0 +1,61 @@
+package com.fragrance.raumania.service;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisHashCommands;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.connection.RedisSetCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ResponseCacheServiceTest {
+
+    @SuppressWarnings("unchecked")
+    private final RedisTemplate<String, byte[]> byteRedisTemplate = mock(RedisTemplate.class);
+    private final ResponseCacheService responseCacheService = new ResponseCacheService(byteRedisTemplate);
+
+    @Test
+    void entryExpiryAndTagsAreWrittenInOneTransaction() {
+        ReflectionTestUtils.setField(responseCacheService, "tagTtlMinutes", 60L);
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisHashCommands hashCommands = mock(RedisHashCommands.class);
+        RedisKeyCommands keyCommands = mock(RedisKeyCommands.class);
+        RedisSetCommands setCommands = mock(RedisSetCommands.class);
+        when(connection.hashCommands()).thenReturn(hashCommands);
+        when(connection.keyCommands()).thenReturn(keyCommands);
+        when(connection.setCommands()).thenReturn(setCommands);
+        when(byteRedisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation ->
+                invocation.<RedisCallback<?>>getArgument(0).doInRedis(connection));
+
+        responseCacheService.put("/api/product-variant/1|",
+                new ResponseCacheService.CachedResponse(Map.of("Content-Type", "application/json"), bytes("{}")),
+                Duration.ofSeconds(60),
+                List.of(ResponseCacheService.TAG_CATALOG, "product:1"));
+
+        byte[] key = bytes("response-cache-/api/product-variant/1|");
+        InOrder inOrder = inOrder(connection, hashCommands, keyCommands, setCommands);
+        inOrder.verify(connection).multi();
+        inOrder.verify(hashCommands).hMSet(aryEq(key), argThat(fields -> fields.size() == 2));
+        inOrder.verify(keyCommands).pExpire(aryEq(key), eq(60_000L));
+        inOrder.verify(setCommands).sAdd(aryEq(bytes("response-cache-tag-catalog")), aryEq(key));
+        inOrder.verify(keyCommands).expire(aryEq(bytes("response-cache-tag-catalog")), eq(3600L));
+        inOrder.verify(setCommands).sAdd(aryEq(bytes("response-cache-tag-product:1")), aryEq(key));
+        inOrder.verify(keyCommands).expire(aryEq(bytes("response-cache-tag-product:1")), eq(3600L));
+        inOrder.verify(connection).exec();
+    }
+
+    private byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,112 @@
+package com.fragrance.raumania.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fragrance.raumania.dto.filter.product.ProductFilter;
+import com.fragrance.raumania.dto.response.PageResponse;
+import com.fragrance.raumania.dto.response.product.ProductSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class SearchResultCacheServiceTest {
+
+    private static final String GENERATION = "search-result-generation";
+
+    @SuppressWarnings("unchecked")
+    private final RedisTemplate<String, Object> redisTemplate = mock(RedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, Object> valueOperations = mock(ValueOperations.class);
+    private final SearchResultCacheService searchResultCacheService =
+            new SearchResultCacheService(redisTemplate, new ObjectMapper());
+
+    // Cache keys looked up, in order
+    private final List<String> keys = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(searchResultCacheService, "searchResultTtlSeconds", 120L);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(anyString())).thenAnswer(invocation -> {
+            String key = invocation.getArgument(0);
+            if (GENERATION.equals(key)) {
+                return 7L;
+            }
+            keys.add(key);
+            return null;
+        });
+    }
+
+    @Test
+    void equivalentSearchesShareAKey() {
+        ProductFilter spelled = ProductFilter.builder().name("  Amber   OUD ").brandName("").build();
+        ProductFilter canonical = ProductFilter.builder().name("amber oud").build();
+
+        assertThat(key(spelled, 0, 12, "minPrice", "DESC")).isEqualTo(key(canonical, 1, 12, "minPrice", "desc"));
+        // The popular sort ignores the direction
+        assertThat(key(canonical, 1, 12, "popular", "asc")).isEqualTo(key(canonical, 1, 12, "POPULAR", "desc"));
+        assertThat(key(new ProductFilter(), 1, 12, "id", "asc"))
+                .isEqualTo(key(ProductFilter.builder().name(" ").scent(" ").build(), 1, 12, "id", "asc"))
+                .startsWith("search-result-7-");
+    }
+
+    @Test
+    void differentSearchesGetDifferentKeys() {
+        ProductFilter filter = ProductFilter.builder().name("amber").build();
+        String base = key(filter, 1, 12, "minPrice", "asc");
+
+        assertThat(List.of(
+                key(filter, 2, 12, "minPrice", "asc"),
+                key(filter, 1, 24, "minPrice", "asc"),
+                key(filter, 1, 12, "minPrice", "desc"),
+                key(filter, 1, 12, "name", "asc"),
+                key(ProductFilter.builder().name("amber").brandName("Maison").build(), 1, 12, "minPrice", "asc"),
+                // Keyword filters are matched exactly, so their case is kept
+                key(ProductFilter.builder().name("amber").scent("Rose").build(), 1, 12, "minPrice", "asc"),
+                key(ProductFilter.builder().name("amber").scent("rose").build(), 1, 12, "minPrice", "asc"),
+                key(ProductFilter.builder().name("amber").minPrice(10.0).build(), 1, 12, "minPrice", "asc"),
+                key(ProductFilter.builder().name("amber").maxPrice(10.0).build(), 1, 12, "minPrice", "asc"),
+                key(ProductFilter.builder().name("amber").isActive(true).build(), 1, 12, "minPrice", "asc")))
+                .doesNotContain(base)
+                .doesNotHaveDuplicates();
+    }
+
+    @Test
+    void anUnreachableRedisFallsThroughToTheLoader() {
+        when(valueOperations.get(anyString())).thenThrow(new RedisConnectionFailureException("down"));
+        PageResponse<List<ProductSummary>> page = emptyPage();
+
+        assertThat(searchResultCacheService.getPage(new ProductFilter(), 1, 12, "id", "asc", () -> page))
+                .isSameAs(page);
+        verify(valueOperations, never()).set(anyString(), any(), any(Duration.class));
+    }
+
+    @Test
+    void aMissIsStoredUnderTheLookedUpKey() {
+        searchResultCacheService.getPage(new ProductFilter(), 1, 12, "id", "asc", this::emptyPage);
+
+        verify(valueOperations).set(eq(keys.get(0)), anyString(), eq(Duration.ofSeconds(120)));
+        assertThat(searchResultCacheService.getStatistic().getMisses()).isEqualTo(1);
+    }
+
+    private String key(ProductFilter filter, int pageNumber, int pageSize, String sortBy, String sortDirection) {
+        searchResultCacheService.getPage(filter, pageNumber, pageSize, sortBy, sortDirection, this::emptyPage);
+        return keys.get(keys.size() - 1);
+    }
+
+    private PageResponse<List<ProductSummary>> emptyPage() {
+        return PageResponse.<List<ProductSummary>>builder().pageNumber(1).pageSize(12).content(List.of()).build();
+    }
+}
@@ -0,0 +1,42 @@
+package com.fragrance.raumania.service.implement;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fragrance.raumania.dto.response.product.ProductImportError;
+import com.fragrance.raumania.dto.response.product.ProductImportResponse;
+import com.fragrance.raumania.repository.BrandRepository;
+import com.fragrance.raumania.repository.ProductRepository;
+import com.fragrance.raumania.service.FallbackSearchService;
+import com.fragrance.raumania.service.ProductCountCacheService;
+import com.fragrance.raumania.service.RelatedProductService;
+import com.fragrance.raumania.service.ResponseCacheService;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class ProductImportServiceImplTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final ProductImportServiceImpl productImportService = new ProductImportServiceImpl(
+            jdbcTemplate, mock(TransactionTemplate.class), mock(BrandRepository.class),
+            mock(ProductRepository.class), mock(ProductCountCacheService.class), mock(ResponseCacheService.class),
+            mock(FallbackSearchService.class), mock(RelatedProductService.class), new ObjectMapper());
+
+    @Test
+    void anUnrecognisedIsActiveValueFailsTheRow() throws Exception {
+        String csv = "name,brand,isActive\nFirst,Maison,yes\nSecond,Maison, 1\n";
+
+        ProductImportResponse response = productImportService.importProducts(new MockMultipartFile(
+                "file", "products.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(response.getFailedRows()).isEqualTo(2);
+        assertThat(response.getErrors()).extracting(ProductImportError::message)
+                .containsExactly("isActive must be true or false: yes", "isActive must be true or false: 1");
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
@@ -0,0 +1,105 @@
+package com.fragrance.raumania.service.implement;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fragrance.raumania.dto.response.PageResponse;
+import com.fragrance.raumania.mapper.ProductMapper;
+import com.fragrance.raumania.model.product.ProductDocument;
+import com.fragrance.raumania.repository.ProductRepository;
+import com.fragrance.raumania.service.FallbackSearchService;
+import com.fragrance.raumania.service.ProductReindexService;
+import com.fragrance.raumania.service.SearchHealthService;
+import com.fragrance.raumania.service.SearchResultCacheService;
+import com.fragrance.raumania.utils.CursorUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ProductIndexServiceImplTest {
+
+    private final ElasticsearchOperations elasticsearchOperations = mock(ElasticsearchOperations.class);
+    private final CursorUtils cursorUtils = new CursorUtils(new ObjectMapper());
+    private final ProductIndexServiceImpl productIndexService = new ProductIndexServiceImpl(
+            mock(ProductRepository.class), mock(ProductMapper.class), elasticsearchOperations,
+            mock(ElasticsearchClient.class), cursorUtils, mock(SearchResultCacheService.class),
+            mock(ProductReindexService.class), mock(FallbackSearchService.class), new SearchHealthService());
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(productIndexService, "pointInTimeKeepAliveSeconds", 120L);
+        ReflectionTestUtils.setField(productIndexService, "maxOpenPointsInTime", 1);
+        when(elasticsearchOperations.openPointInTime(any(), any())).thenReturn("pit-1", "pit-2");
+    }
+
+    @Test
+    void aFirstPageThatHoldsEveryResultClosesItsSnapshot() {
+        answer(hits(2, "pit-1"));
+
+        PageResponse<?> page = search("");
+
+        assertThat(page.getNextCursor()).isNull();
+        verify(elasticsearchOperations).closePointInTime("pit-1");
+    }
+
+    @Test
+    void theLastPageClosesTheSnapshotAndFreesItsSlot() {
+        answer(hits(3, "pit-1"), hits(1, "pit-1b"), hits(3, "pit-2"));
+
+        PageResponse<?> first = search("");
+        assertThat(cursorUtils.decode(first.getNextCursor())).containsEntry("pit", "pit-1");
+        assertThat(search(first.getNextCursor()).getNextCursor()).isNull();
+        verify(elasticsearchOperations).closePointInTime("pit-1b");
+
+        assertThat(cursorUtils.decode(search("").getNextCursor())).containsEntry("pit", "pit-2");
+    }
+
+    @Test
+    void pastTheCapCursorsPageTheLiveIndex() {
+        answer(hits(3, "pit-1"), hits(3, null));
+
+        search("");
+        PageResponse<?> second = search("");
+
+        assertThat(cursorUtils.decode(second.getNextCursor())).doesNotContainKey("pit");
+        verify(elasticsearchOperations, times(1)).openPointInTime(any(), any());
+        verify(elasticsearchOperations, never()).closePointInTime(anyString());
+    }
+
+    private PageResponse<?> search(String cursor) {
+        return productIndexService.elasticsearchProducts(null, null, null, null, null, null, null,
+                1, 2, "id", "asc", cursor);
+    }
+
+    @SafeVarargs
+    private void answer(SearchHits<ProductDocument> first, SearchHits<ProductDocument>... rest) {
+        when(elasticsearchOperations.search(any(Query.class), eq(ProductDocument.class))).thenReturn(first, rest);
+    }
+
+    @SuppressWarnings("unchecked")
+    private SearchHits<ProductDocument> hits(int count, String pointInTime) {
+        List<SearchHit<ProductDocument>> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            SearchHit<ProductDocument> hit = mock(SearchHit.class);
+            UUID id = UUID.randomUUID();
+            when(hit.getContent()).thenReturn(ProductDocument.builder().id(id).name("Product " + i).build());
+            when(hit.getSortValues()).thenReturn(List.of(id.toString()));
+            rows.add(hit);
+        }
+        SearchHits<ProductDocument> searchHits = mock(SearchHits.class);
+        when(searchHits.getSearchHits()).thenReturn(rows);
+        when(searchHits.getPointInTimeId()).thenReturn(pointInTime);
+        return searchHits;
+    }
+}
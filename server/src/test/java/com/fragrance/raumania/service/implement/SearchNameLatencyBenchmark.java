@@ -0,0 +1,169 @@
+package com.fragrance.raumania.service.implement;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.json.JsonData;
+import com.fragrance.raumania.model.product.ProductDocument;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.elasticsearch.client.ClientConfiguration;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchClients;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchTemplate;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.testcontainers.elasticsearch.ElasticsearchContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Latency of the search_as_you_type query behind /api/product/search-name and /suggest, against the
+ * case-insensitive {@code *term*} wildcard it replaced, on a synthetic 100k-product index. Every keystroke of a
+ * set of product names is sent through both. Needs Docker and is skipped by default; run it with
+ * {@code mvn test -Dtest=SearchNameLatencyBenchmark -Dbenchmark=true}.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class SearchNameLatencyBenchmark {
+
+    private static final String INDEX = "products-benchmark";
+    private static final int DOCUMENTS = 100_000;
+    private static final int BULK_SIZE = 5_000;
+    private static final int TYPED_NAMES = 200;
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int PAGE_SIZE = 10;
+
+    private static final String[] ADJECTIVES = {"Velvet", "Amber", "Midnight", "Golden", "Silver", "Wild", "Noble",
+            "Secret", "Royal", "Crystal", "Smoky", "Frozen", "Electric", "Ancient", "Dusky", "Radiant"};
+    private static final String[] NOTES = {"Oud", "Rose", "Musk", "Vetiver", "Jasmine", "Cedar", "Vanilla",
+            "Bergamot", "Iris", "Patchouli", "Sandalwood", "Tuberose", "Leather", "Neroli", "Tonka", "Saffron"};
+    private static final String[] STYLES = {"Eau de Parfum", "Eau de Toilette", "Intense", "Extrait", "Cologne",
+            "Elixir", "Absolu", "Nuit"};
+
+    @Container
+    private static final ElasticsearchContainer ELASTICSEARCH =
+            new ElasticsearchContainer("docker.elastic.co/elasticsearch/elasticsearch:8.17.4")
+                    .withEnv("xpack.security.enabled", "false")
+                    .withEnv("ES_JAVA_OPTS", "-Xms1g -Xmx1g");
+
+    private static ElasticsearchClient client;
+    private static List<String> names;
+
+    @BeforeAll
+    static void index() throws IOException {
+        client = ElasticsearchClients.createImperative(
+                ClientConfiguration.create(ELASTICSEARCH.getHttpHostAddress()));
+        ElasticsearchTemplate template = new ElasticsearchTemplate(client);
+
+        IndexCoordinates coordinates = IndexCoordinates.of(INDEX);
+        IndexOperations indexOperations = template.indexOps(coordinates);
+        indexOperations.create(Map.of("index.number_of_replicas", 0),
+                indexOperations.createMapping(ProductDocument.class));
+
+        Random random = new Random(42);
+        names = new ArrayList<>(DOCUMENTS);
+        List<IndexQuery> queries = new ArrayList<>(BULK_SIZE);
+        for (int i = 0; i < DOCUMENTS; i++) {
+            String name = pick(random, ADJECTIVES) + " " + pick(random, NOTES) + " " + pick(random, NOTES) + " "
+                    + pick(random, STYLES) + " " + (random.nextInt(900) + 100);
+            names.add(name);
+            ProductDocument document = ProductDocument.builder()
+                    .id(new UUID(random.nextLong(), random.nextLong()))
+                    .name(name)
+                    .isActive(true)
+                    .build();
+            queries.add(new IndexQueryBuilder().withId(document.getId().toString()).withObject(document).build());
+            if (queries.size() == BULK_SIZE) {
+                template.bulkIndex(queries, coordinates);
+                queries.clear();
+            }
+        }
+        indexOperations.refresh();
+        client.indices().forcemerge(f -> f.index(INDEX).maxNumSegments(1L));
+    }
+
+    @Test
+    void asYouTypeAgainstWildcard() throws IOException {
+        // Every prefix of each name as typed, from two characters on, lower case as users type it
+        Random random = new Random(7);
+        List<String> keystrokes = new ArrayList<>();
+        for (int i = 0; i < TYPED_NAMES; i++) {
+            String name = names.get(random.nextInt(names.size())).toLowerCase(Locale.ROOT);
+            for (int length = 2; length <= name.length(); length++) {
+                if (name.charAt(length - 1) != ' ') {
+                    keystrokes.add(name.substring(0, length));
+                }
+            }
+        }
+
+        Function<String, Query> wildcard = text -> Query.of(q -> q.wildcard(w -> w
+                .field("name")
+                .value("*" + text + "*")
+                .caseInsensitive(true)));
+        Function<String, Query> asYouType = ProductIndexServiceImpl::nameAsYouTypeQuery;
+
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            run(keystrokes, wildcard);
+            run(keystrokes, asYouType);
+        }
+        Result wildcardResult = run(keystrokes, wildcard);
+        Result asYouTypeResult = run(keystrokes, asYouType);
+
+        System.out.printf("Name autocomplete over %,d products, %,d keystrokes%n", DOCUMENTS, keystrokes.size());
+        System.out.println("  wildcard *term*:   " + wildcardResult);
+        System.out.println("  search_as_you_type: " + asYouTypeResult);
+
+        assertThat(asYouTypeResult.hits()).isPositive();
+    }
+
+    private Result run(List<String> keystrokes, Function<String, Query> query) throws IOException {
+        long[] took = new long[keystrokes.size()];
+        long[] wallNanos = new long[keystrokes.size()];
+        long hits = 0;
+        for (int i = 0; i < keystrokes.size(); i++) {
+            Query built = query.apply(keystrokes.get(i));
+            long start = System.nanoTime();
+            SearchResponse<JsonData> response = client.search(s -> s
+                    .index(INDEX)
+                    .query(built)
+                    .size(PAGE_SIZE)
+                    .requestCache(false), JsonData.class);
+            wallNanos[i] = System.nanoTime() - start;
+            took[i] = response.took();
+            hits += response.hits().hits().size();
+        }
+        return new Result(took, wallNanos, hits);
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private record Result(long[] tookMillis, long[] wallNanos, long hits) {
+
+        @Override
+        public String toString() {
+            long[] took = tookMillis.clone();
+            long[] wall = wallNanos.clone();
+            Arrays.sort(took);
+            Arrays.sort(wall);
+            return String.format("took p50 %d ms, p95 %d ms, p99 %d ms; round trip p50 %.2f ms, p95 %.2f ms, "
+                            + "p99 %.2f ms",
+                    percentile(took, 50), percentile(took, 95), percentile(took, 99),
+                    percentile(wall, 50) / 1e6, percentile(wall, 95) / 1e6, percentile(wall, 99) / 1e6);
+        }
+
+        private static long percentile(long[] sorted, int percent) {
+            return sorted[Math.min(sorted.length - 1, sorted.length * percent / 100)];
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.fragrance.raumania.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Build time and memory of the co-purchase matrix for a million synthetic order lines, next to the boxed
+ * {@code Map<UUID, Map<UUID, Integer>>} it replaces. Skipped by default; run it with
+ * {@code mvn test -Dtest=CoPurchaseMatrixBenchmark -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CoPurchaseMatrixBenchmark {
+
+    private static final int ORDER_LINES = 1_000_000;
+    private static final int PRODUCTS = 20_000;
+    private static final int MAX_BASKET_SIZE = 50;
+    private static final int WARMUP_RUNS = 2;
+    private static final int MEASURED_RUNS = 5;
+
+    @Test
+    void buildFromOneMillionOrderLines() {
+        List<UUID[]> baskets = baskets(new Random(42));
+
+        for (int run = 0; run < WARMUP_RUNS; run++) {
+            build(baskets);
+            buildBoxed(baskets);
+        }
+
+        long[] matrixNanos = new long[MEASURED_RUNS];
+        long[] boxedNanos = new long[MEASURED_RUNS];
+        CoPurchaseMatrix matrix = null;
+        for (int run = 0; run < MEASURED_RUNS; run++) {
+            long start = System.nanoTime();
+            matrix = build(baskets);
+            matrixNanos[run] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            buildBoxed(baskets);
+            boxedNanos[run] = System.nanoTime() - start;
+        }
+
+        long neighboursStart = System.nanoTime();
+        for (int index = 0; index < matrix.size(); index++) {
+            matrix.topNeighbours(index, 8, 2);
+        }
+        long neighboursNanos = System.nanoTime() - neighboursStart;
+
+        long matrixHeap = retainedBytes(() -> build(baskets));
+        long boxedHeap = retainedBytes(() -> buildBoxed(baskets));
+
+        System.out.printf("Co-purchase matrix: %,d order lines in %,d orders, %,d products, %,d pairs%n",
+                ORDER_LINES, baskets.size(), matrix.size(), matrix.pairCount());
+        System.out.printf("  primitive build: median %,d ms, estimateBytes %,d KB, retained heap ~%,d KB%n",
+                median(matrixNanos) / 1_000_000, matrix.estimateBytes() / 1024, matrixHeap / 1024);
+        System.out.printf("  boxed build:     median %,d ms, retained heap ~%,d KB%n",
+                median(boxedNanos) / 1_000_000, boxedHeap / 1024);
+        System.out.printf("  top-8 neighbours: %,d ns per product%n", neighboursNanos / matrix.size());
+
+        assertThat(matrix.size()).isPositive();
+    }
+
+    // Basket sizes skew small and product popularity follows a rough power law, like real order history
+    private List<UUID[]> baskets(Random random) {
+        UUID[] products = new UUID[PRODUCTS];
+        for (int i = 0; i < PRODUCTS; i++) {
+            products[i] = new UUID(random.nextLong(), random.nextLong());
+        }
+
+        List<UUID[]> baskets = new ArrayList<>();
+        int lines = 0;
+        while (lines < ORDER_LINES) {
+            int size = Math.min(1 + (int) (-Math.log(1 - random.nextDouble()) * 3), ORDER_LINES - lines);
+            UUID[] basket = new UUID[size];
+            for (int i = 0; i < size; i++) {
+                basket[i] = products[(int) (PRODUCTS * Math.pow(random.nextDouble(), 3))];
+            }
+            baskets.add(basket);
+            lines += size;
+        }
+        return baskets;
+    }
+
+    private CoPurchaseMatrix build(List<UUID[]> baskets) {
+        CoPurchaseMatrix matrix = new CoPurchaseMatrix(MAX_BASKET_SIZE);
+        baskets.forEach(matrix::addBasket);
+        return matrix;
+    }
+
+    private Map<UUID, Map<UUID, Integer>> buildBoxed(List<UUID[]> baskets) {
+        Map<UUID, Map<UUID, Integer>> pairs = new HashMap<>();
+        for (UUID[] basket : baskets) {
+            Set<UUID> unique = new LinkedHashSet<>(Arrays.asList(basket));
+            for (UUID a : unique) {
+                Map<UUID, Integer> row = pairs.computeIfAbsent(a, id -> new HashMap<>());
+                for (UUID b : unique) {
+                    if (!a.equals(b)) {
+                        row.merge(b, 1, Integer::sum);
+                    }
+                }
+            }
+        }
+        return pairs;
+    }
+
+    // Heap still in use after a collection, with the built structure held; rough, but fine for orders of magnitude
+    private long retainedBytes(Supplier<Object> builder) {
+        long before = usedHeap();
+        Object built = builder.get();
+        long after = usedHeap();
+        assertThat(built).isNotNull();
+        return Math.max(after - before, 0);
+    }
+
+    private long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
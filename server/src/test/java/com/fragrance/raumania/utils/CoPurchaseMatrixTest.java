@@ -0,0 +1,86 @@
+package com.fragrance.raumania.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CoPurchaseMatrixTest {
+
+    private final UUID a = UUID.randomUUID();
+    private final UUID b = UUID.randomUUID();
+    private final UUID c = UUID.randomUUID();
+
+    @Test
+    void countsEachPairOnceInBothDirections() {
+        CoPurchaseMatrix matrix = new CoPurchaseMatrix(10);
+
+        int[] basket = matrix.addBasket(new UUID[]{a, b, a});
+
+        assertThat(basket).containsExactly(matrix.indexOf(a), matrix.indexOf(b));
+        assertThat(matrix.size()).isEqualTo(2);
+        assertThat(matrix.pairCount()).isEqualTo(2);
+        assertThat(matrix.neighboursOf(matrix.indexOf(a))).containsExactly(matrix.indexOf(b));
+        assertThat(matrix.neighboursOf(matrix.indexOf(b))).containsExactly(matrix.indexOf(a));
+    }
+
+    @Test
+    void truncatesLargeBaskets() {
+        CoPurchaseMatrix matrix = new CoPurchaseMatrix(2);
+
+        assertThat(matrix.addBasket(new UUID[]{a, b, c})).hasSize(2);
+        assertThat(matrix.indexOf(c)).isEqualTo(-1);
+        assertThat(matrix.pairCount()).isEqualTo(2);
+    }
+
+    @Test
+    void ranksNeighboursByCosineSoPopularProductsDoNotDominate() {
+        CoPurchaseMatrix matrix = new CoPurchaseMatrix(10);
+        UUID popular = UUID.randomUUID();
+        for (int i = 0; i < 2; i++) {
+            matrix.addBasket(new UUID[]{a, b});
+        }
+        for (int i = 0; i < 3; i++) {
+            matrix.addBasket(new UUID[]{a, popular});
+        }
+        for (int i = 0; i < 20; i++) {
+            matrix.addBasket(new UUID[]{popular, UUID.randomUUID()});
+        }
+
+        // a-b: 2 / sqrt(5 * 2) = 0.63; a-popular: 3 / sqrt(5 * 23) = 0.28, despite the higher count
+        int index = matrix.indexOf(a);
+        assertThat(matrix.topNeighbours(index, 5, 1)).containsExactly(matrix.indexOf(b), matrix.indexOf(popular));
+        assertThat(matrix.topNeighbours(index, 1, 1)).containsExactly(matrix.indexOf(b));
+        assertThat(matrix.topNeighbours(index, 5, 3)).containsExactly(matrix.indexOf(popular));
+    }
+
+    @Test
+    void productBoughtAloneHasNoNeighbours() {
+        CoPurchaseMatrix matrix = new CoPurchaseMatrix(10);
+
+        matrix.addBasket(new UUID[]{c});
+
+        assertThat(matrix.topNeighbours(matrix.indexOf(c), 5, 1)).isEmpty();
+        assertThat(matrix.neighboursOf(matrix.indexOf(c))).isEmpty();
+    }
+
+    @Test
+    void keepsEveryIdAndPairAcrossGrowth() {
+        CoPurchaseMatrix matrix = new CoPurchaseMatrix(100);
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 3_000; i++) {
+            ids.add(new UUID(i, -i));
+        }
+        for (int start = 0; start < ids.size(); start += 60) {
+            matrix.addBasket(ids.subList(start, start + 60).toArray(new UUID[0]));
+        }
+
+        assertThat(matrix.size()).isEqualTo(ids.size());
+        for (UUID id : ids) {
+            assertThat(matrix.idAt(matrix.indexOf(id))).isEqualTo(id);
+        }
+        assertThat(matrix.neighboursOf(matrix.indexOf(ids.get(0)))).hasSize(59);
+        assertThat(matrix.pairCount()).isEqualTo(ids.size() * 59L);
+    }
+}
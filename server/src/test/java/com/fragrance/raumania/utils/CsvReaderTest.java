@@ -0,0 +1,55 @@
+package com.fragrance.raumania.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvReaderTest {
+
+    @Test
+    void splitsPlainFields() throws IOException {
+        assertThat(read("name,brand,price\nRose,Maison,40\n"))
+                .containsExactly(List.of("name", "brand", "price"), List.of("Rose", "Maison", "40"));
+    }
+
+    @Test
+    void quotedFieldsKeepCommasQuotesAndLineBreaks() throws IOException {
+        assertThat(read("\"Oud, Intense\",\"The \"\"night\"\" one\",\"first line\nsecond line\"\n"))
+                .containsExactly(List.of("Oud, Intense", "The \"night\" one", "first line\nsecond line"));
+    }
+
+    @Test
+    void dropsCarriageReturnsOutsideQuotesOnly() throws IOException {
+        assertThat(read("a,b\r\n\"c\r\nd\",e\r\n"))
+                .containsExactly(List.of("a", "b"), List.of("c\r\nd", "e"));
+    }
+
+    @Test
+    void keepsEmptyFieldsAndLastRecordWithoutNewline() throws IOException {
+        assertThat(read(",,\n\nlast,\"\""))
+                .containsExactly(List.of("", "", ""), List.of(""), List.of("last", ""));
+    }
+
+    @Test
+    void returnsNullAtEndOfInput() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("only\n"));
+
+        assertThat(reader.readRecord()).containsExactly("only");
+        assertThat(reader.readRecord()).isNull();
+        assertThat(new CsvReader(new StringReader("")).readRecord()).isNull();
+    }
+
+    private List<List<String>> read(String csv) throws IOException {
+        CsvReader reader = new CsvReader(new StringReader(csv));
+        List<List<String>> records = new ArrayList<>();
+        for (List<String> record = reader.readRecord(); record != null; record = reader.readRecord()) {
+            records.add(record);
+        }
+        return records;
+    }
+}
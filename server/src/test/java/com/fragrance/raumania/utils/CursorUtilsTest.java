@@ -0,0 +1,106 @@
+package com.fragrance.raumania.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fragrance.raumania.exception.InvalidDataException;
+import com.fragrance.raumania.model.product.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorUtilsTest {
+
+    private final CursorUtils cursorUtils = new CursorUtils(new ObjectMapper());
+    private final SortUtils sortUtils = new SortUtils();
+
+    @Test
+    void resolvesThePaginationMode() {
+        assertThat(CursorUtils.resolveCursor(null, null)).isNull();
+        assertThat(CursorUtils.resolveCursor("offset", null)).isNull();
+        assertThat(CursorUtils.resolveCursor("cursor", null)).isEmpty();
+        assertThat(CursorUtils.resolveCursor("CURSOR", null)).isEmpty();
+        // A cursor wins over the mode, and the empty cursor= convention keeps working
+        assertThat(CursorUtils.resolveCursor("offset", "abc")).isEqualTo("abc");
+        assertThat(CursorUtils.resolveCursor("offset", "")).isEmpty();
+        assertThatThrownBy(() -> CursorUtils.resolveCursor("page", null)).isInstanceOf(InvalidDataException.class);
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        Sort sort = sortUtils.buildKeysetSort("minPrice", "asc");
+        List<Product> rows = List.of(product(10.0), product(20.0));
+
+        CursorUtils.KeysetPage<Product> page = cursorUtils.toKeysetPage(rows, 2, sort);
+
+        assertThat(page.content()).hasSize(2);
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void cursorCarriesTheSortAndTheLastRowOfThePage() {
+        Sort sort = sortUtils.buildKeysetSort("minPrice", "desc");
+        Product last = product(20.0);
+        List<Product> rows = List.of(product(30.0), last, product(10.0));
+
+        CursorUtils.KeysetPage<Product> page = cursorUtils.toKeysetPage(rows, 2, sort);
+
+        assertThat(page.content()).hasSize(2);
+        assertThat(cursorUtils.decode(page.nextCursor())).containsExactlyInAnyOrderEntriesOf(Map.of(
+                "sortBy", "minPrice",
+                "direction", "DESC",
+                "value", 20.0,
+                "id", last.getId().toString()));
+        assertThat(cursorUtils.seek(sort, page.nextCursor(), Product.class)).isNotNull();
+    }
+
+    @Test
+    void rejectsAPageSizeBelowOne() {
+        Sort sort = sortUtils.buildKeysetSort("minPrice", "asc");
+
+        assertThatThrownBy(() -> cursorUtils.toKeysetPage(List.of(product(10.0)), 0, sort))
+                .isInstanceOf(InvalidDataException.class)
+                .hasMessage("Page size must be positive");
+    }
+
+    @Test
+    void onlyProductSortsKnowThePopularOrder() {
+        assertThat(sortUtils.buildProductKeysetSort("popular", "asc"))
+                .containsExactly(Sort.Order.desc(SortUtils.VIEW_COUNT), Sort.Order.desc("id"));
+        assertThat(sortUtils.buildSort("popular", "asc")).containsExactly(Sort.Order.asc("popular"));
+    }
+
+    @Test
+    void rejectsACursorFromAnotherSort() {
+        Sort ascending = sortUtils.buildKeysetSort("minPrice", "asc");
+        String cursor = cursorUtils.toKeysetPage(List.of(product(10.0), product(20.0)), 1, ascending).nextCursor();
+
+        assertThatThrownBy(() -> cursorUtils.seek(sortUtils.buildKeysetSort("minPrice", "desc"), cursor, Product.class))
+                .isInstanceOf(InvalidDataException.class)
+                .hasMessage("Cursor does not match the requested sort");
+        assertThatThrownBy(() -> cursorUtils.seek(sortUtils.buildKeysetSort("name", "asc"), cursor, Product.class))
+                .isInstanceOf(InvalidDataException.class);
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        Sort sort = sortUtils.buildKeysetSort("minPrice", "asc");
+        String wrongType = cursorUtils.encode(Map.of(
+                "sortBy", "minPrice", "direction", "ASC", "value", "cheap", "id", UUID.randomUUID().toString()));
+
+        assertThatThrownBy(() -> cursorUtils.seek(sort, "not a cursor", Product.class))
+                .isInstanceOf(InvalidDataException.class)
+                .hasMessage("Invalid cursor");
+        assertThatThrownBy(() -> cursorUtils.seek(sort, wrongType, Product.class))
+                .isInstanceOf(InvalidDataException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    private Product product(Double minPrice) {
+        return Product.builder().id(UUID.randomUUID()).minPrice(minPrice).build();
+    }
+}